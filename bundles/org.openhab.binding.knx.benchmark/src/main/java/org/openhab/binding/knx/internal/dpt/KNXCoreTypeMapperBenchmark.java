@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.dpt;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.types.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
+/**
+ * Benchmarks the conversion of received telegram data by the {@link KNXCoreTypeMapper}. The benchmark is in the
+ * package of the mapper to compare its conversion paths: <code>toType</code> as used by the binding,
+ * <code>reusedTranslator</code> converting with the shared DPTXlator of the datapoint type, and
+ * <code>newTranslator</code> creating a DPTXlator for every telegram, as the binding did before datapoint types were
+ * decoded directly.
+ *
+ * Every operation converts one of 64 random telegrams of the datapoint type.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KNXCoreTypeMapperBenchmark {
+
+    private static final int TELEGRAMS = 64;
+
+    @Param({ "1.001", "5.001", "7.001", "9.001", "13.001", "14.019", "16.001" })
+    public String dpt;
+
+    private KNXCoreTypeMapper mapper;
+    private Datapoint datapoint;
+    private byte[][] telegrams;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        mapper = new KNXCoreTypeMapper();
+        datapoint = new CommandDP(new GroupAddress(1, 2, 3), "benchmark", 0, dpt);
+
+        int size;
+        switch (dpt.substring(0, dpt.indexOf('.'))) {
+            case "1":
+            case "5":
+                size = 1;
+                break;
+            case "7":
+            case "9":
+                size = 2;
+                break;
+            case "16":
+                size = 14;
+                break;
+            default:
+                size = 4;
+                break;
+        }
+        Random random = new Random(42);
+        telegrams = new byte[TELEGRAMS][size];
+        for (byte[] telegram : telegrams) {
+            if (size == 14) {
+                // printable ASCII, as sent by displays
+                for (int i = 0; i < size; i++) {
+                    telegram[i] = (byte) (' ' + random.nextInt(95));
+                }
+            } else {
+                random.nextBytes(telegram);
+            }
+        }
+    }
+
+    private byte[] nextTelegram() {
+        next = (next + 1) % TELEGRAMS;
+        return telegrams[next];
+    }
+
+    @Benchmark
+    public Type toType() {
+        return mapper.toType(datapoint, nextTelegram());
+    }
+
+    @Benchmark
+    public Type reusedTranslator() {
+        return mapper.toType(datapoint, nextTelegram(), true);
+    }
+
+    @Benchmark
+    public Type newTranslator() {
+        return mapper.toType(datapoint, nextTelegram(), false);
+    }
+}
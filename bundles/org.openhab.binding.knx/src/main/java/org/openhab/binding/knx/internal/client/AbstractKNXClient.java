@@ -14,7 +14,6 @@ package org.openhab.binding.knx.internal.client;
 
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -70,7 +69,6 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     private final ThingUID thingUID;
     private final int responseTimeout;
-    private final int readingPause;
     private final int autoReconnectPeriod;
     private final int readRetriesLimit;
     private final StatusUpdateCallback statusUpdateCallback;
@@ -86,7 +84,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> connectJob;
 
     private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final ReadDatapointQueue readDatapoints = new ReadDatapointQueue();
+    private final AdaptiveReadingPause readingPause;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -128,7 +127,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
-        this.readingPause = readingPause;
+        this.readingPause = new AdaptiveReadingPause(readingPause);
         this.readRetriesLimit = readRetriesLimit;
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
@@ -196,8 +195,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0,
+                    readingPause.getConfiguredMillis(), TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             cancelReconnectJob(false);
@@ -245,6 +244,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     private void processEvent(String task, ProcessEvent event, ListenerNotification action) {
+        readingPause.telegramReceived();
         GroupAddress destination = event.getDestination();
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
@@ -276,13 +276,23 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         if (processCommunicator == null) {
             return;
         }
+        if (!readingPause.isOver()) {
+            return;
+        }
         ReadDatapoint datapoint = readDatapoints.poll();
         if (datapoint != null) {
             datapoint.incrementRetries();
             try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+                logger.trace("Sending a Group Read Request telegram for {} ({} priority)",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getPriority());
                 processCommunicator.read(datapoint.getDatapoint());
+                readingPause.readSucceeded();
+                if (logger.isDebugEnabled() && readDatapoints.isEmpty()) {
+                    logger.debug("Bridge {} read all queued datapoints, {} read requests per second, {}", thingUID,
+                            String.format("%.1f", readDatapoints.getDrainRate()), readingPause);
+                }
             } catch (KNXException e) {
+                readingPause.readFailed();
                 if (datapoint.getRetries() < datapoint.getLimit()) {
                     readDatapoints.add(datapoint);
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
@@ -363,13 +373,8 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
-        }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit, priority));
     }
 
     @Override
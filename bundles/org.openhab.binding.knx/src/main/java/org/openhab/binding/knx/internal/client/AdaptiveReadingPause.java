@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Pause between two read requests to the KNX bus, adapting to the bus load.
+ *
+ * The configured reading pause is the shortest pause, reads are never sent faster than configured. When the bus is
+ * busy, or a read failed, the pause is doubled up to four times the configured pause. When the bus is no longer busy,
+ * the pause is halved step by step back to the configured pause.
+ *
+ * @author agent
+ *
+ */
+@NonNullByDefault
+public class AdaptiveReadingPause {
+
+    /** telegram rate above which the bus is considered busy, the capacity of a twisted pair line is about 50 */
+    static final int BUSY_TELEGRAMS_PER_SECOND = 20;
+
+    private final long configuredMillis;
+    private final long maxMillis;
+    private final LongSupplier clock;
+
+    private final AtomicInteger telegrams = new AtomicInteger();
+    private volatile long millis;
+    private volatile long lastRead;
+
+    /**
+     * @param readingPause the configured reading pause in milliseconds
+     */
+    public AdaptiveReadingPause(int readingPause) {
+        this(readingPause, System::currentTimeMillis);
+    }
+
+    AdaptiveReadingPause(int readingPause, LongSupplier clock) {
+        this.configuredMillis = Math.max(readingPause, 1);
+        this.maxMillis = 4 * configuredMillis;
+        this.clock = clock;
+        this.millis = configuredMillis;
+        this.lastRead = clock.getAsLong() - configuredMillis;
+    }
+
+    /**
+     * @return the configured pause, which is the smallest pause and the interval the read queue should be checked at
+     */
+    public long getConfiguredMillis() {
+        return configuredMillis;
+    }
+
+    /**
+     * @return the current pause in milliseconds
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return {@code true} if the pause since the end of the previous read is over
+     */
+    public boolean isOver() {
+        return clock.getAsLong() - lastRead >= millis;
+    }
+
+    /**
+     * Count a group telegram seen on the bus, including the responses to our own read requests
+     */
+    public void telegramReceived() {
+        telegrams.incrementAndGet();
+    }
+
+    /**
+     * Adapt the pause after a read request was answered
+     */
+    public void readSucceeded() {
+        long now = clock.getAsLong();
+        long elapsed = Math.max(now - lastRead, 1);
+        // not counting the response to our own read request
+        int others = Math.max(telegrams.getAndSet(0) - 1, 0);
+        lastRead = now;
+        if (others * 1000L > BUSY_TELEGRAMS_PER_SECOND * elapsed) {
+            increase();
+        } else {
+            millis = Math.max(configuredMillis, millis / 2);
+        }
+    }
+
+    /**
+     * Adapt the pause after a read request failed
+     */
+    public void readFailed() {
+        telegrams.set(0);
+        lastRead = clock.getAsLong();
+        increase();
+    }
+
+    private void increase() {
+        millis = Math.min(maxMillis, 2 * millis);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveReadingPause [configured=" + configuredMillis + "ms, current=" + millis + "ms]";
+    }
+}
@@ -79,9 +79,12 @@ public interface KNXClient {
     /**
      * Schedule the given data point for asynchronous reading.
      *
+     * The data point is not queued again if a read of its group address is pending already.
+     *
      * @param datapoint the datapoint
+     * @param priority the priority of the read request
      */
-    void readDatapoint(Datapoint datapoint);
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of the data points to be read from the KNX bus.
+ *
+ * There is one first-in-first-out queue per {@link ReadPriority}, data points are taken from the queue of the highest
+ * priority first. Each group address is queued at most once: requests for a group address which is already queued are
+ * dropped, unless they have a higher priority, in which case the queued request is moved to the queue of the higher
+ * priority. All operations take constant time.
+ *
+ * The queue keeps track of the rate data points are taken from it, as read requests per second.
+ *
+ * @author agent
+ *
+ */
+@NonNullByDefault
+public class ReadDatapointQueue {
+
+    /** duration of the window over which the drain rate is measured */
+    private static final long DRAIN_RATE_WINDOW_MILLIS = 10000;
+
+    private final Map<ReadPriority, Map<GroupAddress, ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+    private final LongSupplier clock;
+
+    private long windowStart;
+    private int windowCount;
+    private double drainRate;
+
+    public ReadDatapointQueue() {
+        this(System::currentTimeMillis);
+    }
+
+    ReadDatapointQueue(LongSupplier clock) {
+        this.clock = clock;
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+        }
+        windowStart = clock.getAsLong();
+    }
+
+    /**
+     * Add a data point to the queue of its priority, if its group address is not queued already
+     *
+     * @param datapoint the data point to read
+     * @return {@code true} if the data point was added, {@code false} if its group address was queued already with
+     *         the same or higher priority
+     */
+    public synchronized boolean add(ReadDatapoint datapoint) {
+        GroupAddress address = datapoint.getDatapoint().getMainAddress();
+        for (ReadPriority priority : ReadPriority.values()) {
+            Map<GroupAddress, ReadDatapoint> queue = getQueue(priority);
+            if (priority.compareTo(datapoint.getPriority()) <= 0) {
+                if (queue.containsKey(address)) {
+                    return false;
+                }
+            } else if (queue.remove(address) != null) {
+                // queued with lower priority, there is only one such entry
+                break;
+            }
+        }
+        getQueue(datapoint.getPriority()).put(address, datapoint);
+        return true;
+    }
+
+    /**
+     * Take the next data point to read, of the highest priority queued
+     *
+     * @return the data point or {@code null} if the queue is empty
+     */
+    public synchronized @Nullable ReadDatapoint poll() {
+        for (ReadPriority priority : ReadPriority.values()) {
+            Iterator<ReadDatapoint> iterator = getQueue(priority).values().iterator();
+            if (iterator.hasNext()) {
+                ReadDatapoint datapoint = iterator.next();
+                iterator.remove();
+                updateDrainRate(1);
+                return datapoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return number of queued data points
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Map<GroupAddress, ReadDatapoint> queue : queues.values()) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    /**
+     * @param priority the priority
+     * @return number of queued data points with the given priority
+     */
+    public synchronized int size(ReadPriority priority) {
+        return getQueue(priority).size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public synchronized void clear() {
+        queues.values().forEach(Map::clear);
+    }
+
+    /**
+     * @return number of data points taken from the queue per second, measured over the last complete window of at
+     *         least ten seconds
+     */
+    public synchronized double getDrainRate() {
+        updateDrainRate(0);
+        return drainRate;
+    }
+
+    private void updateDrainRate(int drained) {
+        long now = clock.getAsLong();
+        long elapsed = now - windowStart;
+        if (elapsed >= DRAIN_RATE_WINDOW_MILLIS) {
+            drainRate = windowCount * 1000.0 / elapsed;
+            windowStart = now;
+            windowCount = 0;
+        }
+        windowCount += drained;
+    }
+
+    private Map<GroupAddress, ReadDatapoint> getQueue(ReadPriority priority) {
+        Map<GroupAddress, ReadDatapoint> queue = queues.get(priority);
+        if (queue == null) {
+            throw new IllegalStateException("No queue for priority " + priority);
+        }
+        return queue;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ReadDatapointQueue [refresh=%d, initial=%d, periodic=%d, drainRate=%.1f/s]",
+                size(ReadPriority.REFRESH), size(ReadPriority.INITIAL), size(ReadPriority.PERIODIC), drainRate);
+    }
+}
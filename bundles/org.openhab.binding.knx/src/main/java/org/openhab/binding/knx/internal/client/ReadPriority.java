@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+/**
+ * Priority of a read request, reads of higher priority are sent to the KNX bus first.
+ *
+ * @author agent
+ *
+ */
+public enum ReadPriority {
+
+    /** the value was requested, e.g. by a REFRESH command */
+    REFRESH,
+
+    /** initial read of the value, when a channel is linked or the bridge comes online */
+    INITIAL,
+
+    /** periodic read of the value, according to the read interval of the thing */
+    PERIODIC;
+}
@@ -17,13 +17,18 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -39,6 +44,7 @@ import org.eclipse.smarthome.core.types.Type;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.knx.internal.KNXTypeMapper;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +74,7 @@ import tuwien.auto.calimero.dptxlator.DPTXlatorString;
 import tuwien.auto.calimero.dptxlator.DPTXlatorTime;
 import tuwien.auto.calimero.dptxlator.DPTXlatorUtf8;
 import tuwien.auto.calimero.dptxlator.TranslatorTypes;
+import tuwien.auto.calimero.dptxlator.TranslatorTypes.MainType;
 
 /**
  * This class provides type mapping between all openHAB core types and KNX data point types.
@@ -82,6 +89,10 @@ import tuwien.auto.calimero.dptxlator.TranslatorTypes;
  * If for a 'MainType' there is currently no specific mapping registered,
  * you can find a commented example line, with it's correct 'DPTXlator' class.
  *
+ * The most common datapoint types (main numbers 1, 5, 7, 9, 13 and 14) are decoded directly from the telegram data
+ * by the decoders in 'directDecoderMap', without creating a 'DPTXlator' and parsing its String value.
+ * All other datapoint types are decoded by a 'DPTXlator', one per datapoint type which is shared by all threads.
+ *
  * @author Kai Kreuzer
  * @author Volker Daube
  * @author Jan N. Klug
@@ -107,6 +118,18 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /**
+     * stores the decoders for KNX datapoint types which are converted without a DPTXlator.
+     * A decoder returns {@code null} if it cannot convert the data, the DPTXlator is used then.
+     */
+    private final Map<String, Function<byte[], Type>> directDecoderMap;
+
+    /**
+     * DPTXlators by datapoint type id, see {@link #getTranslator(Datapoint)}. Holds at most one translator for each
+     * datapoint type known to calimero. DPTXlators are not thread-safe, they are locked while converting.
+     */
+    private final Map<String, DPTXlator> translators = new ConcurrentHashMap<>();
+
     public KNXCoreTypeMapper() {
 
         @SuppressWarnings("unused")
@@ -569,6 +592,124 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         defaultDptMap.put(DateTimeType.class, DPTXlatorTime.DPT_TIMEOFDAY.getID());
         defaultDptMap.put(StringType.class, DPTXlatorString.DPT_STRING_8859_1.getID());
         defaultDptMap.put(HSBType.class, DPTXlatorRGB.DPT_RGB.getID());
+
+        directDecoderMap = new HashMap<String, Function<byte[], Type>>();
+        for (String dptId : getSubTypeIds(1)) {
+            putBooleanDecoder(dptId);
+        }
+        for (String dptId : getSubTypeIds(5)) {
+            int scale = dptId.equals(DPTXlator8BitUnsigned.DPT_SCALING.getID()) ? 100
+                    : dptId.equals(DPTXlator8BitUnsigned.DPT_ANGLE.getID()) ? 360 : 0;
+            putNumericDecoder(dptId, 1, data -> {
+                int value = data[0] & 0xff;
+                return scale == 0 ? value : Math.round(value * (float) scale / 255);
+            });
+        }
+        for (String dptId : getSubTypeIds(7)) {
+            int factor = dptId.equals(DPTXlator2ByteUnsigned.DPT_TIMEPERIOD_10.getID()) ? 10
+                    : dptId.equals(DPTXlator2ByteUnsigned.DPT_TIMEPERIOD_100.getID()) ? 100 : 1;
+            putNumericDecoder(dptId, 2, data -> factor * (((data[0] & 0xff) << 8) | (data[1] & 0xff)));
+        }
+        for (String dptId : getSubTypeIds(9)) {
+            putNumericDecoder(dptId, 2, data -> {
+                // KNX 2-byte float: MEEEEMMM MMMMMMMM, value = 0.01 * mantissa * 2^exponent
+                int mantissa = ((data[0] & 0x07) << 8) | (data[1] & 0xff);
+                if ((data[0] & 0x80) != 0) {
+                    mantissa -= 0x800;
+                }
+                int exponent = (data[0] & 0x78) >> 3;
+                return (1 << exponent) * mantissa * 0.01;
+            });
+        }
+        for (String dptId : getSubTypeIds(13)) {
+            putNumericDecoder(dptId, 4, data -> getInt(data));
+        }
+        for (String dptId : getSubTypeIds(14)) {
+            putNumericDecoder(dptId, 4, data -> Float.intBitsToFloat(getInt(data)));
+        }
+    }
+
+    /**
+     * Returns the ids of the datapoint types known by calimero for a main number
+     *
+     * @param mainNumber main number of the datapoint types
+     * @return datapoint type ids such as "1.001", or an empty list if the main type is not available
+     */
+    private List<String> getSubTypeIds(int mainNumber) {
+        MainType mainType = TranslatorTypes.getMainType(mainNumber);
+        if (mainType == null) {
+            logger.debug("No translator available for main number {}.", mainNumber);
+            return Collections.emptyList();
+        }
+        try {
+            return new ArrayList<>(mainType.getSubTypes().keySet());
+        } catch (KNXException e) {
+            logger.warn("Failed getting the datapoint types for main number {}.", mainNumber, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Registers the direct decoder of a DPT 1.x datapoint type, mapping the value the same way as the DPTXlator
+     * based conversion in {@link #toType(Datapoint, byte[], boolean)}
+     */
+    private void putBooleanDecoder(String dptId) {
+        final Type on;
+        final Type off;
+        switch (getSubNumber(dptId)) {
+            case 8:
+                on = UpDownType.DOWN;
+                off = UpDownType.UP;
+                break;
+            case 9:
+            case 19:
+                on = OpenClosedType.OPEN;
+                off = OpenClosedType.CLOSED;
+                break;
+            case 10:
+                on = StopMoveType.MOVE;
+                off = StopMoveType.STOP;
+                break;
+            case 22:
+                on = DecimalType.valueOf("1");
+                off = DecimalType.valueOf("0");
+                break;
+            default:
+                on = OnOffType.ON;
+                off = OnOffType.OFF;
+                break;
+        }
+        directDecoderMap.put(dptId, data -> data.length < 1 ? null : (data[0] & 0x01) != 0 ? on : off);
+    }
+
+    /**
+     * Registers the direct decoder of a numeric datapoint type. Depending on the openHAB type class of the datapoint
+     * type the value is converted to a {@link DecimalType} or a {@link PercentType}, other type classes are left to
+     * the DPTXlator.
+     *
+     * @param dptId the datapoint type id
+     * @param size number of data bytes of the datapoint type
+     * @param decoder converts the data to the numeric value, as returned by {@link DPTXlator#getNumericValue()}
+     */
+    private void putNumericDecoder(String dptId, int size, ToDoubleFunction<byte[]> decoder) {
+        Class<? extends Type> typeClass = toTypeClass(dptId);
+        if (DecimalType.class.equals(typeClass)) {
+            directDecoderMap.put(dptId,
+                    data -> data.length < size ? null : new DecimalType(decoder.applyAsDouble(data)));
+        } else if (PercentType.class.equals(typeClass)) {
+            directDecoderMap.put(dptId, data -> {
+                if (data.length < size) {
+                    return null;
+                }
+                long percent = Math.round(decoder.applyAsDouble(data));
+                // out of range values are left to the DPTXlator, so that they are reported the same way
+                return percent < 0 || percent > 100 ? null : new PercentType(BigDecimal.valueOf(percent));
+            });
+        }
+    }
+
+    private static int getInt(byte[] data) {
+        return ((data[0] & 0xff) << 24) | ((data[1] & 0xff) << 16) | ((data[2] & 0xff) << 8) | (data[3] & 0xff);
     }
 
     @Override
@@ -674,8 +815,40 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
 
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
+        Function<byte[], Type> decoder = directDecoderMap.get(datapoint.getDPT());
+        if (decoder != null) {
+            Type type = decoder.apply(data);
+            if (type != null) {
+                return type;
+            }
+        }
+        return toType(datapoint, data, true);
+    }
+
+    /**
+     * Converts the data with a DPTXlator
+     *
+     * @param datapoint the datapoint
+     * @param data the telegram data
+     * @param reuseTranslator whether to use the shared DPTXlator of the datapoint type, or to create a new one
+     * @return the openHAB type or {@code null} if the data could not be converted
+     */
+    Type toType(Datapoint datapoint, byte[] data, boolean reuseTranslator) {
+        final DPTXlator translator;
+        try {
+            translator = reuseTranslator ? getTranslator(datapoint)
+                    : TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        } catch (KNXException e) {
+            logger.warn("Failed creating a translator for datapoint type '{}'.", datapoint.getDPT(), e);
+            return null;
+        }
+        synchronized (translator) {
+            return toType(datapoint, data, translator);
+        }
+    }
+
+    private Type toType(Datapoint datapoint, byte[] data, DPTXlator translator) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
             translator.setData(data);
             String value = translator.getValue();
 
@@ -861,6 +1034,26 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Returns the shared DPTXlator for the datapoint type of the datapoint, creating it on first use
+     */
+    private DPTXlator getTranslator(Datapoint datapoint) throws KNXException {
+        DPTXlator translator = translators.get(datapoint.getDPT());
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            DPTXlator previous = translators.putIfAbsent(datapoint.getDPT(), translator);
+            if (previous != null) {
+                translator = previous;
+            }
+        }
+        return translator;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        translators.clear();
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
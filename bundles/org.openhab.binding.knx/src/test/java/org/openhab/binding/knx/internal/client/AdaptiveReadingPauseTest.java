@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent
+ *
+ */
+public class AdaptiveReadingPauseTest {
+
+    private long now;
+    private AdaptiveReadingPause pause;
+
+    @Before
+    public void setup() {
+        now = 1000;
+        pause = new AdaptiveReadingPause(100, () -> now);
+    }
+
+    private void read(int telegrams, int readMillis) {
+        while (!pause.isOver()) {
+            now++;
+        }
+        now += readMillis;
+        for (int i = 0; i < telegrams; i++) {
+            pause.telegramReceived();
+        }
+        pause.readSucceeded();
+    }
+
+    @Test
+    public void testIdleBusKeepsConfiguredPause() {
+        assertEquals(100, pause.getMillis());
+        assertTrue(pause.isOver());
+        for (int i = 0; i < 20; i++) {
+            read(1, 20);
+        }
+        assertEquals(100, pause.getMillis());
+        assertEquals(pause.getConfiguredMillis(), pause.getMillis());
+        assertFalse(pause.isOver());
+    }
+
+    @Test
+    public void testBusyBusRaisesPause() {
+        for (int i = 0; i < 10; i++) {
+            read(20, 20);
+        }
+        assertEquals(400, pause.getMillis());
+    }
+
+    @Test
+    public void testQuietBusReturnsToConfiguredPause() {
+        for (int i = 0; i < 10; i++) {
+            read(20, 20);
+        }
+        assertEquals(400, pause.getMillis());
+        read(2, 200);
+        assertEquals(200, pause.getMillis());
+        for (int i = 0; i < 5; i++) {
+            read(2, 200);
+        }
+        assertEquals(100, pause.getMillis());
+    }
+
+    @Test
+    public void testFailedReadRaisesPause() {
+        pause.readFailed();
+        assertEquals(200, pause.getMillis());
+        assertFalse(pause.isOver());
+        now += 200;
+        assertTrue(pause.isOver());
+    }
+}
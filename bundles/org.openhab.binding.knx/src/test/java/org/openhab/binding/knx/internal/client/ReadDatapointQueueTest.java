@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author agent
+ *
+ */
+public class ReadDatapointQueueTest {
+
+    private long now;
+    private ReadDatapointQueue queue;
+
+    @Before
+    public void setup() {
+        now = 1000;
+        queue = new ReadDatapointQueue(() -> now);
+    }
+
+    private static ReadDatapoint read(int subGroup, ReadPriority priority) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(1, 0, subGroup), "test", 0, "1.001"), 3, priority);
+    }
+
+    private int nextSubGroup() {
+        ReadDatapoint datapoint = queue.poll();
+        assertNotNull(datapoint);
+        return datapoint.getDatapoint().getMainAddress().getSubGroup8();
+    }
+
+    @Test
+    public void testDeduplication() {
+        assertTrue(queue.add(read(1, ReadPriority.PERIODIC)));
+        assertFalse(queue.add(read(1, ReadPriority.PERIODIC)));
+        assertTrue(queue.add(read(2, ReadPriority.PERIODIC)));
+        assertEquals(2, queue.size());
+
+        assertEquals(1, nextSubGroup());
+        assertTrue(queue.add(read(1, ReadPriority.PERIODIC)));
+        assertEquals(2, nextSubGroup());
+        assertEquals(1, nextSubGroup());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testPriorities() {
+        queue.add(read(1, ReadPriority.PERIODIC));
+        queue.add(read(2, ReadPriority.INITIAL));
+        queue.add(read(3, ReadPriority.REFRESH));
+        queue.add(read(4, ReadPriority.INITIAL));
+
+        assertEquals(3, nextSubGroup());
+        assertEquals(2, nextSubGroup());
+        assertEquals(4, nextSubGroup());
+        assertEquals(1, nextSubGroup());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testHigherPriorityMovesQueuedRead() {
+        queue.add(read(1, ReadPriority.PERIODIC));
+        queue.add(read(2, ReadPriority.PERIODIC));
+        assertTrue(queue.add(read(2, ReadPriority.REFRESH)));
+        assertFalse(queue.add(read(2, ReadPriority.INITIAL)));
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.size(ReadPriority.REFRESH));
+        assertEquals(0, queue.size(ReadPriority.INITIAL));
+        assertEquals(1, queue.size(ReadPriority.PERIODIC));
+        assertEquals(2, nextSubGroup());
+        assertEquals(1, nextSubGroup());
+    }
+
+    @Test
+    public void testDrainRate() {
+        for (int i = 0; i < 100; i++) {
+            queue.add(read(i, ReadPriority.INITIAL));
+        }
+        assertEquals(0, queue.getDrainRate(), 0);
+        for (int i = 0; i < 50; i++) {
+            now += 200;
+            queue.poll();
+        }
+        assertEquals(5, queue.getDrainRate(), 0.5);
+        assertEquals(50, queue.size());
+
+        now += 30000;
+        assertEquals(0, queue.getDrainRate(), 0.1);
+    }
+}
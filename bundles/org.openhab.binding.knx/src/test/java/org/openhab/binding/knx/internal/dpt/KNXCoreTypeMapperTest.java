@@ -12,11 +12,30 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.types.Type;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -24,10 +43,125 @@ import org.junit.Test;
  */
 public class KNXCoreTypeMapperTest {
 
+    private final KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+
+    private static Datapoint datapoint(String dptId) {
+        return new CommandDP(new GroupAddress(1, 2, 3), "test", 0, dptId);
+    }
+
+    private Type toType(String dptId, int... bytes) {
+        byte[] data = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            data[i] = (byte) bytes[i];
+        }
+        return mapper.toType(datapoint(dptId), data);
+    }
+
+    /**
+     * Asserts that the direct decoding gives the same types as the conversion with a new DPTXlator, for the given
+     * number of random values
+     */
+    private void assertSameAsTranslator(String dptId, int size, int count) {
+        Random random = new Random(dptId.hashCode());
+        Datapoint datapoint = datapoint(dptId);
+        for (int i = 0; i < count; i++) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            assertEquals(dptId + " " + Arrays.toString(data), mapper.toType(datapoint, data, false),
+                    mapper.toType(datapoint, data));
+        }
+    }
+
     @Test
     public void testToDPTValue_trailingZeroesStrippedOff() {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
 
+    @Test
+    public void testToType_boolean() {
+        assertEquals(OnOffType.ON, toType("1.001", 0x01));
+        assertEquals(OnOffType.OFF, toType("1.001", 0x00));
+        assertEquals(UpDownType.DOWN, toType("1.008", 0x01));
+        assertEquals(OpenClosedType.CLOSED, toType("1.019", 0x00));
+        assertEquals(new DecimalType(1), toType("1.022", 0x01));
+    }
+
+    @Test
+    public void testToType_numeric() {
+        assertEquals(new PercentType(100), toType("5.001", 0xff));
+        assertEquals(new PercentType(50), toType("5.001", 0x80));
+        assertEquals(new DecimalType(200), toType("5.010", 0xc8));
+        assertEquals(new DecimalType(65535), toType("7.001", 0xff, 0xff));
+        assertEquals(new DecimalType(21), toType("9.001", 0x0c, 0x1a));
+        assertEquals(new DecimalType(-2), toType("13.001", 0xff, 0xff, 0xff, 0xfe));
+        assertEquals(new DecimalType(1.5), toType("14.019", 0x3f, 0xc0, 0x00, 0x00));
+    }
+
+    @Test
+    public void testToType_missingData() {
+        assertNull(toType("9.001", 0x0c));
+        assertNull(toType("13.001", 0x00, 0x00));
+    }
+
+    @Test
+    public void testToType_sameAsTranslator() {
+        for (int i = 0; i <= 0xff; i++) {
+            for (String dptId : new String[] { "1.001", "1.008", "1.009", "1.010", "1.022", "5.001", "5.003",
+                    "5.010" }) {
+                Datapoint datapoint = datapoint(dptId);
+                byte[] data = new byte[] { (byte) i };
+                assertEquals(dptId + " " + i, mapper.toType(datapoint, data, false), mapper.toType(datapoint, data));
+            }
+        }
+        assertSameAsTranslator("7.001", 2, 1000);
+        assertSameAsTranslator("7.003", 2, 1000);
+        assertSameAsTranslator("7.004", 2, 1000);
+        assertSameAsTranslator("9.001", 2, 1000);
+        assertSameAsTranslator("13.001", 4, 1000);
+        assertSameAsTranslator("14.019", 4, 1000);
+    }
+
+    @Test
+    public void testToType_percent() {
+        assertEquals(new PercentType(100), toType("5.004", 0x64));
+        // 21 % relative humidity
+        assertEquals(new PercentType(21), toType("9.007", 0x0c, 0x1a));
+    }
+
+    @Test
+    public void testToType_reusedTranslator() {
+        Datapoint datapoint = datapoint("16.001");
+        byte[] first = Arrays.copyOf("first".getBytes(StandardCharsets.US_ASCII), 14);
+        byte[] second = Arrays.copyOf("second".getBytes(StandardCharsets.US_ASCII), 14);
+        assertEquals(mapper.toType(datapoint, first, false), mapper.toType(datapoint, first));
+        assertEquals(mapper.toType(datapoint, second, false), mapper.toType(datapoint, second));
+    }
+
+    @Test
+    public void testToType_sharedTranslatorConcurrently() throws Exception {
+        Datapoint datapoint = datapoint("16.001");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final String text = "thread" + t;
+                results.add(executor.submit(() -> {
+                    byte[] data = Arrays.copyOf(text.getBytes(StandardCharsets.US_ASCII), 14);
+                    Type expected = mapper.toType(datapoint, data, false);
+                    for (int i = 0; i < 1000; i++) {
+                        if (!expected.equals(mapper.toType(datapoint, data))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
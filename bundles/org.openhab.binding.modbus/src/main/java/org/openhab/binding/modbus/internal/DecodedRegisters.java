@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * Registers of one poll response, decoded once and shared by all data things of a poller.
+ *
+ * The register words are copied once when the response is received. Decoded values are remembered, so data things
+ * reading the same value only decode it once. INT16, UINT16 and FLOAT32 values are decoded directly from the words,
+ * other value types with {@link ModbusBitUtilities#extractStateFromRegisters}.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class DecodedRegisters {
+
+    private static final int VALUE_TYPES = ValueType.values().length;
+
+    private final ModbusRegisterArray registers;
+    private final int[] words;
+    private final Map<Integer, State> decoded = new ConcurrentHashMap<>();
+
+    /**
+     * Construct decoded registers of a poll response
+     *
+     * @param registers registers received
+     */
+    public DecodedRegisters(ModbusRegisterArray registers) {
+        this.registers = registers;
+        words = new int[registers.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = registers.getUint16(i);
+        }
+    }
+
+    /**
+     * Return whether these are the decoded registers of the given response
+     *
+     * @param registers registers received
+     * @return true if the registers are the very same instance
+     */
+    public boolean isFor(ModbusRegisterArray registers) {
+        return this.registers == registers;
+    }
+
+    /**
+     * Return whether the given registers are part of the response
+     *
+     * @param index index of the first register
+     * @param count number of registers
+     */
+    public boolean contains(int index, int count) {
+        return index >= 0 && count >= 0 && index + count <= words.length;
+    }
+
+    /**
+     * Return the raw words of up to four registers as one number, to detect changes between polls
+     *
+     * @param index index of the first register
+     * @param count number of registers, at most 4
+     * @return the register words, first register in the most significant bits
+     * @throws IllegalArgumentException when the registers are not part of the response
+     */
+    public long getRawValue(int index, int count) {
+        if (count > 4 || !contains(index, count)) {
+            throw new IllegalArgumentException(
+                    String.format("Registers %d..%d are out of bounds given registers of size %d", index,
+                            index + count - 1, words.length));
+        }
+        long raw = 0;
+        for (int i = index; i < index + count; i++) {
+            raw = (raw << 16) | words[i];
+        }
+        return raw;
+    }
+
+    /**
+     * Return the value at the given index.
+     *
+     * Interpretation of the index is as in {@link ModbusBitUtilities#extractStateFromRegisters}.
+     *
+     * @param index zero based item index
+     * @param type value type
+     * @return the value, or {@link UnDefType#UNDEF} with floating point NaN and infinity
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public State getState(int index, ValueType type) {
+        Integer key = index * VALUE_TYPES + type.ordinal();
+        State state = decoded.get(key);
+        if (state == null) {
+            state = decode(index, type);
+            decoded.put(key, state);
+        }
+        return state;
+    }
+
+    private State decode(int index, ValueType type) {
+        switch (type) {
+            case INT16:
+                if (contains(index, 1)) {
+                    return new DecimalType((short) words[index]);
+                }
+                break;
+            case UINT16:
+                if (contains(index, 1)) {
+                    return new DecimalType(words[index]);
+                }
+                break;
+            case FLOAT32:
+                if (contains(index, 2)) {
+                    float value = Float.intBitsToFloat((words[index] << 16) | words[index + 1]);
+                    if (Float.isNaN(value) || Float.isInfinite(value)) {
+                        return UnDefType.UNDEF;
+                    }
+                    return new DecimalType(value);
+                }
+                break;
+            default:
+                break;
+        }
+        // other value types, and out of bounds indices which throw
+        @Nullable
+        State state = ModbusBitUtilities.extractStateFromRegisters(registers, index, type).orElse(null);
+        return state == null ? UnDefType.UNDEF : state;
+    }
+}
@@ -43,6 +43,7 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private boolean mergePolls;
     private boolean enableDiscovery;
 
     public @Nullable String getPort() {
@@ -157,6 +158,14 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isMergePolls() {
+        return mergePolls;
+    }
+
+    public void setMergePolls(boolean mergePolls) {
+        this.mergePolls = mergePolls;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
@@ -28,10 +28,13 @@ public class ModbusTcpConfiguration {
     private int port;
     private int id;
     private int timeBetweenTransactionsMillis;
+    private boolean adaptiveTimeBetweenTransactions;
+    private int minTimeBetweenTransactionsMillis;
     private int timeBetweenReconnectMillis;
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private boolean mergePolls;
     private boolean enableDiscovery;
 
     public @Nullable String getHost() {
@@ -66,6 +69,22 @@ public class ModbusTcpConfiguration {
         this.timeBetweenTransactionsMillis = timeBetweenTransactionsMillis;
     }
 
+    public boolean isAdaptiveTimeBetweenTransactions() {
+        return adaptiveTimeBetweenTransactions;
+    }
+
+    public void setAdaptiveTimeBetweenTransactions(boolean adaptiveTimeBetweenTransactions) {
+        this.adaptiveTimeBetweenTransactions = adaptiveTimeBetweenTransactions;
+    }
+
+    public int getMinTimeBetweenTransactionsMillis() {
+        return minTimeBetweenTransactionsMillis;
+    }
+
+    public void setMinTimeBetweenTransactionsMillis(int minTimeBetweenTransactionsMillis) {
+        this.minTimeBetweenTransactionsMillis = minTimeBetweenTransactionsMillis;
+    }
+
     public int getTimeBetweenReconnectMillis() {
         return timeBetweenReconnectMillis;
     }
@@ -98,6 +117,14 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isMergePolls() {
+        return mergePolls;
+    }
+
+    public void setMergePolls(boolean mergePolls) {
+        this.mergePolls = mergePolls;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
@@ -53,9 +53,10 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
-import org.eclipse.smarthome.core.types.UnDefType;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
+import org.openhab.binding.modbus.internal.DecodedRegisters;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
 import org.openhab.binding.modbus.internal.Transformation;
@@ -118,8 +119,37 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         CHANNEL_ID_TO_ACCEPTED_TYPES.put(ModbusBindingConstantsInternal.CHANNEL_ROLLERSHUTTER,
                 new RollershutterItem("").getAcceptedDataTypes());
     }
-    // data channels + 4 for read/write last error/success
-    private static final int NUMER_OF_CHANNELS_HINT = CHANNEL_ID_TO_ACCEPTED_TYPES.size() + 4;
+
+    /**
+     * Data channel with the properties needed to update it
+     */
+    private static class DataChannel {
+        private final String id;
+        private final List<Class<? extends State>> acceptedDataTypes;
+        /** states of boolean like channels, null with other channels */
+        private final @Nullable State trueState;
+        private final @Nullable State falseState;
+
+        DataChannel(String id, List<Class<? extends State>> acceptedDataTypes) {
+            this.id = id;
+            this.acceptedDataTypes = acceptedDataTypes;
+            if (containsOnOff(acceptedDataTypes)) {
+                trueState = OnOffType.ON;
+                falseState = OnOffType.OFF;
+            } else if (containsOpenClosed(acceptedDataTypes)) {
+                trueState = OpenClosedType.OPEN;
+                falseState = OpenClosedType.CLOSED;
+            } else {
+                trueState = null;
+                falseState = null;
+            }
+        }
+    }
+
+    /** data channels, the state of the channels is kept in arrays in the same order */
+    private static final DataChannel[] DATA_CHANNELS = CHANNEL_ID_TO_ACCEPTED_TYPES.entrySet().stream()
+            .filter(entry -> !entry.getValue().isEmpty())
+            .map(entry -> new DataChannel(entry.getKey(), entry.getValue())).toArray(DataChannel[]::new);
 
     //
     // If you change the below default/initial values, please update the corresponding values in dispose()
@@ -144,8 +174,12 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     private volatile boolean childOfEndpoint;
     private volatile @Nullable ModbusPollerThingHandler pollerHandler;
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
-    private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
-    private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    private volatile ChannelUID @Nullable [] dataChannelUIDs;
+    private volatile long[] channelLastUpdated = new long[DATA_CHANNELS.length];
+    private volatile @Nullable State[] channelLastState = new State[DATA_CHANNELS.length];
+    // raw value of the last poll that updated the channels
+    private volatile long lastRawValue;
+    private volatile boolean lastRawValueKnown;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -175,6 +209,8 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             // We *schedule* the REFRESH to avoid dead-lock situation where poller is trying update this
             // data thing with cached data (resulting in deadlock in two synchronized methods: this (handleCommand) and
             // onRegisters.
+            // The channels are updated even if the data has not changed, for example for newly linked channels.
+            lastRawValueKnown = false;
             scheduler.schedule(() -> poller.refresh(), 0, TimeUnit.SECONDS);
             return;
         } else if (hasConfigurationError()) {
@@ -412,8 +448,11 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         channelCache = new HashMap<>();
         lastStatusInfoUpdate = LocalDateTime.MIN;
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
-        channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
-        channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        dataChannelUIDs = null;
+        channelLastUpdated = new long[DATA_CHANNELS.length];
+        channelLastState = new State[DATA_CHANNELS.length];
+        lastRawValue = 0L;
+        lastRawValueKnown = false;
     }
 
     @Override
@@ -631,13 +670,13 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         }
     }
 
-    private boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
+    private static boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
         return channelAcceptedDataTypes.stream().anyMatch(clz -> {
             return clz.equals(OnOffType.class);
         });
     }
 
-    private boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
+    private static boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
         return acceptedDataTypes.stream().anyMatch(clz -> {
             return clz.equals(OpenClosedType.class);
         });
@@ -666,23 +705,43 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         // respectively.
         // with >=16 bit types, this is index of first register
         int extractIndex;
+        int registerIndex;
+        int registerCount;
         if (readValueType.getBits() >= 16) {
             // Invariant, checked in initialize
             assert readSubIndex.orElse(0) == 0;
             extractIndex = readIndex.get() - pollStart;
+            registerIndex = extractIndex;
+            registerCount = readValueType.getBits() / 16;
         } else {
             int subIndex = readSubIndex.orElse(0);
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
+            registerIndex = extractIndex / itemsPerRegister;
+            registerCount = 1;
+        }
+
+        DecodedRegisters decodedRegisters = getDecodedRegisters(registers);
+        long now = System.currentTimeMillis();
+        boolean rawValueKnown = decodedRegisters.contains(registerIndex, registerCount);
+        long rawValue = rawValueKnown ? decodedRegisters.getRawValue(registerIndex, registerCount) : 0L;
+        if (rawValueKnown && isUnchanged(rawValue, now)) {
+            logger.trace("Thing {} registers {} unchanged since last poll, channels are not updated", thing.getUID(),
+                    registers);
+            updateStatusIfChanged(ThingStatus.ONLINE);
+            updateLastReadSuccess();
+            return;
         }
-        numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
-                .map(state -> (State) state).orElse(UnDefType.UNDEF);
+
+        numericState = decodedRegisters.getState(extractIndex, readValueType);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        processUpdatedValue(numericState, boolValue, now);
+        lastRawValue = rawValue;
+        lastRawValueKnown = rawValueKnown;
         logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
-                boolValue, registers, request);
+                "Thing {} channels updated. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
+                thing.getUID(), readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState, boolValue,
+                registers, request);
     }
 
     @Override
@@ -693,11 +752,51 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        long now = System.currentTimeMillis();
+        long rawValue = boolValue ? 1L : 0L;
+        if (isUnchanged(rawValue, now)) {
+            logger.trace("Thing {} bits {} unchanged since last poll, channels are not updated", thing.getUID(), bits);
+            updateStatusIfChanged(ThingStatus.ONLINE);
+            updateLastReadSuccess();
+            return;
+        }
+
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        processUpdatedValue(numericState, boolValue, now);
+        lastRawValue = rawValue;
+        lastRawValueKnown = true;
         logger.debug(
-                "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
-                thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
+                "Thing {} channels updated. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
+                thing.getUID(), readValueType, readIndex, numericState, boolValue, bits, request);
+    }
+
+    /**
+     * Get the decoded registers shared by the data things of the poller, or decode the registers if the poller does
+     * not share them
+     */
+    private DecodedRegisters getDecodedRegisters(ModbusRegisterArray registers) {
+        ModbusPollerThingHandler pollerHandler = this.pollerHandler;
+        DecodedRegisters decodedRegisters = pollerHandler == null ? null
+                : pollerHandler.getDecodedRegisters(registers);
+        return decodedRegisters == null ? new DecodedRegisters(registers) : decodedRegisters;
+    }
+
+    /**
+     * Return whether the raw value equals the one of the last poll, and channels do not need to be updated
+     * because of updateUnchangedValuesEveryMillis either.
+     *
+     * Unchanged raw values result in unchanged channel states, so the transformation is not applied again.
+     */
+    private boolean isUnchanged(long rawValue, long now) {
+        if (!lastRawValueKnown || rawValue != lastRawValue || updateUnchangedValuesEveryMillis <= 0L) {
+            return false;
+        }
+        for (long lastUpdatedMillis : channelLastUpdated) {
+            if (lastUpdatedMillis > 0L && now - lastUpdatedMillis > updateUnchangedValuesEveryMillis) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -792,91 +891,86 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
     /**
      * Update linked channels
      *
+     * The transformation is applied at most once, its output is parsed to the accepted data types of each channel.
+     *
      * @param numericState numeric state corresponding to polled data (or UNDEF with floating point NaN or infinity)
      * @param boolValue boolean value corresponding to polled data
-     * @return updated channel data
+     * @param now current time in milliseconds
      */
-    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue) {
-        Map<@NonNull ChannelUID, @NonNull State> states = new HashMap<>();
-        CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
-            ChannelUID channelUID = getChannelUID(channelId);
+    private void processUpdatedValue(State numericState, boolean boolValue, long now) {
+        Transformation readTransformation = this.readTransformation;
+        if (readTransformation == null) {
+            return;
+        }
+        updateStatusIfChanged(ThingStatus.ONLINE);
+        boolean identityTransform = readTransformation.isIdentityTransform();
+        @Nullable
+        String transformOutput = null;
+        for (int index = 0; index < DATA_CHANNELS.length; index++) {
+            DataChannel channel = DATA_CHANNELS[index];
+            ChannelUID channelUID = getDataChannelUID(index);
             if (!isLinked(channelUID)) {
-                return;
-            }
-            List<Class<? extends State>> acceptedDataTypes = CHANNEL_ID_TO_ACCEPTED_TYPES.get(channelId);
-            if (acceptedDataTypes.isEmpty()) {
-                return;
-            }
-
-            State boolLikeState;
-            if (containsOnOff(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OnOffType.ON : OnOffType.OFF;
-            } else if (containsOpenClosed(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-            } else {
-                boolLikeState = null;
+                channelLastState[index] = null;
+                continue;
             }
 
             State transformedState;
-            if (readTransformation.isIdentityTransform()) {
-                if (boolLikeState != null) {
-                    // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
-                    transformedState = boolLikeState;
-                } else {
-                    // Numeric states always go through transformation. This allows value of 17.5 to be
-                    // converted to
-                    // 17.5% with percent types (instead of raising error)
-                    transformedState = readTransformation.transformState(bundleContext, acceptedDataTypes,
-                            numericState);
-                }
+            State trueState = channel.trueState;
+            State falseState = channel.falseState;
+            if (identityTransform && trueState != null && falseState != null) {
+                // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
+                transformedState = boolValue ? trueState : falseState;
+            } else if (identityTransform && numericState.getClass() == channel.acceptedDataTypes.get(0)) {
+                // Parsing the number back would result in the very same state
+                transformedState = numericState;
             } else {
-                transformedState = readTransformation.transformState(bundleContext, acceptedDataTypes, numericState);
+                // Numeric states always go through transformation. This allows value of 17.5 to be
+                // converted to 17.5% with percent types (instead of raising error)
+                if (transformOutput == null) {
+                    transformOutput = readTransformation.transform(bundleContext, numericState.toString());
+                }
+                transformedState = TypeParser.parseState(channel.acceptedDataTypes, transformOutput);
             }
 
             if (transformedState != null) {
                 logger.trace(
                         "Channel {} will be updated to '{}' (type {}). Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, transformedState, transformedState.getClass().getSimpleName(), numericState,
-                        readValueType, boolValue,
-                        readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
-                states.put(channelUID, transformedState);
+                        channel.id, transformedState, transformedState.getClass().getSimpleName(), numericState,
+                        readValueType, boolValue, identityTransform ? "<identity>" : readTransformation);
+                updateExpiredChannel(now, index, channelUID, transformedState);
             } else {
-                String types = StringUtils.join(acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(),
-                        ", ");
+                String types = StringUtils.join(
+                        channel.acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(), ", ");
                 logger.warn(
                         "Channel {} will not be updated since transformation was unsuccessful. Channel is expecting the following data types [{}]. Input data: number value {} (value type '{}' taken into account) and bool value {}. Transformation: {}",
-                        channelId, types, numericState, readValueType, boolValue,
-                        readTransformation.isIdentityTransform() ? "<identity>" : readTransformation);
+                        channel.id, types, numericState, readValueType, boolValue,
+                        identityTransform ? "<identity>" : readTransformation);
+                channelLastState[index] = null;
             }
-        });
-
-        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
-        if (isLinked(lastReadSuccessUID)) {
-            states.put(lastReadSuccessUID, new DateTimeType());
         }
-        updateExpiredChannels(states);
-        return states;
+        updateLastReadSuccess();
     }
 
-    private void updateExpiredChannels(Map<ChannelUID, State> states) {
-        synchronized (this) {
-            updateStatusIfChanged(ThingStatus.ONLINE);
-            long now = System.currentTimeMillis();
-            // Update channels that have not been updated in a while, or when their values has changed
-            states.forEach((uid, state) -> updateExpiredChannel(now, uid, state));
-            channelLastState = states;
-        }
-    }
-
-    private void updateExpiredChannel(long now, ChannelUID uid, State state) {
+    /**
+     * Update channel if it has not been updated in a while, or when its value has changed
+     */
+    private void updateExpiredChannel(long now, int index, ChannelUID uid, State state) {
         @Nullable
-        State lastState = channelLastState.get(uid);
-        long lastUpdatedMillis = channelLastUpdated.getOrDefault(uid, 0L);
+        State lastState = channelLastState[index];
+        long lastUpdatedMillis = channelLastUpdated[index];
         long millisSinceLastUpdate = now - lastUpdatedMillis;
         if (lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis <= 0L
                 || millisSinceLastUpdate > updateUnchangedValuesEveryMillis || !lastState.equals(state)) {
             tryUpdateState(uid, state);
-            channelLastUpdated.put(uid, now);
+            channelLastUpdated[index] = now;
+        }
+        channelLastState[index] = state;
+    }
+
+    private void updateLastReadSuccess() {
+        ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+        if (isLinked(lastReadSuccessUID)) {
+            tryUpdateState(lastReadSuccessUID, new DateTimeType());
         }
     }
 
@@ -894,6 +988,18 @@ public class ModbusDataThingHandler extends BaseThingHandler implements ModbusRe
         return channelCache.computeIfAbsent(channelID, id -> new ChannelUID(getThing().getUID(), id));
     }
 
+    private ChannelUID getDataChannelUID(int index) {
+        ChannelUID[] dataChannelUIDs = this.dataChannelUIDs;
+        if (dataChannelUIDs == null) {
+            dataChannelUIDs = new ChannelUID[DATA_CHANNELS.length];
+            for (int i = 0; i < DATA_CHANNELS.length; i++) {
+                dataChannelUIDs[i] = getChannelUID(DATA_CHANNELS[i].id);
+            }
+            this.dataChannelUIDs = dataChannelUIDs;
+        }
+        return dataChannelUIDs[index];
+    }
+
     private void updateStatusIfChanged(ThingStatus status) {
         updateStatusIfChanged(status, ThingStatusDetail.NONE, null);
     }
@@ -16,7 +16,9 @@ import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.modbus.internal.DecodedRegisters;
 import org.openhab.io.transport.modbus.ModbusManager;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
 import org.openhab.io.transport.modbus.PollTask;
 
 /**
@@ -49,4 +51,14 @@ public interface ModbusPollerThingHandler {
      */
     public void refresh();
 
+    /**
+     * Get the decoded registers of a response this poller passed on to its children
+     *
+     * @param registers registers passed on
+     * @return decoded registers shared by the children, or null if the response is not known (anymore)
+     */
+    public default @Nullable DecodedRegisters getDecodedRegisters(ModbusRegisterArray registers) {
+        return null;
+    }
+
 }
@@ -36,6 +36,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.AtomicStampedKeyValue;
+import org.openhab.binding.modbus.internal.DecodedRegisters;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
@@ -75,6 +76,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, ModbusRegisterArray> lastRegisters;
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, BitArray> lastCoils;
         private volatile @Nullable AtomicStampedKeyValue<ModbusReadRequestBlueprint, Exception> lastError;
+        private volatile @Nullable DecodedRegisters decodedRegisters;
 
         @Override
         public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
@@ -92,6 +94,8 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
             }
             logger.debug("Thing {} received registers {} for request {}", thing.getUID(), registers, request);
             resetCommunicationError();
+            // decoded once, used by all children
+            decodedRegisters = new DecodedRegisters(registers);
             childCallbacks.forEach(handler -> handler.onRegisters(request, registers));
         }
 
@@ -213,6 +217,7 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
          * Rest data caches
          */
         public void resetCache() {
+            decodedRegisters = null;
             lastRegisters = null;
             lastCoils = null;
             lastError = null;
@@ -422,6 +427,12 @@ public class ModbusPollerThingHandlerImpl extends BaseBridgeHandler implements M
         return pollTask;
     }
 
+    @Override
+    public @Nullable DecodedRegisters getDecodedRegisters(ModbusRegisterArray registers) {
+        DecodedRegisters decodedRegisters = callbackDelegator.decodedRegisters;
+        return decodedRegisters != null && decodedRegisters.isFor(registers) ? decodedRegisters : null;
+    }
+
     /**
      * Refresh the data
      *
@@ -60,7 +60,10 @@ public class ModbusTcpThingHandler
         poolConfiguration.setConnectTimeoutMillis(config.getConnectTimeoutMillis());
         poolConfiguration.setInterConnectDelayMillis(config.getTimeBetweenReconnectMillis());
         poolConfiguration.setInterTransactionDelayMillis(config.getTimeBetweenTransactionsMillis());
+        poolConfiguration.setAdaptiveInterTransactionDelay(config.isAdaptiveTimeBetweenTransactions());
+        poolConfiguration.setMinInterTransactionDelayMillis(config.getMinTimeBetweenTransactionsMillis());
         poolConfiguration.setReconnectAfterMillis(config.getReconnectAfterMillis());
+        poolConfiguration.setMergePolls(config.isMergePolls());
     }
 
     @Override
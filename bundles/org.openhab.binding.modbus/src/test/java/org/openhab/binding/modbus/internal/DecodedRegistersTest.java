@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegister;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusBitUtilities;
+import org.openhab.io.transport.modbus.ModbusConstants.ValueType;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+public class DecodedRegistersTest {
+
+    private static ModbusRegisterArray registers(int... words) {
+        ModbusRegister[] registers = new ModbusRegister[words.length];
+        for (int i = 0; i < words.length; i++) {
+            registers[i] = new BasicModbusRegister((byte) (words[i] >> 8), (byte) words[i]);
+        }
+        return new BasicModbusRegisterArray(registers);
+    }
+
+    @Test
+    public void testInt16() {
+        DecodedRegisters decoded = new DecodedRegisters(registers(0xfffd, 0x0004));
+        assertThat(decoded.getState(0, ValueType.INT16), is(equalTo(new DecimalType(-3))));
+        assertThat(decoded.getState(1, ValueType.INT16), is(equalTo(new DecimalType(4))));
+    }
+
+    @Test
+    public void testUint16() {
+        DecodedRegisters decoded = new DecodedRegisters(registers(0xfffd));
+        assertThat(decoded.getState(0, ValueType.UINT16), is(equalTo(new DecimalType(65533))));
+    }
+
+    @Test
+    public void testFloat32() {
+        // 1.5f
+        DecodedRegisters decoded = new DecodedRegisters(registers(0x3fc0, 0x0000));
+        assertThat(decoded.getState(0, ValueType.FLOAT32), is(equalTo(new DecimalType(1.5f))));
+    }
+
+    @Test
+    public void testFloat32NaN() {
+        DecodedRegisters decoded = new DecodedRegisters(registers(0x7fc0, 0x0000));
+        assertThat(decoded.getState(0, ValueType.FLOAT32), is(equalTo(UnDefType.UNDEF)));
+    }
+
+    @Test
+    public void testSameAsBitUtilities() {
+        ModbusRegisterArray registers = registers(0x1234, 0xfedc, 0x0001, 0x8000);
+        DecodedRegisters decoded = new DecodedRegisters(registers);
+        for (ValueType type : new ValueType[] { ValueType.INT16, ValueType.UINT16, ValueType.FLOAT32,
+                ValueType.INT32, ValueType.UINT32_SWAP, ValueType.INT8, ValueType.BIT }) {
+            assertThat(type.toString(), decoded.getState(1, type),
+                    is(equalTo(ModbusBitUtilities.extractStateFromRegisters(registers, 1, type).get())));
+        }
+    }
+
+    @Test
+    public void testStateIsRemembered() {
+        DecodedRegisters decoded = new DecodedRegisters(registers(0x0001));
+        assertThat(decoded.getState(0, ValueType.UINT16), is(sameInstance(decoded.getState(0, ValueType.UINT16))));
+    }
+
+    @Test
+    public void testRawValue() {
+        DecodedRegisters decoded = new DecodedRegisters(registers(0x1234, 0xfedc, 0x0001));
+        assertThat(decoded.getRawValue(1, 1), is(equalTo(0xfedcL)));
+        assertThat(decoded.getRawValue(0, 2), is(equalTo(0x1234fedcL)));
+        assertThat(decoded.contains(1, 2), is(equalTo(true)));
+        assertThat(decoded.contains(2, 2), is(equalTo(false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRawValueOutOfBounds() {
+        new DecodedRegisters(registers(0x1234)).getRawValue(0, 2);
+    }
+
+    @Test
+    public void testIsFor() {
+        ModbusRegisterArray registers = registers(0x1234);
+        DecodedRegisters decoded = new DecodedRegisters(registers);
+        assertThat(decoded.isFor(registers), is(equalTo(true)));
+        assertThat(decoded.isFor(registers(0x1234)), is(equalTo(false)));
+    }
+}
@@ -28,7 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -461,7 +461,7 @@ public class ModbusDataHandlerTest extends JavaTest {
             WriteTask task = (WriteTask) invocation.getArgument(0);
 
             writeTasks.add(task);
-            return Mockito.mock(ScheduledFuture.class);
+            return Mockito.mock(Future.class);
         });
     }
 
@@ -789,6 +789,29 @@ public class ModbusDataHandlerTest extends JavaTest {
         assertSingleStateUpdate(dataHandler, CHANNEL_STRING, UnDefType.UNDEF);
     }
 
+    @Test
+    public void testOnRegistersUnchangedRegistersAreNotUpdated() {
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "default", ModbusConstants.ValueType.INT16, null, new BasicModbusRegisterArray(
+                        new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }),
+                null);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+
+        // same registers again, well within updateUnchangedValuesEveryMillis
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0xff, (byte) 0xfd) }));
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(-3));
+        assertSingleStateUpdate(dataHandler, CHANNEL_STRING, new StringType("-3"));
+        assertThat(stateUpdates.get(dataHandler.getThing().getChannel(CHANNEL_LAST_READ_SUCCESS).getUID()).size(),
+                is(equalTo(2)));
+
+        // changed registers
+        dataHandler.onRegisters(request, new BasicModbusRegisterArray(
+                new ModbusRegister[] { new BasicModbusRegister((byte) 0x00, (byte) 0x05) }));
+        assertThat(stateUpdates.get(dataHandler.getThing().getChannel(CHANNEL_NUMBER).getUID()),
+                is(equalTo(Arrays.asList(new DecimalType(-3), new DecimalType(5)))));
+    }
+
     @Test
     public void testOnRegistersRealTransformationNoLinks() throws InvalidSyntaxException {
         mockTransformation("MULTIPLY", new TransformationService() {
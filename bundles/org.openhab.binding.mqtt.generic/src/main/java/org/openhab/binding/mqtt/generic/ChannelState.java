@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Formatter;
 import java.util.IllegalFormatException;
 import java.util.List;
@@ -25,11 +26,16 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
+import org.eclipse.smarthome.core.library.types.StopMoveType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,11 +61,14 @@ public class ChannelState implements MqttMessageSubscriber {
     // Runtime variables
     @Nullable
     private MqttBrokerConnection connection;
+    private @Nullable WildcardSubscription wildcardSubscription;
     protected final List<ChannelStateTransformation> transformationsIn = new ArrayList<>();
     protected final List<ChannelStateTransformation> transformationsOut = new ArrayList<>();
     private @Nullable ChannelStateUpdateListener channelStateUpdateListener;
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
+    private byte @Nullable [] lastPayload;
+    private @Nullable State lastState;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
 
     /**
@@ -145,29 +154,47 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Same payload as last time, which resulted in the still cached state: No need to transform and parse again
+        if (!config.trigger && isUnchanged(payload)) {
+            notifyCachedState(channelStateUpdateListener);
+            receivedOrTimeout();
+            return;
+        }
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
+            rememberPayload(payload);
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
             receivedOrTimeout();
             return;
         }
 
-        // String value: Apply transformations
-        String strvalue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            strvalue = t.processValue(strvalue);
-        }
+        // Without transformations the value may parse the payload directly, without decoding it first
+        final Command command;
+        final @Nullable String strvalue;
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            command = cachedValue.parseCommand(payload);
+            strvalue = null;
+        } else {
+            // String value: Apply transformations
+            String transformed = new String(payload, StandardCharsets.UTF_8);
+            for (ChannelStateTransformation t : transformationsIn) {
+                transformed = t.processValue(transformed);
+            }
 
-        // Is trigger?: Special handling
-        if (config.trigger) {
-            channelStateUpdateListener.triggerChannel(channelUID, strvalue);
-            receivedOrTimeout();
-            return;
+            // Is trigger?: Special handling
+            if (config.trigger) {
+                channelStateUpdateListener.triggerChannel(channelUID, transformed);
+                receivedOrTimeout();
+                return;
+            }
+            command = cachedValue.parseCommand(transformed);
+            strvalue = transformed;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strvalue);
         if (command == null) {
-            logger.warn("Incoming payload '{}' not supported by type '{}'", strvalue,
+            logger.warn("Incoming payload '{}' not supported by type '{}'",
+                    strvalue != null ? strvalue : new String(payload, StandardCharsets.UTF_8),
                     cachedValue.getClass().getSimpleName());
             receivedOrTimeout();
             return;
@@ -184,18 +211,49 @@ public class ChannelState implements MqttMessageSubscriber {
         try {
             cachedValue.update(command);
         } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Command '{}' not supported by type '{}': {}", strvalue, cachedValue.getClass().getSimpleName(),
-                    e.getMessage());
+            logger.warn("Command '{}' not supported by type '{}': {}",
+                    strvalue != null ? strvalue : new String(payload, StandardCharsets.UTF_8),
+                    cachedValue.getClass().getSimpleName(), e.getMessage());
             receivedOrTimeout();
             return;
         }
+        if (isRelative(command)) {
+            // Receiving the same relative command again changes the state again
+            lastPayload = null;
+        } else {
+            rememberPayload(payload);
+        }
 
-        if (config.postCommand) {
+        notifyCachedState(channelStateUpdateListener);
+        receivedOrTimeout();
+    }
+
+    private void notifyCachedState(ChannelStateUpdateListener channelStateUpdateListener) {
+        if (config.postCommand && !cachedValue.isBinary()) {
             channelStateUpdateListener.postChannelCommand(channelUID, (Command) cachedValue.getChannelState());
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
-        receivedOrTimeout();
+    }
+
+    /**
+     * Returns true if the payload equals the last payload, and the state that payload resulted in is still cached.
+     * The cached state is compared by identity, so that user commands and state resets are noticed.
+     */
+    private boolean isUnchanged(byte[] payload) {
+        final byte[] lastPayload = this.lastPayload;
+        return lastPayload != null && lastState == cachedValue.getChannelState() && lastState != UnDefType.UNDEF
+                && Arrays.equals(lastPayload, payload);
+    }
+
+    private static boolean isRelative(Command command) {
+        return command instanceof IncreaseDecreaseType || command instanceof UpDownType
+                || command instanceof StopMoveType;
+    }
+
+    private void rememberPayload(byte[] payload) {
+        lastPayload = payload;
+        lastState = cachedValue.getChannelState();
     }
 
     /**
@@ -234,7 +292,10 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
-        if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
+        final WildcardSubscription wildcardSubscription = this.wildcardSubscription;
+        if (wildcardSubscription != null && StringUtils.isNotBlank(config.stateTopic)) {
+            return wildcardSubscription.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+        } else if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
             return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
         } else {
             internalStop();
@@ -244,8 +305,11 @@ public class ChannelState implements MqttMessageSubscriber {
 
     private void internalStop() {
         this.connection = null;
+        this.wildcardSubscription = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastPayload = null;
+        lastState = null;
         cachedValue.resetState();
     }
 
@@ -280,18 +344,42 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> start(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
+        return start(connection, scheduler, timeout, null);
+    }
+
+    /**
+     * Like {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)}, but receives the state topic via the
+     * given wildcard subscription instead of subscribing it on the broker. The last received value is applied
+     * immediately, unless this is a trigger channel.
+     *
+     * @param wildcardSubscription A started wildcard subscription covering the state topic. If null, the state topic
+     *            is subscribed on the connection.
+     */
+    public CompletableFuture<@Nullable Void> start(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
+            int timeout, @Nullable WildcardSubscription wildcardSubscription) {
         if (hasSubscribed) {
             return CompletableFuture.completedFuture(null);
         }
 
         this.connection = connection;
+        this.wildcardSubscription = wildcardSubscription;
+
+        // Resolve the transformation services once, instead of on the first incoming value
+        for (ChannelStateTransformation t : transformationsIn) {
+            if (t.resolve() == null) {
+                logger.debug("Transformation service {} for channel {} not available yet", t.serviceName, channelUID);
+            }
+        }
 
         if (StringUtils.isBlank(config.stateTopic)) {
             return CompletableFuture.completedFuture(null);
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        final CompletableFuture<Boolean> subscribed = wildcardSubscription != null
+                ? wildcardSubscription.subscribe(config.stateTopic, this, !config.trigger)
+                : connection.subscribe(config.stateTopic, this);
+        subscribed.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
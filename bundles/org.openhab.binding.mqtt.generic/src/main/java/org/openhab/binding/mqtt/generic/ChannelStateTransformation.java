@@ -70,6 +70,24 @@ public class ChannelStateTransformation {
         this.provider = provider;
     }
 
+    /**
+     * Resolves the transformation service, if it has not been resolved yet or has gone away in the meantime.
+     * Called by the {@link ChannelState} when it is started, so that the service lookup does not happen for
+     * each incoming MQTT value.
+     *
+     * @return The transformation service or null if it is not available (yet).
+     */
+    protected @Nullable TransformationService resolve() {
+        TransformationService transformationService = this.transformationService.get();
+        if (transformationService == null) {
+            transformationService = provider.getTransformationService(serviceName);
+            if (transformationService != null) {
+                this.transformationService = new WeakReference<>(transformationService);
+            }
+        }
+        return transformationService;
+    }
+
     /**
      * Will be called by the {@link ChannelState} for each incoming MQTT value.
      *
@@ -77,14 +95,10 @@ public class ChannelStateTransformation {
      * @return The transformed value
      */
     protected String processValue(String value) {
-        TransformationService transformationService = this.transformationService.get();
+        TransformationService transformationService = resolve();
         if (transformationService == null) {
-            transformationService = provider.getTransformationService(serviceName);
-            if (transformationService == null) {
-                logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
-                return value;
-            }
-            this.transformationService = new WeakReference<>(transformationService);
+            logger.warn("Transformation service {} for pattern {} not found!", serviceName, pattern);
+            return value;
         }
         String temp = null;
         try {
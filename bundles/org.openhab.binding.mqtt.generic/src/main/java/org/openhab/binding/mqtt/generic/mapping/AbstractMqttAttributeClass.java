@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -102,6 +103,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient List<SubscribeFieldToMQTTtopic> subscriptions = new ArrayList<>();
     public transient WeakReference<@Nullable MqttBrokerConnection> connection = new WeakReference<>(null);
     protected transient WeakReference<@Nullable ScheduledExecutorService> scheduler = new WeakReference<>(null);
+    protected transient @Nullable WildcardSubscription wildcardSubscription;
     private final String prefix;
     private transient String basetopic = "";
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
@@ -139,6 +141,12 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      * @return Returns a future that completes as soon as all unsubscriptions have been performed.
      */
     public CompletableFuture<@Nullable Void> unsubscribe() {
+        final WildcardSubscription wildcardSubscription = this.wildcardSubscription;
+        if (wildcardSubscription != null) {
+            subscriptions.forEach(m -> wildcardSubscription.unsubscribe(m.topic, m));
+            subscriptions.clear();
+            return CompletableFuture.completedFuture(null);
+        }
         final MqttBrokerConnection connection = this.connection.get();
         if (connection == null) {
             subscriptions.clear();
@@ -170,6 +178,20 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, String basetopic, @Nullable AttributeChanged attributeChangedListener,
             int timeout) {
+        return subscribeAndReceive(connection, scheduler, basetopic, attributeChangedListener, timeout, null);
+    }
+
+    /**
+     * Like {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)},
+     * but routes the field topics through the given wildcard subscription instead of subscribing each topic on the
+     * broker.
+     *
+     * @param wildcardSubscription A started wildcard subscription covering the base topic. If null, each field topic
+     *            is subscribed on the connection.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection,
+            ScheduledExecutorService scheduler, String basetopic, @Nullable AttributeChanged attributeChangedListener,
+            int timeout, @Nullable WildcardSubscription wildcardSubscription) {
 
         // We first need to unsubscribe old subscriptions if any
         final CompletableFuture<@Nullable Void> startFuture;
@@ -181,6 +203,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
 
         this.connection = new WeakReference<>(connection);
         this.scheduler = new WeakReference<>(scheduler);
+        this.wildcardSubscription = wildcardSubscription;
         this.basetopic = basetopic;
         if (attributeChangedListener != null) {
             this.attributeChangedListener = attributeChangedListener;
@@ -193,7 +216,9 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
                 .map(this::mapFieldToSubscriber).collect(Collectors.toList());
 
         final CompletableFuture<?>[] futures = subscriptions.stream()
-                .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
+                .map(m -> wildcardSubscription != null ? m.subscribeAndReceive(wildcardSubscription, timeout)
+                        : m.subscribeAndReceive(connection, timeout))
+                .toArray(CompletableFuture[]::new);
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
@@ -26,6 +26,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -181,7 +182,25 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        return awaitValue(connection.subscribe(topic, this), timeout);
+    }
+
+    /**
+     * Subscribe to the MQTT topic via an already established wildcard subscription. A value that has been received
+     * by the wildcard subscription before is applied immediately.
+     * You need to manually unsubscribe from the {@link #topic} before disposing.
+     *
+     * @param subscription A wildcard subscription covering the topic.
+     * @param timeout Timeout in milliseconds. The returned future completes after this time even if no message has
+     *            been received for the MQTT topic.
+     * @return Returns a future that completes if either a value is received for the topic or a timeout happens.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(WildcardSubscription subscription, int timeout) {
+        return awaitValue(subscription.subscribe(topic, this), timeout);
+    }
+
+    private CompletableFuture<@Nullable Void> awaitValue(CompletableFuture<Boolean> subscribed, int timeout) {
+        subscribed.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -13,20 +13,37 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * Collects objects over time until a specified delay passed by.
+ * Collects objects over time until a specified delay passed by or a maximum batch size is reached.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * <p>
+ * Objects can be added from any thread without locking. The user callback is never called concurrently.
+ * </p>
+ *
+ * <p>
+ * If a key function is given, only the last object per key is kept until the batch is delivered.
+ * The delivered list is in order of the first arrival of each key.
+ * </p>
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
@@ -34,10 +51,26 @@ import org.eclipse.jdt.annotation.Nullable;
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
     private final int delay;
+    private final int maxBatchSize;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
     private final ScheduledExecutorService executor;
-    protected @Nullable ScheduledFuture<?> future;
+    private final @Nullable Function<T, Object> keyFunction;
+
+    // Contains the objects or, in coalescing mode, the keys of the latest objects
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Object, T> latest = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final AtomicLong batchStartNanos = new AtomicLong();
+    private final Object deliverLock = new Object();
+    protected volatile @Nullable ScheduledFuture<?> future;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder latencyMillis = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
 
     /**
      * Creates a {@link DelayedBatchProcessing}.
@@ -47,27 +80,80 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, Integer.MAX_VALUE, null, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing} that delivers early if the given batch size is reached.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxBatchSize The number of collected objects that causes an immediate delivery
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
+        this(delay, maxBatchSize, null, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing} that delivers early if the given batch size is reached and
+     * optionally only keeps the last object per key.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxBatchSize The number of collected objects that causes an immediate delivery
+     * @param keyFunction Determines the key of an object. Objects with equal keys replace each other.
+     *            Can be null to keep all objects.
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, @Nullable Function<T, Object> keyFunction,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
         this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.keyFunction = keyFunction;
         this.consumer = consumer;
         this.executor = executor;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size need to be greater than 0!");
+        }
     }
 
     /**
      * Add new object to the batch process list. If the list was empty, the delay timer
      * is armed and all successive objects are accumulated from here on.
+     * If the maximum batch size is reached, the objects are delivered right away.
      *
      * @param t An object
      */
     @Override
     public void accept(T t) {
-        queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
+        final Function<T, Object> keyFunction = this.keyFunction;
+        final int queued;
+        if (keyFunction != null) {
+            Object key = keyFunction.apply(t);
+            if (latest.put(key, t) != null) {
+                // The key is already queued and now refers to the new object
+                coalesced.increment();
+                return;
+            }
+            queued = size.incrementAndGet();
+            queue.add(key);
+        } else {
+            queued = size.incrementAndGet();
+            queue.add(t);
+        }
+
+        if (armed.compareAndSet(false, true)) {
+            batchStartNanos.set(System.nanoTime());
             this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
         }
+        if (queued == maxBatchSize) {
+            executor.execute(this::run);
+        }
     }
 
     /**
@@ -76,46 +162,128 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * @return A list of accumulated objects
      */
     public List<T> join() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture != null && !scheduledFuture.isDone()) {
-            scheduledFuture.cancel(false);
-        }
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
-        return lqueue;
+        cancelTimer();
+        return drain();
     }
 
     /**
      * Return true if there is a delayed processing going on.
      */
     public boolean isArmed() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        return scheduledFuture != null && !scheduledFuture.isDone();
+        return armed.get();
     }
 
     /**
      * Deliver queued items now to the target consumer.
      */
     public void forceProcessNow() {
+        cancelTimer();
+        run();
+    }
+
+    /**
+     * Return the number of accumulated objects that have not been delivered yet.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return number of delivered batches
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return number of delivered objects
+     */
+    public long getItemCount() {
+        return items.sum();
+    }
+
+    /**
+     * @return number of objects that were replaced by a newer object with the same key before delivery
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return size of the largest delivered batch
+     */
+    public int getLargestBatchSize() {
+        return largestBatch.get();
+    }
+
+    /**
+     * @return average time in milliseconds from the first object of a batch until its delivery
+     */
+    public long getAverageLatencyMillis() {
+        long count = batches.sum();
+        return count == 0 ? 0 : latencyMillis.sum() / count;
+    }
+
+    /**
+     * @return longest time in milliseconds from the first object of a batch until its delivery
+     */
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{pending: %d, batches: %d, items: %d, coalesced: %d, largest batch: %d, latency: %d ms (max %d ms)}",
+                size(), getBatchCount(), getItemCount(), getCoalescedCount(), getLargestBatchSize(),
+                getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+
+    private void cancelTimer() {
         ScheduledFuture<?> scheduledFuture = this.future;
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        run();
     }
 
     private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
+        synchronized (deliverLock) {
+            long startNanos = batchStartNanos.get();
+            List<T> lqueue = drain();
+            if (lqueue.isEmpty()) {
+                return;
+            }
 
-        if (!lqueue.isEmpty()) {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            batches.increment();
+            items.add(lqueue.size());
+            latencyMillis.add(latency);
+            largestBatch.accumulateAndGet(lqueue.size(), Math::max);
+            maxLatencyMillis.accumulateAndGet(latency, Math::max);
             consumer.accept(lqueue);
         }
     }
+
+    /**
+     * Take all queued objects. Objects added concurrently either end up in the returned list
+     * or arm the timer again.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> drain() {
+        armed.set(false);
+        List<T> lqueue = new ArrayList<>();
+        Object o;
+        while ((o = queue.poll()) != null) {
+            size.decrementAndGet();
+            if (keyFunction != null) {
+                T t = latest.remove(o);
+                if (t != null) {
+                    lqueue.add(t);
+                }
+            } else {
+                lqueue.add((T) o);
+            }
+        }
+        return lqueue;
+    }
 }
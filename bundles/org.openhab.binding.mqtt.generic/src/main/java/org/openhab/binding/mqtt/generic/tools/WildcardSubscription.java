@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscribes once to all topics below a base topic ("base/topic/#") and routes the received messages
+ * to the {@link MqttMessageSubscriber}s registered for single topics below that base topic.
+ *
+ * <p>
+ * Registered topics are kept in a topic trie, so routing a message only costs one lookup per topic level.
+ * The last payload of each topic is kept as well. A subscriber registering a topic after a message on it has been
+ * received gets that payload immediately. Unlike a new subscription on the broker, this replays the last payload
+ * whether or not it was retained, since the retain flag is not passed on to {@link MqttMessageSubscriber}s. An empty
+ * payload, which also clears a retained message, removes the kept payload. At most {@value #MAX_LAST_PAYLOADS} payloads
+ * are kept, the payloads of the topics which have not been received for the longest time are dropped first.
+ * </p>
+ *
+ * <p>
+ * Subscribers are called without holding the lock of this object, so they may (un)subscribe from their callbacks.
+ * </p>
+ *
+ * Usage:
+ *
+ * <pre>
+ * WildcardSubscription subscription = new WildcardSubscription("homie/device");
+ * subscription.start(connection).thenRun(() -> System.out.println("subscribed"));
+ * subscription.subscribe("homie/device/$name", subscriber);
+ * </pre>
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class WildcardSubscription implements MqttMessageSubscriber {
+    /** Maximum number of kept payloads for replaying */
+    static final int MAX_LAST_PAYLOADS = 10000;
+
+    private final Logger logger = LoggerFactory.getLogger(WildcardSubscription.class);
+    private final String baseTopic;
+    private final String wildcardTopic;
+
+    // Guarded by this
+    private final TrieNode root = new TrieNode();
+    private final Map<String, byte[]> lastPayloads = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_LAST_PAYLOADS;
+        }
+    };
+    private @Nullable MqttBrokerConnection connection;
+    private CompletableFuture<Boolean> started = CompletableFuture.completedFuture(false);
+
+    /**
+     * A level of the topic trie.
+     */
+    private static class TrieNode {
+        final Map<String, TrieNode> children = new HashMap<>();
+        final List<MqttMessageSubscriber> subscribers = new ArrayList<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && subscribers.isEmpty();
+        }
+    }
+
+    /**
+     * Creates a wildcard subscription.
+     *
+     * @param baseTopic The base topic, e.g. "homie/device". All topics below will be received.
+     */
+    public WildcardSubscription(String baseTopic) {
+        this.baseTopic = baseTopic;
+        this.wildcardTopic = baseTopic + "/#";
+    }
+
+    /**
+     * Subscribes to all topics below the base topic. Does nothing if already subscribed on the given connection.
+     *
+     * @param connection A broker connection
+     * @return A future that completes with true if subscribing worked and with false or exceptionally otherwise.
+     */
+    public synchronized CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        if (connection == this.connection) {
+            return started;
+        }
+        this.connection = connection;
+        started = connection.subscribe(wildcardTopic, this);
+        return started;
+    }
+
+    /**
+     * Unsubscribes from the broker and forgets all registered subscribers and received payloads.
+     *
+     * @return A future that completes as soon as the unsubscription has been performed.
+     */
+    public synchronized CompletableFuture<Boolean> stop() {
+        final MqttBrokerConnection connection = this.connection;
+        this.connection = null;
+        started = CompletableFuture.completedFuture(false);
+        root.children.clear();
+        root.subscribers.clear();
+        lastPayloads.clear();
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(wildcardTopic, this);
+    }
+
+    /**
+     * Returns true if messages of the given topic are received by this wildcard subscription.
+     */
+    public boolean covers(String topic) {
+        return topic.startsWith(baseTopic + "/");
+    }
+
+    /**
+     * Registers a subscriber for a topic below the base topic. The topic may contain the "+" and "#" wildcards.
+     *
+     * @param topic The topic
+     * @param subscriber The subscriber
+     * @param replay If true, the subscriber immediately receives the last payloads of all matching topics, retained
+     *            or not.
+     * @return The future of the wildcard subscription. Completes with true if subscribing worked and
+     *         with false or exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber, boolean replay) {
+        if (!covers(topic)) {
+            CompletableFuture<Boolean> f = new CompletableFuture<>();
+            f.completeExceptionally(new IllegalArgumentException(topic + " is not below " + baseTopic));
+            return f;
+        }
+        final List<Entry<String, byte[]>> replayed = new ArrayList<>();
+        final CompletableFuture<Boolean> future;
+        synchronized (this) {
+            TrieNode node = root;
+            for (String level : topic.split("/", -1)) {
+                node = node.children.computeIfAbsent(level, k -> new TrieNode());
+            }
+            if (!node.subscribers.contains(subscriber)) {
+                node.subscribers.add(subscriber);
+            }
+            if (replay) {
+                final String[] filter = topic.split("/", -1);
+                for (Entry<String, byte[]> e : lastPayloads.entrySet()) {
+                    if (matches(filter, e.getKey().split("/", -1))) {
+                        replayed.add(new SimpleImmutableEntry<>(e.getKey(), e.getValue().clone()));
+                    }
+                }
+            }
+            future = started;
+        }
+        replayed.forEach(e -> deliver(subscriber, e.getKey(), e.getValue()));
+        return future;
+    }
+
+    /**
+     * Registers a subscriber for a topic below the base topic and replays the last payloads.
+     * See {@link #subscribe(String, MqttMessageSubscriber, boolean)}.
+     */
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        return subscribe(topic, subscriber, true);
+    }
+
+    /**
+     * Removes a subscriber of a topic.
+     *
+     * @param topic The topic
+     * @param subscriber The subscriber
+     * @return A completed future. The wildcard subscription stays active.
+     */
+    public synchronized CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        remove(root, topic.split("/", -1), 0, subscriber);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private static boolean remove(TrieNode node, String[] levels, int index, MqttMessageSubscriber subscriber) {
+        if (index == levels.length) {
+            node.subscribers.remove(subscriber);
+        } else {
+            TrieNode child = node.children.get(levels[index]);
+            if (child != null && remove(child, levels, index + 1, subscriber)) {
+                node.children.remove(levels[index]);
+            }
+        }
+        return node.isEmpty();
+    }
+
+    /**
+     * Returns the number of registered subscribers.
+     */
+    public synchronized int subscriberCount() {
+        return count(root);
+    }
+
+    private static int count(TrieNode node) {
+        int c = node.subscribers.size();
+        for (TrieNode child : node.children.values()) {
+            c += count(child);
+        }
+        return c;
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        final List<MqttMessageSubscriber> receivers = new ArrayList<>();
+        synchronized (this) {
+            if (payload.length == 0) {
+                lastPayloads.remove(topic);
+            } else {
+                lastPayloads.put(topic, payload.clone());
+            }
+            collect(root, topic.split("/", -1), 0, receivers);
+        }
+        receivers.forEach(s -> deliver(s, topic, payload));
+    }
+
+    /**
+     * Returns the number of kept payloads.
+     */
+    synchronized int lastPayloadCount() {
+        return lastPayloads.size();
+    }
+
+    private static void collect(TrieNode node, String[] levels, int index, List<MqttMessageSubscriber> receivers) {
+        TrieNode multiLevel = node.children.get("#");
+        if (multiLevel != null) {
+            receivers.addAll(multiLevel.subscribers);
+        }
+        if (index == levels.length) {
+            receivers.addAll(node.subscribers);
+            return;
+        }
+        TrieNode child = node.children.get(levels[index]);
+        if (child != null) {
+            collect(child, levels, index + 1, receivers);
+        }
+        TrieNode singleLevel = node.children.get("+");
+        if (singleLevel != null) {
+            collect(singleLevel, levels, index + 1, receivers);
+        }
+    }
+
+    private static boolean matches(String[] filter, String[] topic) {
+        for (int i = 0; i < filter.length; i++) {
+            if ("#".equals(filter[i])) {
+                return true;
+            }
+            if (i >= topic.length || (!"+".equals(filter[i]) && !filter[i].equals(topic[i]))) {
+                return false;
+            }
+        }
+        return filter.length == topic.length;
+    }
+
+    private void deliver(MqttMessageSubscriber subscriber, String topic, byte[] payload) {
+        try {
+            subscriber.processMessage(topic, payload);
+        } catch (RuntimeException e) {
+            logger.warn("Subscriber of topic {} failed to process a message", topic, e);
+        }
+    }
+}
@@ -96,6 +96,12 @@ public class NumberValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        DecimalType number = parseDecimal(payload);
+        return number != null ? number : super.parseCommand(payload);
+    }
+
     @Override
     public StateDescription createStateDescription(String unit, boolean readOnly) {
         return new StateDescription(min, max, step, "%s " + unit.replace("%", "%%"), readOnly, Collections.emptyList());
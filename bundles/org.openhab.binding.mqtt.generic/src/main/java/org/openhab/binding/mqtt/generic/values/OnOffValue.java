@@ -86,6 +86,17 @@ public class OnOffValue extends Value {
         }
     }
 
+    @Override
+    public @Nullable Command parseCommand(String value) {
+        // Same result as the TypeParser: The OnOffType constants, everything else is a string
+        if (OnOffType.ON.name().equals(value)) {
+            return OnOffType.ON;
+        } else if (OnOffType.OFF.name().equals(value)) {
+            return OnOffType.OFF;
+        }
+        return new StringType(value);
+    }
+
     @Override
     public String getMQTTpublishValue() {
         return (state == OnOffType.ON) ? onCommand : offCommand;
@@ -132,6 +132,12 @@ public class PercentageValue extends Value {
                 .add(BigDecimal.valueOf(min)).toString();
     }
 
+    @Override
+    public @Nullable Command parseCommand(byte[] payload) {
+        DecimalType number = parseDecimal(payload);
+        return number != null ? number : super.parseCommand(payload);
+    }
+
     @Override
     public StateDescription createStateDescription(String unit, boolean readOnly) {
         return new StateDescription(new BigDecimal(min), new BigDecimal(max), new BigDecimal(step),
@@ -14,7 +14,9 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
@@ -27,6 +29,7 @@ import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescription;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 /**
@@ -122,6 +125,60 @@ public abstract class Value {
      */
     public abstract void update(Command command) throws IllegalArgumentException;
 
+    /**
+     * Parses an incoming MQTT value into one of the {@link #getSupportedCommandTypes()}.
+     * <p>
+     * The default implementation tries each supported command type in order with the {@link TypeParser}.
+     * Subclasses may override this with a direct parser, which must return the same command as the
+     * {@link TypeParser} would.
+     * </p>
+     *
+     * @param value The (transformed) MQTT value
+     * @return A command or null if the value cannot be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(String value) {
+        return TypeParser.parseCommand(commandTypes, value);
+    }
+
+    /**
+     * Parses an untransformed MQTT payload into one of the {@link #getSupportedCommandTypes()}.
+     * <p>
+     * The default implementation decodes the UTF-8 payload and calls {@link #parseCommand(String)}. Subclasses may
+     * override this to parse the payload without decoding it first.
+     * </p>
+     *
+     * @param payload The raw MQTT payload
+     * @return A command or null if the payload cannot be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(byte[] payload) {
+        return parseCommand(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a plain decimal number (like "-12.5" or "1e3") directly from an ASCII payload.
+     *
+     * @param payload The raw MQTT payload
+     * @return The number or null if the payload is not a plain decimal number
+     */
+    protected static @Nullable DecimalType parseDecimal(byte[] payload) {
+        if (payload.length == 0 || payload.length > 64) {
+            return null;
+        }
+        char[] chars = new char[payload.length];
+        for (int i = 0; i < payload.length; i++) {
+            byte b = payload[i];
+            if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+                return null;
+            }
+            chars[i] = (char) b;
+        }
+        try {
+            return new DecimalType(new BigDecimal(chars));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Returns the given command if it cannot be handled by {@link #update(Command)}
      * or {@link #update(byte[])} and need to be posted straight to the framework instead.
@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.HSBType;
 import org.eclipse.smarthome.core.library.types.RawType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -294,4 +295,29 @@ public class ChannelStateTests {
         assertThat(value.getChannelState(), is(instanceOf(RawType.class)));
         assertThat(((RawType) value.getChannelState()).getMimeType(), is("image/jpeg"));
     }
+
+    @Test
+    public void receiveUnchangedPayloadTest() throws InterruptedException, ExecutionException, TimeoutException {
+        NumberValue value = spy(new NumberValue(null, null, new BigDecimal(10)));
+        ChannelState c = spy(new ChannelState(config, channelUID, value, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+        // The second payload is not parsed again, but still reported to the framework
+        verify(value, times(1)).parseCommand(any(byte[].class));
+        verify(channelStateUpdateListener, times(2)).updateChannelState(eq(channelUID), any());
+
+        // Relative commands are always applied
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "INCREASE".getBytes());
+        assertThat(value.getChannelState().toString(), is("35"));
+
+        // A published command changes the cached state, the same payload needs to be applied again
+        c.processMessage("state", "15".getBytes());
+        c.publishValue(new DecimalType(20)).get();
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+    }
 }
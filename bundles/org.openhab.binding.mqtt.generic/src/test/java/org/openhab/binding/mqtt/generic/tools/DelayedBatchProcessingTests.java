@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link DelayedBatchProcessing}.
+ *
+ * @author agent
+ */
+public class DelayedBatchProcessingTests {
+    @Mock
+    ScheduledExecutorService scheduler;
+
+    @Mock
+    ScheduledFuture<?> scheduledFuture;
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(scheduledFuture).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        // Run early deliveries right away
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any());
+    }
+
+    @Test
+    public void deliversAfterDelay() {
+        DelayedBatchProcessing<String> subject = new DelayedBatchProcessing<>(100, batches::add, scheduler);
+        subject.accept("a");
+        subject.accept("b");
+        assertTrue(subject.isArmed());
+
+        ArgumentCaptor<Runnable> timer = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(timer.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        timer.getValue().run();
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertFalse(subject.isArmed());
+        assertThat(subject.size(), is(0));
+        assertThat(subject.getBatchCount(), is(1L));
+        assertThat(subject.getItemCount(), is(2L));
+    }
+
+    @Test
+    public void deliversEarlyOnMaxBatchSize() {
+        DelayedBatchProcessing<String> subject = new DelayedBatchProcessing<>(100, 2, batches::add, scheduler);
+        subject.accept("a");
+        subject.accept("b");
+        subject.accept("c");
+
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertThat(subject.size(), is(1));
+        // The next object armed a new timer
+        verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        assertThat(subject.join(), is(Arrays.asList("c")));
+        assertThat(subject.getLargestBatchSize(), is(2));
+    }
+
+    @Test
+    public void coalescesByKey() {
+        DelayedBatchProcessing<String> subject = new DelayedBatchProcessing<>(100, Integer.MAX_VALUE,
+                s -> s.substring(0, 1), batches::add, scheduler);
+        subject.accept("a1");
+        subject.accept("b1");
+        subject.accept("a2");
+        assertThat(subject.size(), is(2));
+
+        subject.forceProcessNow();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a2", "b1"))));
+        assertThat(subject.getCoalescedCount(), is(1L));
+
+        // The key is free again after delivery
+        subject.accept("a3");
+        assertThat(subject.join(), is(Arrays.asList("a3")));
+    }
+
+    @Test
+    public void joinDoesNotDeliver() {
+        DelayedBatchProcessing<String> subject = new DelayedBatchProcessing<>(100, batches::add, scheduler);
+        subject.accept("a");
+
+        assertThat(subject.join(), is(Arrays.asList("a")));
+        verify(scheduledFuture).cancel(false);
+        subject.forceProcessNow();
+        assertTrue(batches.isEmpty());
+    }
+}
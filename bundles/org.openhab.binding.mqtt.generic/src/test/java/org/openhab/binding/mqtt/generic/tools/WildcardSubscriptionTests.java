@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.generic.mapping.SubscribeFieldToMQTTtopic;
+import org.openhab.binding.mqtt.generic.mapping.SubscribeFieldToMQTTtopic.FieldChanged;
+
+/**
+ * Tests cases for {@link WildcardSubscription}.
+ *
+ * @author agent
+ */
+public class WildcardSubscriptionTests {
+    @Mock
+    MqttBrokerConnection connection;
+
+    @Mock
+    MqttMessageSubscriber exact;
+
+    @Mock
+    MqttMessageSubscriber singleLevel;
+
+    @Mock
+    MqttMessageSubscriber multiLevel;
+
+    WildcardSubscription subject = new WildcardSubscription("homie/device");
+
+    public String field = "";
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+    }
+
+    @Test
+    public void subscribesOnce() {
+        subject.start(connection);
+        subject.start(connection);
+        subject.subscribe("homie/device/$name", exact);
+        subject.subscribe("homie/device/node/$name", exact);
+        verify(connection, times(1)).subscribe(eq("homie/device/#"), eq(subject));
+
+        subject.stop();
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(subject));
+        assertThat(subject.subscriberCount(), is(0));
+    }
+
+    @Test
+    public void routesToMatchingSubscribers() {
+        subject.start(connection);
+        subject.subscribe("homie/device/node/prop", exact);
+        subject.subscribe("homie/device/+/prop", singleLevel);
+        subject.subscribe("homie/device/node/#", multiLevel);
+
+        byte[] payload = "1".getBytes();
+        subject.processMessage("homie/device/node/prop", payload);
+        subject.processMessage("homie/device/other/prop", payload);
+        subject.processMessage("homie/device/node/prop/$name", payload);
+
+        verify(exact, times(1)).processMessage(any(), any());
+        verify(singleLevel).processMessage(eq("homie/device/node/prop"), eq(payload));
+        verify(singleLevel).processMessage(eq("homie/device/other/prop"), eq(payload));
+        verify(multiLevel).processMessage(eq("homie/device/node/prop"), eq(payload));
+        verify(multiLevel).processMessage(eq("homie/device/node/prop/$name"), eq(payload));
+    }
+
+    @Test
+    public void replaysLastPayload() {
+        subject.start(connection);
+        subject.processMessage("homie/device/$name", "old".getBytes());
+        subject.processMessage("homie/device/$name", "name".getBytes());
+        subject.processMessage("homie/device/$state", "ready".getBytes());
+        subject.processMessage("homie/device/$state", new byte[0]);
+
+        subject.subscribe("homie/device/$name", exact);
+        subject.subscribe("homie/device/$state", singleLevel);
+        subject.subscribe("homie/device/+", multiLevel, false);
+
+        verify(exact).processMessage(eq("homie/device/$name"), eq("name".getBytes()));
+        verify(exact, times(1)).processMessage(any(), any());
+        verifyZeroInteractions(singleLevel, multiLevel);
+    }
+
+    @Test
+    public void clearedRetainedMessageIsForgotten() {
+        subject.start(connection);
+        subject.processMessage("homie/device/$name", "name".getBytes());
+        assertThat(subject.lastPayloadCount(), is(1));
+
+        subject.processMessage("homie/device/$name", new byte[0]);
+        assertThat(subject.lastPayloadCount(), is(0));
+    }
+
+    @Test
+    public void keptPayloadsAreBounded() {
+        subject.start(connection);
+        for (int i = 0; i <= WildcardSubscription.MAX_LAST_PAYLOADS; i++) {
+            subject.processMessage("homie/device/node" + i + "/$name", "name".getBytes());
+        }
+        assertThat(subject.lastPayloadCount(), is(WildcardSubscription.MAX_LAST_PAYLOADS));
+
+        subject.subscribe("homie/device/node0/$name", exact);
+        subject.subscribe("homie/device/node" + WildcardSubscription.MAX_LAST_PAYLOADS + "/$name", singleLevel);
+
+        verifyZeroInteractions(exact);
+        verify(singleLevel).processMessage(any(), eq("name".getBytes()));
+    }
+
+    @Test
+    public void subscribersAreCalledWithoutHoldingTheLock() {
+        subject.start(connection);
+        subject.processMessage("homie/device/$name", "name".getBytes());
+
+        List<Boolean> lockHeld = new ArrayList<>();
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+            lockHeld.add(Thread.holdsLock(subject));
+            // subscribing from a callback must not deadlock with the receiving thread
+            subject.subscribe("homie/device/node/$name", exact, false);
+        };
+        subject.subscribe("homie/device/$name", subscriber);
+        subject.processMessage("homie/device/$name", "other".getBytes());
+
+        assertThat(lockHeld, is(Arrays.asList(false, false)));
+    }
+
+    @Test
+    public void replayedPayloadIsACopy() {
+        subject.start(connection);
+        byte[] payload = "name".getBytes();
+        subject.processMessage("homie/device/$name", payload);
+        payload[0] = 'x';
+
+        subject.subscribe("homie/device/$name", exact);
+
+        verify(exact).processMessage(any(), eq("name".getBytes()));
+    }
+
+    @Test
+    public void unsubscribe() {
+        subject.start(connection);
+        subject.subscribe("homie/device/node/prop", exact);
+        subject.subscribe("homie/device/node/prop", singleLevel);
+        assertThat(subject.subscriberCount(), is(2));
+
+        subject.unsubscribe("homie/device/node/prop", exact);
+        subject.processMessage("homie/device/node/prop", "1".getBytes());
+
+        verifyZeroInteractions(exact);
+        verify(singleLevel).processMessage(any(), any());
+        assertThat(subject.subscriberCount(), is(1));
+    }
+
+    @Test
+    public void rejectsTopicsNotCovered() {
+        subject.start(connection);
+        assertTrue(subject.subscribe("homie/other/$name", exact).isCompletedExceptionally());
+        assertThat(subject.subscriberCount(), is(0));
+    }
+
+    @Test
+    public void fieldSubscriberReceivesReplayedValue() throws Exception {
+        subject.start(connection);
+        subject.processMessage("homie/device/$name", "name".getBytes());
+
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        FieldChanged changed = (field, value) -> this.field = (String) value;
+        SubscribeFieldToMQTTtopic fieldSubscriber = new SubscribeFieldToMQTTtopic(scheduler,
+                WildcardSubscriptionTests.class.getField("field"), changed, "homie/device/$name", true);
+
+        fieldSubscriber.subscribeAndReceive(subject, 100).get(100, TimeUnit.MILLISECONDS);
+        assertThat(field, is("name"));
+        // Value already received, no timeout necessary
+        verifyZeroInteractions(scheduler);
+    }
+}
@@ -231,4 +231,22 @@ public class ValueTests {
                 null);
         v.update(new DecimalType(9.0));
     }
+
+    @Test
+    public void directParsersMatchTypeParser() {
+        NumberValue number = new NumberValue(null, null, null);
+        for (String str : new String[] { "15", "-2.5", "+1e3", "INCREASE", "UP", "1-2", "abc", "" }) {
+            assertThat(str, number.parseCommand(str.getBytes()), is(p(number, str)));
+        }
+        PercentageValue percent = new PercentageValue(null, null, null, null, null);
+        for (String str : new String[] { "50", "0.5", "ON", "DECREASE", "custom" }) {
+            assertThat(str, percent.parseCommand(str.getBytes()), is(p(percent, str)));
+        }
+        OnOffValue onoff = new OnOffValue("1", "0");
+        for (String str : new String[] { "ON", "OFF", "1", "0", "on" }) {
+            assertThat(str, onoff.parseCommand(str), is(p(onoff, str)));
+        }
+        TextValue text = new TextValue();
+        assertThat(text.parseCommand("ON"), is(p(text, "ON")));
+    }
 }
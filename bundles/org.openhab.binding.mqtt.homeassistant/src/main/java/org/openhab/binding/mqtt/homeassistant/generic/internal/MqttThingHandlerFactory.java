@@ -28,6 +28,7 @@ import org.eclipse.smarthome.core.transform.TransformationService;
 import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
 import org.openhab.binding.mqtt.homeassistant.generic.internal.MqttBindingConstants;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex;
 import org.openhab.binding.mqtt.homeassistant.internal.handler.HomeAssistantThingHandler;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
@@ -45,6 +46,7 @@ import org.osgi.service.component.annotations.Reference;
 @NonNullByDefault
 public class MqttThingHandlerFactory extends BaseThingHandlerFactory implements TransformationServiceProvider {
     private @NonNullByDefault({}) MqttChannelTypeProvider typeProvider;
+    private @NonNullByDefault({}) HomeAssistantConfigIndex configIndex;
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Stream
             .of(MqttBindingConstants.HOMEASSISTANT_MQTT_THING).collect(Collectors.toSet());
 
@@ -74,12 +76,21 @@ public class MqttThingHandlerFactory extends BaseThingHandlerFactory implements
         this.typeProvider = null;
     }
 
+    @Reference
+    protected void setConfigIndex(HomeAssistantConfigIndex configIndex) {
+        this.configIndex = configIndex;
+    }
+
+    protected void unsetConfigIndex(HomeAssistantConfigIndex configIndex) {
+        this.configIndex = null;
+    }
+
     @Override
     protected @Nullable ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(MqttBindingConstants.HOMEASSISTANT_MQTT_THING)) {
-            return new HomeAssistantThingHandler(thing, typeProvider, this, 10000, 2000);
+            return new HomeAssistantThingHandler(thing, typeProvider, this, 10000, 2000, configIndex);
         }
         return null;
     }
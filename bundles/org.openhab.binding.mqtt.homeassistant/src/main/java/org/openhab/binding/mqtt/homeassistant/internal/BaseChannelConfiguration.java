@@ -36,7 +36,7 @@ public abstract class BaseChannelConfiguration {
      * Without this, {@link BaseChannelConfiguration} cannot be instantiated, as it is abstract.
      * This is needed during the discovery.
      */
-    private static class Config extends BaseChannelConfiguration {
+    static class Config extends BaseChannelConfiguration {
         public Config() {
             super("private");
         }
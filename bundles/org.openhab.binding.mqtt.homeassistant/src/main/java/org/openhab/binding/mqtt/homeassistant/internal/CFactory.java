@@ -46,9 +46,28 @@ public class CFactory {
     public static @Nullable AbstractComponent<?> createComponent(ThingUID thingUID, HaID haID,
             String channelConfigurationJSON, @Nullable ChannelStateUpdateListener updateListener, Gson gson,
             TransformationServiceProvider transformationServiceProvider) {
-        ComponentConfiguration componentConfiguration = new ComponentConfiguration(thingUID, haID,
-                channelConfigurationJSON, gson).listener(updateListener)
-                        .transformationProvider(transformationServiceProvider);
+        return createComponent(new ComponentConfiguration(thingUID, haID, channelConfigurationJSON, gson)
+                .listener(updateListener).transformationProvider(transformationServiceProvider));
+    }
+
+    /**
+     * Create a HA MQTT component from a configuration of the {@link HomeAssistantConfigIndex}.
+     * The configuration JSon string of the entry is parsed only once.
+     *
+     * @param thingUID The Thing UID that this component will belong to.
+     * @param entry The received component configuration.
+     * @param updateListener A channel state update listener
+     * @return A HA MQTT Component
+     */
+    public static @Nullable AbstractComponent<?> createComponent(ThingUID thingUID,
+            HomeAssistantConfigIndex.Entry entry, @Nullable ChannelStateUpdateListener updateListener, Gson gson,
+            TransformationServiceProvider transformationServiceProvider) {
+        return createComponent(new ComponentConfiguration(thingUID, entry.haID, entry.configJSON, gson).entry(entry)
+                .listener(updateListener).transformationProvider(transformationServiceProvider));
+    }
+
+    private static @Nullable AbstractComponent<?> createComponent(ComponentConfiguration componentConfiguration) {
+        final HaID haID = componentConfiguration.getHaID();
         try {
             switch (haID.component) {
                 case "alarm_control_panel":
@@ -85,6 +104,7 @@ public class CFactory {
         private @Nullable TransformationServiceProvider transformationServiceProvider;
         private @Nullable ChannelStateUpdateListener updateListener;
         private Gson gson;
+        private HomeAssistantConfigIndex.@Nullable Entry entry;
 
         protected ComponentConfiguration(ThingUID thingUID, HaID haID, String configJSON, Gson gson) {
             this.thingUID = thingUID;
@@ -98,6 +118,11 @@ public class CFactory {
             return this;
         }
 
+        public ComponentConfiguration entry(HomeAssistantConfigIndex.Entry entry) {
+            this.entry = entry;
+            return this;
+        }
+
         public ComponentConfiguration transformationProvider(
                 TransformationServiceProvider transformationServiceProvider) {
             this.transformationServiceProvider = transformationServiceProvider;
@@ -131,6 +156,10 @@ public class CFactory {
         }
 
         public <C extends BaseChannelConfiguration> C getConfig(Class<C> clazz) {
+            final HomeAssistantConfigIndex.Entry entry = this.entry;
+            if (entry != null) {
+                return entry.getConfig(gson, clazz);
+            }
             return BaseChannelConfiguration.fromString(configJSON, gson, clazz);
         }
     }
@@ -25,6 +25,8 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
 import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex.ConfigListener;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex.Entry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,16 +35,20 @@ import com.google.gson.Gson;
 /**
  * Responsible for subscribing to the HomeAssistant MQTT components wildcard topic, either
  * in a time limited discovery mode or as a background discovery.
+ * <p>
+ * If a {@link HomeAssistantConfigIndex} is given, the configurations are taken from that shared index
+ * instead of subscribing to the wildcard topic.
  *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
-public class DiscoverComponents implements MqttMessageSubscriber {
+public class DiscoverComponents implements MqttMessageSubscriber, ConfigListener {
     private final Logger logger = LoggerFactory.getLogger(DiscoverComponents.class);
     private final ThingUID thingUID;
     private final ScheduledExecutorService scheduler;
     private final @Nullable ChannelStateUpdateListener updateListener;
     private final TransformationServiceProvider transformationServiceProvider;
+    private final @Nullable HomeAssistantConfigIndex configIndex;
 
     protected final CompletableFuture<@Nullable Void> discoverFinishedFuture = new CompletableFuture<>();
     private final Gson gson;
@@ -52,6 +58,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @NonNullByDefault({}) ComponentDiscovered discoveredListener;
     private int discoverTime;
     private String topic = "";
+    private HaID topicDescription = new HaID();
 
     /**
      * Implement this to get notified of new components
@@ -70,11 +77,27 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
             @Nullable ChannelStateUpdateListener channelStateUpdateListener, Gson gson,
             TransformationServiceProvider transformationServiceProvider) {
+        this(thingUID, scheduler, channelStateUpdateListener, gson, transformationServiceProvider, null);
+    }
+
+    /**
+     * Create a new discovery object.
+     *
+     * @param thingUID The Thing UID to perform the discovery for.
+     * @param scheduler A scheduler for timeouts
+     * @param channelStateUpdateListener Channel update listener. Usually the handler.
+     * @param configIndex The shared index of component configurations or null to subscribe directly.
+     */
+    public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
+            @Nullable ChannelStateUpdateListener channelStateUpdateListener, Gson gson,
+            TransformationServiceProvider transformationServiceProvider,
+            @Nullable HomeAssistantConfigIndex configIndex) {
         this.thingUID = thingUID;
         this.scheduler = scheduler;
         this.updateListener = channelStateUpdateListener;
         this.gson = gson;
         this.transformationServiceProvider = transformationServiceProvider;
+        this.configIndex = configIndex;
     }
 
     @Override
@@ -86,6 +109,17 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         String config = new String(payload);
         AbstractComponent<?> component = CFactory.createComponent(thingUID, haID, config, updateListener, gson,
                 transformationServiceProvider);
+        componentCreated(haID, config, component);
+    }
+
+    @Override
+    public void configReceived(Entry entry) {
+        AbstractComponent<?> component = CFactory.createComponent(thingUID, entry, updateListener, gson,
+                transformationServiceProvider);
+        componentCreated(entry.haID, entry.configJSON, component);
+    }
+
+    private void componentCreated(HaID haID, String config, @Nullable AbstractComponent<?> component) {
         if (component != null) {
             logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
             if (discoveredListener != null) {
@@ -118,12 +152,18 @@ public class DiscoverComponents implements MqttMessageSubscriber {
             HaID topicDescription, ComponentDiscovered componentsDiscoveredListener) {
 
         this.topic = topicDescription.getTopic("config");
+        this.topicDescription = topicDescription;
         this.discoverTime = discoverTime;
         this.discoveredListener = componentsDiscoveredListener;
         this.connectionRef = new WeakReference<>(connection);
 
-        // Subscribe to the wildcard topic and start receive MQTT retained topics
-        connection.subscribe(topic, this).thenRun(this::subscribeSuccess).exceptionally(this::subscribeFail);
+        // Subscribe to the wildcard topic and start receive MQTT retained topics.
+        // The shared index passes on already received configurations immediately.
+        final HomeAssistantConfigIndex configIndex = this.configIndex;
+        CompletableFuture<Boolean> subscribed = configIndex != null
+                ? configIndex.subscribe(connection, topicDescription, this)
+                : connection.subscribe(topic, this);
+        subscribed.thenRun(this::subscribeSuccess).exceptionally(this::subscribeFail);
 
         return discoverFinishedFuture;
     }
@@ -134,7 +174,7 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         if (connection != null && discoverTime > 0) {
             this.stopDiscoveryFuture = scheduler.schedule(() -> {
                 this.stopDiscoveryFuture = null;
-                connection.unsubscribe(topic, this);
+                unsubscribe(connection);
                 this.discoveredListener = null;
                 discoverFinishedFuture.complete(null);
             }, discoverTime, TimeUnit.MILLISECONDS);
@@ -153,13 +193,22 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         this.discoveredListener = null;
         final MqttBrokerConnection connection = connectionRef.get();
         if (connection != null) {
-            connection.unsubscribe(topic, this);
+            unsubscribe(connection);
             connectionRef.clear();
         }
         discoverFinishedFuture.completeExceptionally(e);
         return null;
     }
 
+    private void unsubscribe(MqttBrokerConnection connection) {
+        final HomeAssistantConfigIndex configIndex = this.configIndex;
+        if (configIndex != null) {
+            configIndex.unsubscribe(connection, topicDescription, this);
+        } else {
+            connection.unsubscribe(topic, this);
+        }
+    }
+
     /**
      * Stops an ongoing discovery or do nothing if no discovery is running.
      *
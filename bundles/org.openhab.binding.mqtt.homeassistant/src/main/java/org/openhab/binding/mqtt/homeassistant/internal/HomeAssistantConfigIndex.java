@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the retained HomeAssistant component configurations of a broker connection.
+ *
+ * <p>
+ * Only one subscription per broker connection and base topic is made for all config topics
+ * ("homeassistant/+/+/config" and "homeassistant/+/+/+/config"). Thing handlers register a {@link ConfigListener}
+ * for their object-id (and node-id) and immediately receive the already known configurations instead of
+ * subscribing on their own and waiting for the broker to replay the retained messages.
+ * </p>
+ *
+ * <p>
+ * Each configuration is only parsed once per configuration class and payload. Unchanged payloads are not passed on
+ * to the listeners again.
+ * </p>
+ *
+ * <p>
+ * Each connection index has its own lock. Listeners are called without holding any lock of the index, so a slow
+ * listener only delays the configurations of its own connection and listeners may call back into the index.
+ * </p>
+ *
+ * @author agent
+ */
+@Component(service = HomeAssistantConfigIndex.class)
+@NonNullByDefault
+public class HomeAssistantConfigIndex {
+    private final Logger logger = LoggerFactory.getLogger(HomeAssistantConfigIndex.class);
+
+    // Guarded by this. Lock order: this, then a ConnectionIndex
+    private final Map<MqttBrokerConnection, Map<String, ConnectionIndex>> indices = new HashMap<>();
+
+    /**
+     * Implement this to get notified of new and changed component configurations.
+     */
+    public static interface ConfigListener {
+        void configReceived(Entry entry);
+    }
+
+    /**
+     * A received component configuration.
+     */
+    public static class Entry {
+        public final HaID haID;
+        public final String configJSON;
+        private final Map<Class<?>, BaseChannelConfiguration> parsed = new ConcurrentHashMap<>();
+
+        public Entry(HaID haID, String configJSON) {
+            this.haID = haID;
+            this.configJSON = configJSON;
+        }
+
+        /**
+         * Parse the configuration into the given class. The result is cached, each class is parsed only once.
+         *
+         * @param gson A Gson instance
+         * @param clazz The configuration class
+         * @return configuration object
+         */
+        public <C extends BaseChannelConfiguration> C getConfig(Gson gson, Class<C> clazz) {
+            return clazz.cast(
+                    parsed.computeIfAbsent(clazz, c -> BaseChannelConfiguration.fromString(configJSON, gson, clazz)));
+        }
+
+        /**
+         * Parse only the base properties of the configuration. The result is cached.
+         *
+         * @param gson A Gson instance
+         * @return configuration object
+         */
+        public BaseChannelConfiguration getBaseConfig(Gson gson) {
+            return getConfig(gson, BaseChannelConfiguration.Config.class);
+        }
+    }
+
+    private static class Registration {
+        final HaID filter;
+        final ConfigListener listener;
+
+        Registration(HaID filter, ConfigListener listener) {
+            this.filter = filter;
+            this.listener = listener;
+        }
+
+        boolean matches(HaID haID) {
+            return filter.objectID.equals(haID.objectID) && filter.nodeID.equals(haID.nodeID);
+        }
+    }
+
+    /**
+     * The index of one broker connection and base topic.
+     */
+    private class ConnectionIndex implements MqttMessageSubscriber {
+        final String[] topics;
+        // Guarded by this ConnectionIndex
+        final Map<String, Entry> entries = new HashMap<>();
+        final List<Registration> registrations = new ArrayList<>();
+        final CompletableFuture<Boolean> subscribed;
+        final MqttBrokerConnection connection;
+
+        ConnectionIndex(MqttBrokerConnection connection, String baseTopic) {
+            this.connection = connection;
+            this.topics = new String[] { baseTopic + "/+/+/config", baseTopic + "/+/+/+/config" };
+            this.subscribed = connection.subscribe(topics[0], this)
+                    .thenCombine(connection.subscribe(topics[1], this), (a, b) -> a && b);
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            final Entry entry;
+            final List<ConfigListener> receivers = new ArrayList<>();
+            synchronized (this) {
+                if (payload.length == 0) {
+                    entries.remove(topic);
+                    return;
+                }
+                String configJSON = new String(payload, StandardCharsets.UTF_8);
+                Entry known = entries.get(topic);
+                if (known != null && known.configJSON.equals(configJSON)) {
+                    return;
+                }
+                final HaID haID;
+                try {
+                    haID = new HaID(topic);
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Ignoring HomeAssistant config topic {}: {}", topic, e.getMessage());
+                    return;
+                }
+                entry = new Entry(haID, configJSON);
+                entries.put(topic, entry);
+                for (Registration registration : registrations) {
+                    if (registration.matches(haID)) {
+                        receivers.add(registration.listener);
+                    }
+                }
+            }
+            receivers.forEach(listener -> deliver(listener, entry));
+        }
+
+        void stop() {
+            for (String topic : topics) {
+                connection.unsubscribe(topic, this);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for the configurations of the given object-id and node-id. The listener immediately
+     * receives all known configurations of that object.
+     *
+     * @param connection A broker connection
+     * @param haID The base topic, object-id and node-id of the configurations. The component is not considered.
+     * @param listener The listener
+     * @return A future that completes with true as soon as the config topics are subscribed,
+     *         with false or exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> subscribe(MqttBrokerConnection connection, HaID haID,
+            ConfigListener listener) {
+        final Registration registration = new Registration(haID, listener);
+        final List<Entry> known = new ArrayList<>();
+        final ConnectionIndex index;
+        synchronized (this) {
+            index = indices.computeIfAbsent(connection, c -> new HashMap<>()).computeIfAbsent(haID.baseTopic,
+                    baseTopic -> new ConnectionIndex(connection, baseTopic));
+            synchronized (index) {
+                index.registrations.add(registration);
+                for (Entry entry : index.entries.values()) {
+                    if (registration.matches(entry.haID)) {
+                        known.add(entry);
+                    }
+                }
+            }
+        }
+        known.forEach(entry -> deliver(listener, entry));
+        return index.subscribed;
+    }
+
+    /**
+     * Removes a listener. The config topics are unsubscribed as soon as the last listener of a connection
+     * and base topic is removed.
+     *
+     * @param connection A broker connection
+     * @param haID The same HaID that was used for subscribing
+     * @param listener The listener
+     */
+    public synchronized void unsubscribe(MqttBrokerConnection connection, HaID haID, ConfigListener listener) {
+        Map<String, ConnectionIndex> perBaseTopic = indices.get(connection);
+        if (perBaseTopic == null) {
+            return;
+        }
+        ConnectionIndex index = perBaseTopic.get(haID.baseTopic);
+        if (index == null) {
+            return;
+        }
+        final boolean unused;
+        synchronized (index) {
+            index.registrations.removeIf(r -> r.listener == listener);
+            unused = index.registrations.isEmpty();
+        }
+        if (unused) {
+            perBaseTopic.remove(haID.baseTopic);
+            index.stop();
+        }
+        if (perBaseTopic.isEmpty()) {
+            indices.remove(connection);
+        }
+    }
+
+    /**
+     * Returns the known configuration of the given config topic, if its payload is still the given one.
+     *
+     * @param connection A broker connection
+     * @param topic A config topic like "homeassistant/switch/0/object/config"
+     * @param configJSON The current payload of the topic
+     * @return The entry or null if the topic is not known or has a different payload.
+     */
+    public synchronized @Nullable Entry get(MqttBrokerConnection connection, String topic, String configJSON) {
+        Map<String, ConnectionIndex> perBaseTopic = indices.get(connection);
+        if (perBaseTopic == null) {
+            return null;
+        }
+        int baseTopicEnd = topic.indexOf('/');
+        ConnectionIndex index = baseTopicEnd < 0 ? null : perBaseTopic.get(topic.substring(0, baseTopicEnd));
+        if (index == null) {
+            return null;
+        }
+        final Entry entry;
+        synchronized (index) {
+            entry = index.entries.get(topic);
+        }
+        return entry != null && entry.configJSON.equals(configJSON) ? entry : null;
+    }
+
+    private void deliver(ConfigListener listener, Entry entry) {
+        try {
+            listener.configReceived(entry);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to process HomeAssistant configuration {}", entry.haID, e);
+        }
+    }
+}
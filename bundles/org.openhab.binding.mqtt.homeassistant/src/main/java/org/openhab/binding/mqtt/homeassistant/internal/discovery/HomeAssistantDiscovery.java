@@ -36,6 +36,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.BaseChannelConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
@@ -93,6 +94,18 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         this.mqttTopicDiscovery = null;
     }
 
+    @NonNullByDefault({})
+    protected HomeAssistantConfigIndex configIndex;
+
+    @Reference
+    public void setConfigIndex(HomeAssistantConfigIndex configIndex) {
+        this.configIndex = configIndex;
+    }
+
+    public void unsetConfigIndex(@Nullable HomeAssistantConfigIndex configIndex) {
+        this.configIndex = null;
+    }
+
     @Override
     protected MQTTTopicDiscoveryService getDiscoveryService() {
         return mqttTopicDiscovery;
@@ -157,8 +170,14 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         final String componentNames = components.stream().map(c -> HA_COMP_TO_NAME.getOrDefault(c, c))
                 .collect(Collectors.joining(","));
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        // Reuse the configuration already parsed for the thing handlers, if any
+        final String configJSON = new String(payload, StandardCharsets.UTF_8);
+        final HomeAssistantConfigIndex configIndex = this.configIndex;
+        final HomeAssistantConfigIndex.Entry entry = configIndex != null
+                ? configIndex.get(connection, topic, configJSON)
+                : null;
+        BaseChannelConfiguration config = entry != null ? entry.getBaseConfig(gson)
+                : BaseChannelConfiguration.fromString(configJSON, gson);
 
         Map<String, Object> properties = new HashMap<>();
         HandlerConfiguration handlerConfig = topicParts.toHandlerConfiguration();
@@ -44,6 +44,7 @@ import org.openhab.binding.mqtt.homeassistant.internal.ChannelConfigurationTypeA
 import org.openhab.binding.mqtt.homeassistant.internal.DiscoverComponents;
 import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex;
 import org.openhab.binding.mqtt.homeassistant.internal.DiscoverComponents.ComponentDiscovered;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,14 +98,33 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
     public HomeAssistantThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
             TransformationServiceProvider transformationServiceProvider, int subscribeTimeout,
             int attributeReceiveTimeout) {
+        this(thing, channelTypeProvider, transformationServiceProvider, subscribeTimeout, attributeReceiveTimeout,
+                null);
+    }
+
+    /**
+     * Create a new thing handler for HomeAssistant MQTT components, which takes the component configurations
+     * from a shared index instead of subscribing to them.
+     *
+     * @param thing The thing of this handler
+     * @param channelTypeProvider A channel type provider
+     * @param subscribeTimeout Timeout for the entire tree parsing and subscription. In milliseconds.
+     * @param attributeReceiveTimeout The timeout per attribute field subscription. In milliseconds.
+     * @param configIndex The shared index of component configurations or null
+     */
+    public HomeAssistantThingHandler(Thing thing, MqttChannelTypeProvider channelTypeProvider,
+            TransformationServiceProvider transformationServiceProvider, int subscribeTimeout,
+            int attributeReceiveTimeout, @Nullable HomeAssistantConfigIndex configIndex) {
         super(thing, subscribeTimeout);
         this.gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
+        // Only the latest configuration of a component is of interest
+        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, Integer.MAX_VALUE,
+                component -> component.uid().getId(), this, scheduler);
         this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, gson,
-                this.transformationServiceProvider);
+                this.transformationServiceProvider, configIndex);
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex.ConfigListener;
+import org.openhab.binding.mqtt.homeassistant.internal.HomeAssistantConfigIndex.Entry;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests cases for {@link HomeAssistantConfigIndex}.
+ *
+ * @author agent
+ */
+public class HomeAssistantConfigIndexTests {
+    private static final String CONFIG = "{\"name\":\"Garden\",\"state_topic\":\"garden/state\"}";
+
+    @Mock
+    MqttBrokerConnection connection;
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory())
+            .create();
+    private final HomeAssistantConfigIndex subject = new HomeAssistantConfigIndex();
+    private final List<Entry> received = new ArrayList<>();
+    private final List<Entry> receivedOther = new ArrayList<>();
+    private final ConfigListener listener = received::add;
+    private final ConfigListener otherListener = receivedOther::add;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+    }
+
+    private static HaID thing(String objectID) {
+        return HaID.fromConfig(new HandlerConfiguration("homeassistant", objectID));
+    }
+
+    private MqttMessageSubscriber subscribeAndCaptureIndex() {
+        subject.subscribe(connection, thing("garden"), listener);
+        ArgumentCaptor<MqttMessageSubscriber> captor = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(connection).subscribe(eq("homeassistant/+/+/config"), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void subscribesOncePerConnection() {
+        subscribeAndCaptureIndex();
+        subject.subscribe(connection, thing("other"), otherListener);
+
+        verify(connection, times(1)).subscribe(eq("homeassistant/+/+/config"), any());
+        verify(connection, times(1)).subscribe(eq("homeassistant/+/+/+/config"), any());
+
+        subject.unsubscribe(connection, thing("garden"), listener);
+        verify(connection, never()).unsubscribe(any(), any());
+    }
+
+    @Test
+    public void routesAndReplaysConfigurations() {
+        MqttMessageSubscriber index = subscribeAndCaptureIndex();
+
+        index.processMessage("homeassistant/switch/garden/config", CONFIG.getBytes());
+        index.processMessage("homeassistant/switch/other/config", CONFIG.getBytes());
+        index.processMessage("homeassistant/light/node/garden/config", CONFIG.getBytes());
+        assertThat(received.size(), is(1));
+        assertThat(received.get(0).haID.component, is("switch"));
+
+        // A late listener gets the known configurations immediately
+        subject.subscribe(connection, thing("other"), otherListener);
+        assertThat(receivedOther.size(), is(1));
+        assertThat(receivedOther.get(0).haID.objectID, is("other"));
+    }
+
+    @Test
+    public void unchangedConfigurationIsNotPassedOnAgain() {
+        MqttMessageSubscriber index = subscribeAndCaptureIndex();
+
+        index.processMessage("homeassistant/switch/garden/config", CONFIG.getBytes());
+        index.processMessage("homeassistant/switch/garden/config", CONFIG.getBytes());
+        assertThat(received.size(), is(1));
+
+        index.processMessage("homeassistant/switch/garden/config", "{\"name\":\"Changed\"}".getBytes());
+        assertThat(received.size(), is(2));
+
+        // An empty payload removes the configuration
+        index.processMessage("homeassistant/switch/garden/config", new byte[0]);
+        assertThat(subject.get(connection, "homeassistant/switch/garden/config", "{\"name\":\"Changed\"}"),
+                is(nullValue()));
+    }
+
+    @Test
+    public void configurationIsParsedOnce() {
+        MqttMessageSubscriber index = subscribeAndCaptureIndex();
+        index.processMessage("homeassistant/switch/garden/config", CONFIG.getBytes());
+
+        Entry entry = subject.get(connection, "homeassistant/switch/garden/config", CONFIG);
+        assertThat(entry, is(received.get(0)));
+        assertThat(entry.getBaseConfig(gson).name, is("Garden"));
+        assertThat(entry.getBaseConfig(gson), is(sameInstance(entry.getBaseConfig(gson))));
+        assertThat(entry.getConfig(gson, ComponentSwitch.ChannelConfiguration.class),
+                is(sameInstance(entry.getConfig(gson, ComponentSwitch.ChannelConfiguration.class))));
+    }
+
+    @Test
+    public void lastListenerUnsubscribes() {
+        MqttMessageSubscriber index = subscribeAndCaptureIndex();
+        index.processMessage("homeassistant/switch/garden/config", CONFIG.getBytes());
+
+        subject.unsubscribe(connection, thing("garden"), listener);
+        verify(connection).unsubscribe(eq("homeassistant/+/+/config"), eq(index));
+        verify(connection).unsubscribe(eq("homeassistant/+/+/+/config"), eq(index));
+        assertThat(subject.get(connection, "homeassistant/switch/garden/config", CONFIG), is(nullValue()));
+    }
+
+    @Test
+    public void listenersAreCalledWithoutHoldingALock() {
+        MqttMessageSubscriber index = subscribeAndCaptureIndex();
+        index.processMessage("homeassistant/switch/other/config", CONFIG.getBytes());
+
+        List<Boolean> lockHeld = new ArrayList<>();
+        ConfigListener reentrant = entry -> {
+            lockHeld.add(Thread.holdsLock(subject) || Thread.holdsLock(index));
+            // calling back into the index from a listener must not deadlock
+            subject.get(connection, "homeassistant/switch/other/config", CONFIG);
+            subject.unsubscribe(connection, thing("other"), otherListener);
+        };
+        subject.subscribe(connection, thing("other"), reentrant);
+        index.processMessage("homeassistant/switch/other/config", "{\"name\":\"Changed\"}".getBytes());
+
+        assertThat(lockHeld, is(Arrays.asList(false, false)));
+    }
+}
@@ -76,7 +76,9 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
         this.channelTypeProvider = channelTypeProvider;
         this.subscribeTimeout = subscribeTimeout;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, this, scheduler);
+        // The batch only triggers a refresh of all channels. Each changed node or property is queued once.
+        this.delayedProcessing = new DelayedBatchProcessing<>(subscribeTimeout, Integer.MAX_VALUE, object -> object,
+                this, scheduler);
         this.device = new Device(this.thing.getUID(), this, new DeviceAttributes());
     }
 
@@ -100,7 +102,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Object ID unknown");
             return;
         }
-        device.initialize(config.basetopic, config.deviceid, thing.getChannels());
+        device.initialize(config.basetopic, config.deviceid, thing.getChannels(), config.wildcardsubscription);
         super.initialize();
     }
 
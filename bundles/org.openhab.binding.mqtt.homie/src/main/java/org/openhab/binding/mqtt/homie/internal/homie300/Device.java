@@ -27,6 +27,7 @@ import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +63,8 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    // Single subscription to all topics of this device, if enabled
+    private @Nullable WildcardSubscription wildcardSubscription;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -111,7 +114,15 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        final WildcardSubscription wildcardSubscription = this.wildcardSubscription;
+        final CompletableFuture<@Nullable Void> attributesFuture;
+        if (wildcardSubscription != null) {
+            attributesFuture = wildcardSubscription.start(connection).thenCompose(b -> attributes
+                    .subscribeAndReceive(connection, scheduler, topic, this, timeout, wildcardSubscription));
+        } else {
+            attributesFuture = attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout);
+        }
+        return attributesFuture
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -168,8 +179,21 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
+        final CompletableFuture<@Nullable Void> stopped = attributes.unsubscribe().thenCompose(
                 b -> CompletableFuture.allOf(nodes.stream().map(n -> n.stop()).toArray(CompletableFuture[]::new)));
+        final WildcardSubscription wildcardSubscription = this.wildcardSubscription;
+        if (wildcardSubscription == null) {
+            return stopped;
+        }
+        return stopped.thenCompose(b -> wildcardSubscription.stop()).thenRun(() -> {
+        });
+    }
+
+    /**
+     * Returns the wildcard subscription to all topics of this device, or null if every topic is subscribed on its own.
+     */
+    public @Nullable WildcardSubscription getWildcardSubscription() {
+        return wildcardSubscription;
     }
 
     /**
@@ -191,10 +215,22 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      *
      * @param channels
      */
-    @SuppressWarnings({ "null", "unused" })
     public void initialize(String baseTopic, String deviceID, List<Channel> channels) {
+        initialize(baseTopic, deviceID, channels, false);
+    }
+
+    /**
+     * Restore Nodes and Properties from Thing channels after handler initalization.
+     *
+     * @param channels
+     * @param wildcardSubscription If true, subscribe once to all topics of the device ("basetopic/deviceid/#")
+     *            instead of subscribing each attribute and property topic on its own.
+     */
+    @SuppressWarnings({ "null", "unused" })
+    public void initialize(String baseTopic, String deviceID, List<Channel> channels, boolean wildcardSubscription) {
         this.topic = baseTopic + "/" + deviceID;
         this.deviceID = deviceID;
+        this.wildcardSubscription = wildcardSubscription ? new WildcardSubscription(topic) : null;
         nodes.clear();
         for (Channel channel : channels) {
             final String nodeID = channel.getUID().getGroupId();
@@ -228,7 +264,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A child node
      */
     public Node createNode(String nodeID) {
-        return new Node(topic, nodeID, thingUID, callback, new NodeAttributes());
+        return createNode(nodeID, new NodeAttributes());
     }
 
     /**
@@ -239,7 +275,9 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A child node
      */
     public Node createNode(String nodeID, NodeAttributes attributes) {
-        return new Node(topic, nodeID, thingUID, callback, attributes);
+        Node node = new Node(topic, nodeID, thingUID, callback, attributes);
+        node.wildcardSubscription = wildcardSubscription;
+        return node;
     }
 
     /**
@@ -36,4 +36,8 @@ public class HandlerConfiguration {
      * Indicates if retained topics should be removed when the Thing is deleted.
      */
     public boolean removetopics = false;
+    /**
+     * Subscribe once to all topics of the device instead of subscribing each attribute and property on its own.
+     */
+    public boolean wildcardsubscription = false;
 }
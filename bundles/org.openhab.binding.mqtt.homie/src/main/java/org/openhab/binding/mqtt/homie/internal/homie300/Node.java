@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.thing.type.ChannelGroupTypeUID;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,9 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
     public final ChannelGroupTypeUID channelGroupTypeUID;
     private final String topic;
     private boolean initialized = false;
+    // Set by the device if all device topics are received via a single wildcard subscription
+    @Nullable
+    WildcardSubscription wildcardSubscription;
 
     /**
      * Creates a Homie Node.
@@ -83,7 +87,7 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout, wildcardSubscription)
                 // On success, create all properties and tell the handler about this node
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -36,6 +36,7 @@ import org.openhab.binding.mqtt.generic.ChannelConfigBuilder;
 import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass.AttributeChanged;
+import org.openhab.binding.mqtt.generic.tools.WildcardSubscription;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
@@ -98,7 +99,8 @@ public class Property implements AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout,
+                parentNode.wildcardSubscription)
                 // On success, create the channel and tell the handler about this property
                 .thenRun(this::attributesReceived)
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -264,6 +266,10 @@ public class Property implements AttributeChanged {
         }
         // Make sure we set the callback again which might have been nulled during an stop
         channelState.setChannelStateUpdateListener(this.callback);
+        final WildcardSubscription wildcardSubscription = parentNode.wildcardSubscription;
+        if (wildcardSubscription != null) {
+            return channelState.start(connection, scheduler, timeout, wildcardSubscription);
+        }
         return channelState.start(connection, scheduler, timeout);
     }
 
@@ -50,7 +50,7 @@ public class HomieChildMapTests {
     private Node createNode(String id) {
         Node node = new Node(deviceTopic, id, ThingChannelConstants.testHomieThing, callback,
                 spy(new NodeAttributes()));
-        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt(), any());
         doReturn(future).when(node.attributes).unsubscribe();
         return node;
     }
@@ -213,12 +213,13 @@ public class HomieThingHandlerTests {
     public void handleCommandRefresh() {
         // Create mocked homie device tree with one node and one read-only property
         Node node = thingHandler.device.createNode("node", spy(new NodeAttributes()));
-        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt(), any());
         doReturn(future).when(node.attributes).unsubscribe();
         node.attributes.name = "testnode";
 
         Property property = node.createProperty("property", spy(new PropertyAttributes()));
-        doReturn(future).when(property.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(property.attributes).subscribeAndReceive(any(), any(), anyString(), any(),
+                anyInt(), any());
         doReturn(future).when(property.attributes).unsubscribe();
         property.attributes.name = "testprop";
         property.attributes.datatype = DataTypeEnum.string_;
@@ -239,12 +240,13 @@ public class HomieThingHandlerTests {
     public void handleCommandUpdate() {
         // Create mocked homie device tree with one node and one writable property
         Node node = thingHandler.device.createNode("node", spy(new NodeAttributes()));
-        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt(), any());
         doReturn(future).when(node.attributes).unsubscribe();
         node.attributes.name = "testnode";
 
         Property property = node.createProperty("property", spy(new PropertyAttributes()));
-        doReturn(future).when(property.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(property.attributes).subscribeAndReceive(any(), any(), anyString(), any(),
+                anyInt(), any());
         doReturn(future).when(property.attributes).unsubscribe();
         property.attributes.name = "testprop";
         property.attributes.datatype = DataTypeEnum.string_;
@@ -305,7 +307,7 @@ public class HomieThingHandlerTests {
     public Node createSpyNode(String propertyID, Device device) {
         // Create the node
         Node node = spy(device.createNode("node", spy(new NodeAttributes())));
-        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt());
+        doReturn(future).when(node.attributes).subscribeAndReceive(any(), any(), anyString(), any(), anyInt(), any());
         doReturn(future).when(node.attributes).unsubscribe();
         node.attributes.name = "testnode";
         node.attributes.properties = new String[] { "property" };
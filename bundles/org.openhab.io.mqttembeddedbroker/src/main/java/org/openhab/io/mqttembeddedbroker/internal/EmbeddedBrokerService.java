@@ -85,6 +85,9 @@ public class EmbeddedBrokerService
         implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private @Nullable MqttService service;
     private String persistenceFilename = "";
+    private int persistenceFlushInterval = 30;
+    private @Nullable Integer maxMessageSize;
+    private @Nullable Integer connectionBacklog;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
     @NonNullByDefault({})
@@ -181,13 +184,19 @@ public class EmbeddedBrokerService
             if (!Paths.get(persistenceFilename).isAbsolute()) {
                 this.persistenceFilename = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath()
                         .resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {}", this.persistenceFilename);
         } else {
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
+        persistenceFlushInterval = config.persistenceFlushInterval;
+        maxMessageSize = config.maxMessageSize;
+        connectionBacklog = config.connectionBacklog;
+
         // Start embedded server
         startEmbeddedServer(port, config.secure, config.username, config.password);
     }
@@ -294,7 +303,18 @@ public class EmbeddedBrokerService
 
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME,
+                    Integer.toString(persistenceFlushInterval)); // in seconds
+        }
+
+        // Tuning. The number of Netty worker threads and the inflight window are fixed in Moquette.
+        final Integer maxMessageSize = this.maxMessageSize;
+        if (maxMessageSize != null) {
+            properties.put(BrokerConstants.NETTY_MAX_BYTES_PROPERTY_NAME, maxMessageSize.toString());
+        }
+        final Integer connectionBacklog = this.connectionBacklog;
+        if (connectionBacklog != null) {
+            properties.put(BrokerConstants.NETTY_SO_BACKLOG_PROPERTY_NAME, connectionBacklog.toString());
         }
 
         // We may provide ACL functionality at some point as well
@@ -25,6 +25,13 @@ public class ServiceConfiguration {
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    /** Interval in seconds in which the persistence file is written */
+    public Integer persistenceFlushInterval = 30;
+
+    /** Maximum size of a message in bytes. Uses the broker default if not set. */
+    public @Nullable Integer maxMessageSize;
+    /** Queue length of incoming connections. Uses the broker default if not set. */
+    public @Nullable Integer connectionBacklog;
 
     public @Nullable String username;
     public @Nullable String password;
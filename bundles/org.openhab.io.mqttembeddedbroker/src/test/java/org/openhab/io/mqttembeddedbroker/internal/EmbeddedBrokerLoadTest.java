@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test harness for the embedded broker. A number of local clients connect to the broker. Each client
+ * subscribes to the state topic of the next client and publishes messages to its own state topic.
+ * Throughput and the latency from publishing to receiving are reported.
+ * <p>
+ * The test is skipped unless the <code>loadtest</code> system property is set. To size a broker, run with for
+ * example:
+ *
+ * <pre>
+ * mvn test -Dtest=EmbeddedBrokerLoadTest -Dloadtest -Dloadtest.clients=5000 -Dloadtest.messages=20 -Dloadtest.qos=1
+ * </pre>
+ *
+ * @author agent
+ */
+public class EmbeddedBrokerLoadTest {
+    private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerLoadTest.class);
+
+    private final int clientCount = Integer.getInteger("loadtest.clients", 10);
+    private final int messagesPerClient = Integer.getInteger("loadtest.messages", 50);
+    private final int qos = Integer.getInteger("loadtest.qos", 0);
+    private final int payloadSize = Integer.getInteger("loadtest.payload", 64);
+    private final int timeoutSeconds = Integer.getInteger("loadtest.timeout", 60);
+
+    private EmbeddedBrokerService subject;
+    private int port;
+    private final List<MqttBrokerConnection> clients = new ArrayList<>();
+
+    /**
+     * Result of a load test run
+     */
+    static class Result {
+        final int received;
+        final long elapsedNanos;
+        final long[] latenciesNanos;
+
+        Result(int received, long elapsedNanos, long[] latenciesNanos) {
+            this.received = received;
+            this.elapsedNanos = elapsedNanos;
+            this.latenciesNanos = latenciesNanos;
+            Arrays.sort(this.latenciesNanos);
+        }
+
+        double messagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : received * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @param percentile A value between 0 and 100
+         * @return The latency in microseconds below which the given percentage of the messages have been received
+         */
+        long latencyMicros(double percentile) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latenciesNanos.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(latenciesNanos[Math.max(0, index)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d messages in %d ms: %.0f msgs/s, latency p50 %d us, p99 %d us, max %d us",
+                    received, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), messagesPerSecond(), latencyMicros(50),
+                    latencyMicros(99), latencyMicros(100));
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("Load test, run with -Dloadtest", System.getProperty("loadtest") != null);
+
+        // Use a free port, so that the test does not collide with a running broker
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        subject = new EmbeddedBrokerService();
+        subject.startEmbeddedServer(port, false, null, null);
+    }
+
+    @After
+    public void cleanUp() throws InterruptedException, ExecutionException, TimeoutException {
+        for (MqttBrokerConnection client : clients) {
+            client.stop().get(5, TimeUnit.SECONDS);
+        }
+        if (subject != null) {
+            subject.stopEmbeddedServer();
+        }
+    }
+
+    @Test
+    public void publishAndSubscribe() throws Exception {
+        Result result = run(clientCount, messagesPerClient, qos, payloadSize);
+        logger.info("Embedded broker load test with {} clients, {} messages each, qos {}: {}", clientCount,
+                messagesPerClient, qos, result);
+
+        assertThat(result.received, is(clientCount * messagesPerClient));
+        assertTrue(result.messagesPerSecond() > 0);
+    }
+
+    private Result run(int clientCount, int messagesPerClient, int qos, int payloadSize) throws Exception {
+        final int expected = clientCount * messagesPerClient;
+        final long[] latencies = new long[expected];
+        final AtomicInteger received = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(expected);
+
+        MqttMessageSubscriber subscriber = (topic, payload) -> {
+            long latency = System.nanoTime() - ByteBuffer.wrap(payload).getLong();
+            int index = received.getAndIncrement();
+            if (index < expected) {
+                latencies[index] = latency;
+            }
+            done.countDown();
+        };
+
+        // Connect all clients and subscribe each one to the state topic of the next client
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < clientCount; ++i) {
+            MqttBrokerConnection client = new MqttBrokerConnection(Protocol.TCP, "127.0.0.1", port, false,
+                    "loadtest" + i);
+            client.setQos(qos);
+            clients.add(client);
+            futures.add(client.start());
+        }
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue("Client could not connect", future.get(timeoutSeconds, TimeUnit.SECONDS));
+        }
+        futures.clear();
+        for (int i = 0; i < clientCount; ++i) {
+            futures.add(clients.get(i).subscribe(stateTopic((i + 1) % clientCount), subscriber));
+        }
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue("Client could not subscribe", future.get(timeoutSeconds, TimeUnit.SECONDS));
+        }
+
+        // Publish round-robin, so that all clients are busy at the same time
+        final long start = System.nanoTime();
+        for (int m = 0; m < messagesPerClient; ++m) {
+            for (int i = 0; i < clientCount; ++i) {
+                ByteBuffer payload = ByteBuffer.allocate(Math.max(Long.BYTES, payloadSize));
+                payload.putLong(System.nanoTime());
+                clients.get(i).publish(stateTopic(i), payload.array(), qos, false);
+            }
+        }
+        done.await(timeoutSeconds, TimeUnit.SECONDS);
+        final long elapsed = System.nanoTime() - start;
+
+        int count = Math.min(received.get(), expected);
+        return new Result(count, elapsed, Arrays.copyOf(latencies, count));
+    }
+
+    private static String stateTopic(int client) {
+        return "loadtest/" + client + "/state";
+    }
+}
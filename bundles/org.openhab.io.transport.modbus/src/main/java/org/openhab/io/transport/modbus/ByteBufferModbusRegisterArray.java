@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Implementation of {@link ModbusRegisterArray} backed by the register bytes of a response.
+ *
+ * Typed values are read in place from the buffer, without creating {@link ModbusRegister} objects or temporary
+ * arrays. Registers are big-endian (most significant byte first), as on the wire.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class ByteBufferModbusRegisterArray implements ModbusRegisterArray {
+
+    private class RegisterReference implements ModbusRegister {
+
+        private final int index;
+
+        public RegisterReference(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return new byte[] { buffer.get(2 * index), buffer.get(2 * index + 1) };
+        }
+
+        @Override
+        public int getValue() {
+            return getInt16(index);
+        }
+
+        @Override
+        public int toUnsignedShort() {
+            return getUint16(index);
+        }
+
+        @Override
+        public String toString() {
+            StringBuffer buffer = new StringBuffer("ModbusRegisterImpl(");
+            buffer.append("uint16=").append(toUnsignedShort()).append(", hex=");
+            return appendHexString(buffer).append(')').toString();
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    /**
+     * Construct register array from the remaining bytes of the buffer
+     *
+     * The bytes are not copied, the buffer must not be modified afterwards. Position, limit and byte order of the
+     * given buffer are not changed.
+     *
+     * @param buffer register bytes, two bytes per register
+     * @throws IllegalArgumentException if the number of remaining bytes is odd
+     */
+    public ByteBufferModbusRegisterArray(ByteBuffer buffer) {
+        if (buffer.remaining() % 2 != 0) {
+            throw new IllegalArgumentException(
+                    String.format("Odd number of bytes (%d) cannot be registers", buffer.remaining()));
+        }
+        this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        this.size = this.buffer.remaining() / 2;
+    }
+
+    /**
+     * Construct register array from bytes
+     *
+     * The bytes are not copied, the array must not be modified afterwards.
+     *
+     * @param bytes register bytes, two bytes per register
+     * @param offset offset of the first register
+     * @param length number of bytes
+     * @throws IllegalArgumentException if length is odd
+     * @throws IndexOutOfBoundsException if offset and length are out of bounds of the array
+     */
+    public ByteBufferModbusRegisterArray(byte[] bytes, int offset, int length) {
+        this(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Returns a view of a range of the registers. The bytes are not copied.
+     *
+     * @param index index of the first register of the view
+     * @param length number of registers of the view
+     * @return register array sharing the bytes of this array
+     * @throws IndexOutOfBoundsException if the range is out of bounds of this array
+     */
+    public ByteBufferModbusRegisterArray slice(int index, int length) {
+        checkIndex(index, length);
+        ByteBuffer view = buffer.duplicate();
+        view.limit(2 * (index + length)).position(2 * index);
+        return new ByteBufferModbusRegisterArray(view);
+    }
+
+    @Override
+    public ModbusRegister getRegister(int index) {
+        checkIndex(index, 1);
+        return new RegisterReference(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getUint16(int index) {
+        checkIndex(index, 1);
+        return buffer.getShort(2 * index) & 0xffff;
+    }
+
+    @Override
+    public short getInt16(int index) {
+        checkIndex(index, 1);
+        return buffer.getShort(2 * index);
+    }
+
+    @Override
+    public int getInt32(int index) {
+        checkIndex(index, 2);
+        return buffer.getInt(2 * index);
+    }
+
+    @Override
+    public float getFloat32(int index) {
+        checkIndex(index, 2);
+        return buffer.getFloat(2 * index);
+    }
+
+    @Override
+    public long getInt64(int index) {
+        checkIndex(index, 4);
+        return buffer.getLong(2 * index);
+    }
+
+    @Override
+    public String getString(int index, int length, Charset charset) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative string length is not supported");
+        }
+        if (index < 0 || 2 * index + length > 2 * size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index=%d with length=%d is out-of-bounds given registers of size %d", index,
+                            length, size));
+        }
+        int start = 2 * index;
+        int end = start;
+        while (end < start + length && buffer.get(end) != 0) {
+            end++;
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, charset);
+        }
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, charset);
+    }
+
+    @Override
+    public StringBuffer appendHexString(StringBuffer buffer) {
+        for (int i = 0; i < 2 * size; i++) {
+            int b = this.buffer.get(i) & 0xff;
+            if (b < 0x10) {
+                buffer.append('0');
+            }
+            buffer.append(Integer.toHexString(b));
+            if (i < 2 * size - 1) {
+                buffer.append(' ');
+            }
+        }
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "ByteBufferModbusRegisterArray(<empty>)";
+        }
+        StringBuffer buffer = new StringBuffer(size * 6).append("ByteBufferModbusRegisterArray(");
+        return appendHexString(buffer).append(')').toString();
+    }
+
+    private void checkIndex(int index, int registerCount) {
+        if (index < 0 || index + registerCount > size) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Index=%d with %d registers is out-of-bounds given registers of size %d", index, registerCount,
+                    size));
+        }
+    }
+}
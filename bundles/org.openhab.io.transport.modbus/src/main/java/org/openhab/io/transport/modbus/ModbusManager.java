@@ -13,10 +13,11 @@
 package org.openhab.io.transport.modbus;
 
 import java.util.Set;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Future;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.EndpointMetrics;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 
@@ -35,7 +36,7 @@ public interface ModbusManager {
      * @param task
      * @return future representing the polled task
      */
-    public ScheduledFuture<?> submitOneTimePoll(PollTask task);
+    public Future<?> submitOneTimePoll(PollTask task);
 
     /**
      * Register regularly polled task. The method returns immediately, and the execution of the poll task will happen in
@@ -62,7 +63,7 @@ public interface ModbusManager {
      * @param task
      * @return future representing the task
      */
-    public ScheduledFuture<?> submitOneTimeWrite(WriteTask task);
+    public Future<?> submitOneTimeWrite(WriteTask task);
 
     /**
      * Configure general connection settings with a given endpoint
@@ -83,6 +84,16 @@ public interface ModbusManager {
      */
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint);
 
+    /**
+     * Get connection and transaction statistics of a given endpoint
+     *
+     * The statistics are collected since the activation of the manager.
+     *
+     * @param endpoint endpoint to query
+     * @return statistics of the endpoint, or null if the manager is not active
+     */
+    public @Nullable EndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint);
+
     /**
      * Register listener for changes
      *
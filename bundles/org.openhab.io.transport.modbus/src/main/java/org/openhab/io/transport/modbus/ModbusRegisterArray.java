@@ -12,6 +12,7 @@
  */
 package org.openhab.io.transport.modbus;
 
+import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.stream.IntStream;
 
@@ -42,6 +43,162 @@ public interface ModbusRegisterArray extends Iterable<ModbusRegister> {
      */
     int size();
 
+    /**
+     * Return register at the given index as unsigned 16 bit integer
+     *
+     * @param index the index of the register
+     * @return the register content as unsigned integer
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    default int getUint16(int index) {
+        return getRegister(index).toUnsignedShort();
+    }
+
+    /**
+     * Return register at the given index as signed 16 bit integer
+     *
+     * @param index the index of the register
+     * @return the register content as signed integer
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    default short getInt16(int index) {
+        return (short) getUint16(index);
+    }
+
+    /**
+     * Return registers (index) and (index + 1) as signed 32 bit integer, first register containing the most
+     * significant 16 bits
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default int getInt32(int index) {
+        return (getUint16(index) << 16) | getUint16(index + 1);
+    }
+
+    /**
+     * Same as {@link #getInt32(int)} but registers swapped, that is, second register contains the most significant 16
+     * bits
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default int getInt32Swap(int index) {
+        return (getUint16(index + 1) << 16) | getUint16(index);
+    }
+
+    /**
+     * Same as {@link #getInt32(int)} except value is interpreted as unsigned integer
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getUint32(int index) {
+        return getInt32(index) & 0xffffffffL;
+    }
+
+    /**
+     * Same as {@link #getInt32Swap(int)} except value is interpreted as unsigned integer
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getUint32Swap(int index) {
+        return getInt32Swap(index) & 0xffffffffL;
+    }
+
+    /**
+     * Return registers (index) and (index + 1) as 32 bit floating point number, first register containing the most
+     * significant 16 bits
+     *
+     * @param index the index of the first register
+     * @return the value, possibly NaN or infinite
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default float getFloat32(int index) {
+        return Float.intBitsToFloat(getInt32(index));
+    }
+
+    /**
+     * Same as {@link #getFloat32(int)} but registers swapped
+     *
+     * @param index the index of the first register
+     * @return the value, possibly NaN or infinite
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default float getFloat32Swap(int index) {
+        return Float.intBitsToFloat(getInt32Swap(index));
+    }
+
+    /**
+     * Return registers (index), (index + 1), (index + 2), (index + 3) as signed 64 bit integer, first register
+     * containing the most significant 16 bits
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getInt64(int index) {
+        return ((long) getInt32(index) << 32) | (getInt32(index + 2) & 0xffffffffL);
+    }
+
+    /**
+     * Same as {@link #getInt64(int)} but registers swapped, that is, registers (index + 3), (index + 2), (index + 1),
+     * (index) are interpreted as signed 64 bit integer
+     *
+     * @param index the index of the first register
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getInt64Swap(int index) {
+        return ((long) getInt32Swap(index + 2) << 32) | (getInt32Swap(index) & 0xffffffffL);
+    }
+
+    /**
+     * Same as {@link #getInt64(int)} except value is to be interpreted as unsigned integer, for example with
+     * {@link Long#toUnsignedString(long)}
+     *
+     * @param index the index of the first register
+     * @return the 64 bits of the registers
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getUint64(int index) {
+        return getInt64(index);
+    }
+
+    /**
+     * Same as {@link #getInt64Swap(int)} except value is to be interpreted as unsigned integer, for example with
+     * {@link Long#toUnsignedString(long)}
+     *
+     * @param index the index of the first register
+     * @return the 64 bits of the registers
+     * @throws IndexOutOfBoundsException if the registers are out of bounds.
+     */
+    default long getUint64Swap(int index) {
+        return getInt64Swap(index);
+    }
+
+    /**
+     * Return string starting from the high byte of the register at the given index. Reading stops after
+     * <code>length</code> bytes or at the first NUL byte.
+     *
+     * @param index the index of the first register
+     * @param length maximum length of string in bytes
+     * @param charset the character set used to decode the bytes
+     * @throws IndexOutOfBoundsException if the bytes are out of bounds.
+     */
+    default String getString(int index, int length, Charset charset) {
+        byte[] buff = new byte[length];
+        int dest;
+        for (dest = 0; dest < length; dest++) {
+            int word = getUint16(index + dest / 2);
+            byte chr = (byte) (dest % 2 == 0 ? word >> 8 : word);
+            if (chr == 0) {
+                break;
+            }
+            buff[dest] = chr;
+        }
+        return new String(buff, 0, dest, charset);
+    }
+
     /**
      * Iterator over all the registers
      */
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.endpoint;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Connection and transaction statistics of a single endpoint
+ *
+ * The statistics are collected from the start of the manager. Counters are cheap to update from the threads executing
+ * the operations, and can be read at any time.
+ *
+ * The current inter-transaction delay of the endpoint is stored here as well, when adaptive inter-transaction delay is
+ * enabled (see {@link EndpointPoolConfiguration}).
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class EndpointMetrics {
+
+    /**
+     * Upper bounds (inclusive) of the transaction latency histogram buckets, in milliseconds. The last bucket has no
+     * upper bound.
+     */
+    private static final long[] LATENCY_BUCKET_UPPER_BOUNDS_MILLIS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000 };
+
+    private final ModbusSlaveEndpoint endpoint;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder borrowWaitMillis = new LongAdder();
+    private final AtomicLong maxBorrowWaitMillis = new AtomicLong();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder transactionMillis = new LongAdder();
+    private final LongAdder[] latencyHistogram = new LongAdder[LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+    private final Map<Integer, LongAdder> slaveExceptions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger cleanTransactionsInRow = new AtomicInteger();
+    /**
+     * Current adaptive inter-transaction delay, or negative if it has not been adapted yet
+     */
+    private final AtomicLong interTransactionDelayMillis = new AtomicLong(-1);
+
+    public EndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        this.endpoint = endpoint;
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record connection borrowed from the pool
+     *
+     * @param waitMillis time it took to get the connection, including connecting and waiting for the
+     *            inter-transaction delay
+     */
+    public void recordBorrow(long waitMillis) {
+        borrows.increment();
+        borrowWaitMillis.add(waitMillis);
+        maxBorrowWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    /**
+     * Record connection established
+     */
+    public void recordConnect() {
+        connects.increment();
+    }
+
+    /**
+     * Record failed connection attempt
+     */
+    public void recordConnectFailure() {
+        connectFailures.increment();
+    }
+
+    /**
+     * Record transaction which received a response from the slave, also exception responses
+     *
+     * @param millis duration of the transaction
+     */
+    public void recordTransaction(long millis) {
+        transactions.increment();
+        transactionMillis.add(millis);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length
+                && millis > LATENCY_BUCKET_UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        latencyHistogram[bucket].increment();
+    }
+
+    /**
+     * Record transaction which timed out waiting for the response
+     */
+    public void recordTimeout() {
+        timeouts.increment();
+        cleanTransactionsInRow.set(0);
+    }
+
+    /**
+     * Record transaction which failed with other I/O error than timeout
+     */
+    public void recordIOError() {
+        ioErrors.increment();
+        cleanTransactionsInRow.set(0);
+    }
+
+    /**
+     * Record exception response from the slave
+     *
+     * @param exceptionCode Modbus exception code
+     */
+    public void recordSlaveException(int exceptionCode) {
+        slaveExceptions.computeIfAbsent(exceptionCode, code -> new LongAdder()).increment();
+        cleanTransactionsInRow.set(0);
+    }
+
+    /**
+     * Record transaction with a valid response
+     *
+     * @return number of successful transactions in row, including this one
+     */
+    public int recordCleanTransaction() {
+        return cleanTransactionsInRow.incrementAndGet();
+    }
+
+    /**
+     * Start counting successful transactions in row from zero
+     */
+    public void resetCleanTransactions() {
+        cleanTransactionsInRow.set(0);
+    }
+
+    /**
+     * @return current adaptive inter-transaction delay, or negative value if it has not been adapted yet
+     */
+    public long getInterTransactionDelayMillis() {
+        return interTransactionDelayMillis.get();
+    }
+
+    public void setInterTransactionDelayMillis(long interTransactionDelayMillis) {
+        this.interTransactionDelayMillis.set(interTransactionDelayMillis);
+    }
+
+    /**
+     * @return number of connections borrowed from the pool
+     */
+    public long getBorrowCount() {
+        return borrows.sum();
+    }
+
+    /**
+     * @return total time waited for connections from the pool
+     */
+    public long getBorrowWaitMillis() {
+        return borrowWaitMillis.sum();
+    }
+
+    /**
+     * @return longest time waited for a connection from the pool
+     */
+    public long getMaxBorrowWaitMillis() {
+        return maxBorrowWaitMillis.get();
+    }
+
+    /**
+     * @return number of connections established
+     */
+    public long getConnectCount() {
+        return connects.sum();
+    }
+
+    /**
+     * @return number of failed connection attempts
+     */
+    public long getConnectFailureCount() {
+        return connectFailures.sum();
+    }
+
+    /**
+     * @return number of transactions which received a response
+     */
+    public long getTransactionCount() {
+        return transactions.sum();
+    }
+
+    /**
+     * @return total duration of the transactions which received a response
+     */
+    public long getTransactionMillis() {
+        return transactionMillis.sum();
+    }
+
+    /**
+     * @return upper bounds of the latency histogram buckets in milliseconds, the last bucket having no upper bound
+     */
+    public static long[] getLatencyBucketUpperBoundsMillis() {
+        return LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * @return number of transactions per latency bucket, see {@link #getLatencyBucketUpperBoundsMillis()}
+     */
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[latencyHistogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = latencyHistogram[i].sum();
+        }
+        return histogram;
+    }
+
+    /**
+     * @return number of transactions which timed out
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return number of transactions which failed with other I/O errors than timeouts
+     */
+    public long getIOErrorCount() {
+        return ioErrors.sum();
+    }
+
+    /**
+     * @return number of exception responses per Modbus exception code
+     */
+    public Map<Integer, Long> getSlaveExceptionCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        slaveExceptions.forEach((code, count) -> counts.put(code, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder histogram = new StringBuilder();
+        long[] counts = getLatencyHistogram();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) {
+                histogram.append(", ");
+            }
+            histogram.append(i < LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length
+                    ? "<=" + LATENCY_BUCKET_UPPER_BOUNDS_MILLIS[i]
+                    : ">" + LATENCY_BUCKET_UPPER_BOUNDS_MILLIS[i - 1]).append(": ").append(counts[i]);
+        }
+        return String.format(
+                "{endpoint: %s, borrows: %d, borrow wait: %d ms (max %d ms), connects: %d (failed %d), transactions: %d (%d ms), latency ms: {%s}, timeouts: %d, I/O errors: %d, slave exceptions: %s, adaptive delay: %d ms}",
+                endpoint, getBorrowCount(), getBorrowWaitMillis(), getMaxBorrowWaitMillis(), getConnectCount(),
+                getConnectFailureCount(), getTransactionCount(), getTransactionMillis(), histogram, getTimeoutCount(),
+                getIOErrorCount(), getSlaveExceptionCounts(), getInterTransactionDelayMillis());
+    }
+}
@@ -37,6 +37,17 @@ public class EndpointPoolConfiguration {
      */
     private long interTransactionDelayMillis;
 
+    /**
+     * Whether the delay between transactions is lowered while the endpoint answers without errors. The delay is
+     * raised back towards interTransactionDelayMillis on timeouts and when the slave reports to be busy.
+     */
+    private boolean adaptiveInterTransactionDelay;
+
+    /**
+     * Lowest delay between transactions with adaptive inter-transaction delay. In milliseconds.
+     */
+    private long minInterTransactionDelayMillis;
+
     /**
      * How long should be the minimum duration between connection-establishments from the pool (with same endpoint). In
      * milliseconds.
@@ -61,6 +72,11 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Whether regular polls of adjacent register ranges with the same poll period are read with a single request.
+     */
+    private boolean mergePolls;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -99,6 +115,22 @@ public class EndpointPoolConfiguration {
         this.interTransactionDelayMillis = interTransactionDelayMillis;
     }
 
+    public boolean isAdaptiveInterTransactionDelay() {
+        return adaptiveInterTransactionDelay;
+    }
+
+    public void setAdaptiveInterTransactionDelay(boolean adaptiveInterTransactionDelay) {
+        this.adaptiveInterTransactionDelay = adaptiveInterTransactionDelay;
+    }
+
+    public long getMinInterTransactionDelayMillis() {
+        return minInterTransactionDelayMillis;
+    }
+
+    public void setMinInterTransactionDelayMillis(long minInterTransactionDelayMillis) {
+        this.minInterTransactionDelayMillis = minInterTransactionDelayMillis;
+    }
+
     public int getConnectTimeoutMillis() {
         return connectTimeoutMillis;
     }
@@ -107,10 +139,20 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public boolean isMergePolls() {
+        return mergePolls;
+    }
+
+    public void setMergePolls(boolean mergePolls) {
+        this.mergePolls = mergePolls;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(adaptiveInterTransactionDelay).append(minInterTransactionDelayMillis).append(mergePolls)
+                .toHashCode();
     }
 
     @Override
@@ -119,7 +161,10 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("adaptiveInterTransactionDelay", adaptiveInterTransactionDelay)
+                .append("minInterTransactionDelayMillis", minInterTransactionDelayMillis)
+                .append("mergePolls", mergePolls).toString();
     }
 
     @Override
@@ -137,7 +182,10 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(adaptiveInterTransactionDelay, rhs.adaptiveInterTransactionDelay)
+                .append(minInterTransactionDelayMillis, rhs.minInterTransactionDelayMillis)
+                .append(mergePolls, rhs.mergePolls).isEquals();
     }
 
 }
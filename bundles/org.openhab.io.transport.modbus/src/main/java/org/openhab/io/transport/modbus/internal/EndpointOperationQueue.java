@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the operations of a single endpoint
+ *
+ * Operations are executed one at a time, in order of priority: writes first, then one-off polls and last regular
+ * polls. Operations of the same priority are executed in submission order. Queued operations are executed by a single
+ * task of the executor, which runs as long as there are operations in the queue. This way the executor threads do not
+ * block waiting for the connection of a busy endpoint.
+ *
+ * Regular polls are not queued again while previous execution of the same poll is queued or running, nor when the
+ * queue is full. They are repeated anyway on the next poll period.
+ *
+ * The idle callback is called each time the queue runs empty, so that the owner can release queues of endpoints which
+ * are not used anymore.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class EndpointOperationQueue {
+
+    /**
+     * Priority of queued operations, in order of execution
+     */
+    public enum Priority {
+        WRITE,
+        ONE_TIME_POLL,
+        REGULAR_POLL
+    }
+
+    /**
+     * Operation waiting for execution. Can be canceled while waiting.
+     */
+    public static class QueuedOperation extends FutureTask<@Nullable Void> {
+        private final Priority priority;
+        private final TaskWithEndpoint<?, ?> task;
+        private final AggregateStopWatch timer;
+        private long sequence;
+
+        /**
+         * Construct queued operation
+         *
+         * @param priority priority of the operation
+         * @param task task to execute
+         * @param operation execution of the task, given timer for profiling
+         */
+        public QueuedOperation(Priority priority, TaskWithEndpoint<?, ?> task, Consumer<AggregateStopWatch> operation) {
+            this(priority, task, operation, new AggregateStopWatch());
+        }
+
+        private QueuedOperation(Priority priority, TaskWithEndpoint<?, ?> task,
+                Consumer<AggregateStopWatch> operation, AggregateStopWatch timer) {
+            super(() -> operation.accept(timer), null);
+            this.priority = priority;
+            this.task = task;
+            this.timer = timer;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public TaskWithEndpoint<?, ?> getTask() {
+            return task;
+        }
+    }
+
+    /**
+     * Order of execution: by priority, then in submission order
+     */
+    private static final Comparator<QueuedOperation> EXECUTION_ORDER = Comparator
+            .comparing((QueuedOperation operation) -> operation.priority)
+            .thenComparingLong(operation -> operation.sequence);
+
+    private final Logger logger = LoggerFactory.getLogger(EndpointOperationQueue.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final Executor executor;
+    private final int capacity;
+    private final Consumer<EndpointOperationQueue> idleCallback;
+
+    /**
+     * Queued operations. Submitting and draining are synchronized on this, so that the pending polls and the draining
+     * flag stay consistent with the queue.
+     */
+    private final PriorityBlockingQueue<QueuedOperation> queue = new PriorityBlockingQueue<>(16, EXECUTION_ORDER);
+    /**
+     * Regular polls that are queued or running
+     */
+    private final Set<PollTask> pendingPolls = new HashSet<>();
+    private boolean draining;
+    private long nextSequence;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder skippedPolls = new LongAdder();
+    private final LongAdder queueWaitMillis = new LongAdder();
+    private final LongAdder transactionMillis = new LongAdder();
+    private final AtomicLong maxQueueWaitMillis = new AtomicLong();
+
+    /**
+     * Construct queue
+     *
+     * @param endpoint endpoint of the queued operations
+     * @param executor executor to run the operations with
+     * @param capacity number of queued operations after which regular polls are skipped
+     */
+    public EndpointOperationQueue(ModbusSlaveEndpoint endpoint, Executor executor, int capacity) {
+        this(endpoint, executor, capacity, queue -> {
+        });
+    }
+
+    /**
+     * Construct queue
+     *
+     * @param endpoint endpoint of the queued operations
+     * @param executor executor to run the operations with
+     * @param capacity number of queued operations after which regular polls are skipped
+     * @param idleCallback called with this queue after the last queued operation has been executed
+     */
+    public EndpointOperationQueue(ModbusSlaveEndpoint endpoint, Executor executor, int capacity,
+            Consumer<EndpointOperationQueue> idleCallback) {
+        this.endpoint = endpoint;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.idleCallback = idleCallback;
+    }
+
+    /**
+     * Queue operation for execution
+     *
+     * @param operation operation to queue
+     * @return whether the operation was queued. Regular polls are not queued when previous execution of the same poll
+     *         is pending, or when the queue is full. Other operations are always queued.
+     */
+    public boolean submit(QueuedOperation operation) {
+        boolean startDraining = false;
+        synchronized (this) {
+            if (operation.priority == Priority.REGULAR_POLL) {
+                PollTask task = (PollTask) operation.task;
+                if (pendingPolls.contains(task) || queue.size() >= capacity) {
+                    skippedPolls.increment();
+                    logger.debug("Skipping regular poll {}: {} (queue size {})", task,
+                            pendingPolls.contains(task) ? "previous poll still pending" : "queue full", queue.size());
+                    return false;
+                }
+                pendingPolls.add(task);
+            } else if (queue.size() >= capacity) {
+                logger.warn("Many ({}) operations queued for endpoint {}! Slave might be too slow for the poll rate.",
+                        queue.size(), endpoint);
+            }
+            operation.sequence = nextSequence++;
+            operation.timer.queue.resume();
+            queue.add(operation);
+            if (!draining) {
+                draining = true;
+                startDraining = true;
+            }
+        }
+        if (startDraining) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void drain() {
+        while (true) {
+            QueuedOperation operation;
+            synchronized (this) {
+                operation = queue.poll();
+                if (operation == null) {
+                    draining = false;
+                }
+            }
+            if (operation == null) {
+                idleCallback.accept(this);
+                return;
+            }
+            AggregateStopWatch timer = operation.timer;
+            try {
+                timer.queue.suspend();
+                if (!operation.isCancelled()) {
+                    operation.run();
+                }
+            } catch (RuntimeException e) {
+                // FutureTask catches the errors of the operation, but never let one error stop the queue
+                logger.error("Unexpected error when executing {}: {} {}", operation.task, e.getClass().getName(),
+                        e.getMessage(), e);
+            } finally {
+                // Clear the interrupt of possible cancel(true), it should not affect the next operation
+                Thread.interrupted();
+                synchronized (this) {
+                    if (operation.priority == Priority.REGULAR_POLL) {
+                        pendingPolls.remove(operation.task);
+                    }
+                }
+                long waited = timer.queue.getTotalTimeMillis();
+                executed.increment();
+                queueWaitMillis.add(waited);
+                transactionMillis.add(timer.transaction.getTotalTimeMillis());
+                maxQueueWaitMillis.accumulateAndGet(waited, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Cancel all queued operations
+     */
+    public void clear() {
+        List<QueuedOperation> canceled;
+        synchronized (this) {
+            canceled = new ArrayList<>(queue);
+            queue.clear();
+            pendingPolls.clear();
+        }
+        canceled.forEach(operation -> operation.cancel(false));
+    }
+
+    /**
+     * @return endpoint of the queued operations
+     */
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return whether no operation is queued or running
+     */
+    public synchronized boolean isIdle() {
+        return queue.isEmpty() && !draining;
+    }
+
+    /**
+     * @return number of queued operations, not including the running operation
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return number of executed operations
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return number of regular polls skipped since previous execution was pending or the queue was full
+     */
+    public long getSkippedPollCount() {
+        return skippedPolls.sum();
+    }
+
+    /**
+     * @return total time the executed operations waited in the queue
+     */
+    public long getQueueWaitMillis() {
+        return queueWaitMillis.sum();
+    }
+
+    /**
+     * @return longest time an executed operation waited in the queue
+     */
+    public long getMaxQueueWaitMillis() {
+        return maxQueueWaitMillis.get();
+    }
+
+    /**
+     * @return total time of the transactions of the executed operations
+     */
+    public long getTransactionMillis() {
+        return transactionMillis.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{endpoint: %s, queued: %d, executed: %d, skipped polls: %d, queue wait: %d ms (max %d ms), transaction: %d ms}",
+                endpoint, size(), getExecutedCount(), getSkippedPollCount(), getQueueWaitMillis(),
+                getMaxQueueWaitMillis(), getTransactionMillis());
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ByteBufferModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusSlaveErrorResponseException;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Poll task reading the register (or bit) ranges of several poll tasks with a single request
+ *
+ * All merged tasks share the endpoint, unit id and function code, and their ranges overlap or are adjacent. The
+ * response is sliced and passed to the callback of each merged task which is still registered. Errors are passed to
+ * all of them, except for explicit exception responses from the slave: those are passed to the split handler, since
+ * the slave might reject the merged request only because it covers registers that none of the tasks would read alone.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class MergedPollTask implements PollTask {
+
+    /**
+     * Maximum number of registers in a single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request, as defined by the Modbus specification
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MergedPollTask.class);
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final BasicModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private final Predicate<PollTask> registered;
+    private final Consumer<MergedPollTask> splitHandler;
+    private final ModbusReadCallback callback = new FanOutCallback();
+    private volatile boolean canceled;
+
+    /**
+     * Construct merged task
+     *
+     * @param request request covering the ranges of all tasks
+     * @param tasks the merged tasks, all having the same endpoint
+     * @param registered tells whether a task is still registered and should receive responses
+     * @param splitHandler called when the slave responds with exception response to the merged request
+     */
+    public MergedPollTask(BasicModbusReadRequestBlueprint request, List<PollTask> tasks,
+            Predicate<PollTask> registered, Consumer<MergedPollTask> splitHandler) {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("No tasks to merge");
+        }
+        this.endpoint = tasks.get(0).getEndpoint();
+        this.request = request;
+        this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+        this.registered = registered;
+        this.splitHandler = splitHandler;
+    }
+
+    /**
+     * Merge poll tasks reading the same endpoint into as few requests as possible
+     *
+     * Tasks are merged when they have the same unit id and function code, and their ranges overlap or are adjacent,
+     * as long as the merged range does not exceed the maximum allowed by the protocol. Tasks which cannot be merged
+     * with any other task are returned as single element lists.
+     *
+     * @param tasks tasks to merge, all having the same endpoint
+     * @return groups of tasks, each group readable with a single request
+     */
+    public static List<List<PollTask>> plan(Collection<PollTask> tasks) {
+        Map<String, List<PollTask>> byUnitAndFunctionCode = new LinkedHashMap<>();
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            byUnitAndFunctionCode
+                    .computeIfAbsent(request.getUnitID() + "/" + request.getFunctionCode(), key -> new ArrayList<>())
+                    .add(task);
+        }
+
+        List<List<PollTask>> groups = new ArrayList<>();
+        for (List<PollTask> candidates : byUnitAndFunctionCode.values()) {
+            candidates.sort(Comparator.comparingInt((PollTask task) -> task.getRequest().getReference())
+                    .thenComparingInt(task -> task.getRequest().getDataLength()));
+            int maxLength = maxDataLength(candidates.get(0).getRequest().getFunctionCode());
+            List<PollTask> group = new ArrayList<>();
+            int start = 0;
+            int end = 0;
+            for (PollTask task : candidates) {
+                int taskStart = task.getRequest().getReference();
+                int taskEnd = taskStart + task.getRequest().getDataLength();
+                if (!group.isEmpty() && taskStart <= end && Math.max(end, taskEnd) - start <= maxLength) {
+                    group.add(task);
+                    end = Math.max(end, taskEnd);
+                } else {
+                    if (!group.isEmpty()) {
+                        groups.add(group);
+                    }
+                    group = new ArrayList<>();
+                    group.add(task);
+                    start = taskStart;
+                    end = taskEnd;
+                }
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Construct request covering the ranges of all the given tasks
+     *
+     * @param tasks tasks with the same unit id and function code
+     * @return request covering all the ranges, tried as many times as the task with most tries
+     */
+    public static BasicModbusReadRequestBlueprint mergeRequests(List<PollTask> tasks) {
+        ModbusReadRequestBlueprint first = tasks.get(0).getRequest();
+        int start = Integer.MAX_VALUE;
+        int end = Integer.MIN_VALUE;
+        int maxTries = 1;
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint request = task.getRequest();
+            start = Math.min(start, request.getReference());
+            end = Math.max(end, request.getReference() + request.getDataLength());
+            maxTries = Math.max(maxTries, request.getMaxTries());
+        }
+        return new BasicModbusReadRequestBlueprint(first.getUnitID(), first.getFunctionCode(), start, end - start,
+                maxTries);
+    }
+
+    private static int maxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_REQUEST;
+            default:
+                return MAX_REGISTERS_PER_REQUEST;
+        }
+    }
+
+    /**
+     * Get the merged tasks
+     *
+     * @return unmodifiable list of tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Mark this task as replaced, it should not be executed anymore
+     */
+    public void cancel() {
+        canceled = true;
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+    /**
+     * Callback slicing the merged response for each of the merged tasks
+     */
+    private class FanOutCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint mergedRequest, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback == null || !registered.test(task)) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - mergedRequest.getReference();
+                int length = Math.max(0, Math.min(taskRequest.getDataLength(), registers.size() - offset));
+                ModbusRegisterArray slice = slice(registers, offset, length);
+                invoke(task, () -> taskCallback.onRegisters(taskRequest, slice));
+            }
+        }
+
+        /**
+         * Returns the registers of one task, as a view of the response bytes if possible
+         */
+        private ModbusRegisterArray slice(ModbusRegisterArray registers, int offset, int length) {
+            if (registers instanceof ByteBufferModbusRegisterArray) {
+                return ((ByteBufferModbusRegisterArray) registers).slice(Math.min(offset, registers.size()), length);
+            }
+            ModbusRegister[] slice = new ModbusRegister[length];
+            for (int i = 0; i < length; i++) {
+                slice[i] = registers.getRegister(offset + i);
+            }
+            return new BasicModbusRegisterArray(slice);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint mergedRequest, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback == null || !registered.test(task)) {
+                    continue;
+                }
+                ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                int offset = taskRequest.getReference() - mergedRequest.getReference();
+                int length = Math.max(0, Math.min(taskRequest.getDataLength(), bits.size() - offset));
+                BasicBitArray slice = new BasicBitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                invoke(task, () -> taskCallback.onBits(taskRequest, slice));
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint mergedRequest, Exception error) {
+            if (error instanceof ModbusSlaveErrorResponseException) {
+                logger.debug("Slave responded with exception response to merged request {}, splitting {}",
+                        mergedRequest, MergedPollTask.this);
+                splitHandler.accept(MergedPollTask.this);
+                return;
+            }
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback == null || !registered.test(task)) {
+                    continue;
+                }
+                invoke(task, () -> taskCallback.onError(task.getRequest(), error));
+            }
+        }
+
+        private void invoke(PollTask task, Runnable runnable) {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                // Do not let one failing callback prevent the others from receiving the data
+                logger.error("Callback of poll task {} failed: {} {}", task, e.getClass().getName(), e.getMessage(),
+                        e);
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.stream.IntStream;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ByteBufferModbusRegisterArray;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
@@ -58,6 +59,7 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
 import net.wimpi.modbus.net.SerialConnection;
 import net.wimpi.modbus.net.TCPMasterConnection;
 import net.wimpi.modbus.net.UDPMasterConnection;
+import net.wimpi.modbus.procimg.InputRegister;
 import net.wimpi.modbus.procimg.Register;
 import net.wimpi.modbus.procimg.SimpleInputRegister;
 import net.wimpi.modbus.util.BitVector;
@@ -251,10 +253,28 @@ public class ModbusLibraryWrapper {
      * @return
      */
     public static Register[] convertRegisters(ModbusRegisterArray arr) {
-        return IntStream.range(0, arr.size()).mapToObj(i -> new SimpleInputRegister(arr.getRegister(i).getValue()))
+        return IntStream.range(0, arr.size()).mapToObj(i -> new SimpleInputRegister(arr.getInt16(i)))
                 .collect(Collectors.toList()).toArray(new Register[0]);
     }
 
+    /**
+     * Convert array of {@link InputRegister} to {@link ModbusRegisterArray}
+     *
+     * The register words are copied once to a single buffer. Typed values are read from the buffer in place.
+     *
+     * @param registers registers of the response
+     * @return registers as {@link ModbusRegisterArray}
+     */
+    public static ModbusRegisterArray convertInputRegisters(InputRegister[] registers) {
+        byte[] bytes = new byte[registers.length * 2];
+        for (int i = 0; i < registers.length; i++) {
+            int value = registers[i].toUnsignedShort();
+            bytes[2 * i] = (byte) (value >> 8);
+            bytes[2 * i + 1] = (byte) value;
+        }
+        return new ByteBufferModbusRegisterArray(bytes, 0, bytes.length);
+    }
+
     /**
      * Invoke callback with the data received
      *
@@ -280,11 +300,11 @@ public class ModbusLibraryWrapper {
                 callback.onBits(message,
                         new BitArrayWrappingBitVector(bits, Math.min(bits.size(), message.getDataLength())));
             } else if (message.getFunctionCode() == ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS) {
-                callback.onRegisters(message, new RegisterArrayWrappingInputRegister(
-                        ((ReadMultipleRegistersResponse) response).getRegisters()));
+                callback.onRegisters(message,
+                        convertInputRegisters(((ReadMultipleRegistersResponse) response).getRegisters()));
             } else if (message.getFunctionCode() == ModbusReadFunctionCode.READ_INPUT_REGISTERS) {
                 callback.onRegisters(message,
-                        new RegisterArrayWrappingInputRegister(((ReadInputRegistersResponse) response).getRegisters()));
+                        convertInputRegisters(((ReadInputRegistersResponse) response).getRegisters()));
             } else {
                 throw new IllegalArgumentException(
                         String.format("Unexpected function code %s", message.getFunctionCode()));
@@ -13,13 +13,23 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -48,12 +58,15 @@ import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
 import org.openhab.io.transport.modbus.PollTask;
 import org.openhab.io.transport.modbus.TaskWithEndpoint;
 import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.EndpointMetrics;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
 import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.Priority;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.QueuedOperation;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -77,6 +90,9 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  * important with serial slaves but practice has shown that even many tcp slaves have limited
  * capability to handle many connections at the same time
  *
+ * Operations are queued per endpoint (see {@link EndpointOperationQueue}) such that writes and one-off polls are
+ * executed before regular polls waiting for the same endpoint.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
@@ -206,6 +222,54 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Key of regular polls which are executed together, i.e. polls of the same endpoint with the same period
+     */
+    private static class PollGroupKey {
+        private final ModbusSlaveEndpoint endpoint;
+        private final long pollPeriodMillis;
+
+        PollGroupKey(ModbusSlaveEndpoint endpoint, long pollPeriodMillis) {
+            this.endpoint = endpoint;
+            this.pollPeriodMillis = pollPeriodMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, pollPeriodMillis);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            PollGroupKey other = (PollGroupKey) obj;
+            return pollPeriodMillis == other.pollPeriodMillis && endpoint.equals(other.endpoint);
+        }
+    }
+
+    /**
+     * Regular polls of the same endpoint with the same period
+     */
+    private static class PollGroup {
+        /**
+         * Registered poll tasks of the group
+         */
+        private final Set<PollTask> tasks = new LinkedHashSet<>();
+        /**
+         * Tasks that should not be merged since the slave rejected the merged request
+         */
+        private final Set<PollTask> unmergeable = new HashSet<>();
+        /**
+         * Scheduled polls, either registered tasks or {@link MergedPollTask}s
+         */
+        private final Map<PollTask, ScheduledFuture<?>> scheduled = new HashMap<>();
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusManagerImpl.class);
     private final Logger pollMonitorLogger = LoggerFactory
             .getLogger(ModbusManagerImpl.class.getName() + ".PollMonitor");
@@ -247,7 +311,15 @@ public class ModbusManagerImpl implements ModbusManager {
      * Presumably slow callbacks can increase queue size with callbackThreadPool
      */
     private static final long WARN_QUEUE_SIZE = 500;
+    /**
+     * Regular polls are skipped while this many operations are waiting for an endpoint
+     */
+    private static final int MAX_QUEUED_OPERATIONS_PER_ENDPOINT = 100;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
+    /**
+     * Modbus exception code of slave which is busy processing a long-duration command
+     */
+    private static final int SLAVE_DEVICE_BUSY_EXCEPTION_CODE = 6;
 
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
@@ -268,11 +340,28 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Regular polls grouped by endpoint and poll period. Polls of the same group are merged into single requests when
+     * enabled for the endpoint (see {@link EndpointPoolConfiguration#isMergePolls()}) and possible. Guarded by this.
+     */
+    private final Map<PollGroupKey, PollGroup> pollGroups = new HashMap<>();
+    /**
+     * Poll group of each registered regular poll. Guarded by this.
+     */
+    private final Map<PollTask, PollGroupKey> pollGroupKeys = new HashMap<>();
+    /**
+     * Number of registered regular polls per endpoint. Operation queues of endpoints with registered polls are kept.
+     */
+    private final Map<ModbusSlaveEndpoint, Integer> registeredPollCounts = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
     @Nullable
     private volatile ScheduledExecutorService scheduledThreadPoolExecutor;
+    /**
+     * Queues of operations waiting for execution, per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointOperationQueue> operationQueues = new ConcurrentHashMap<>();
     private volatile Collection<ModbusManagerListener> listeners = new CopyOnWriteArraySet<>();
     @Nullable
     private volatile ScheduledFuture<?> monitorFuture;
@@ -340,6 +429,10 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.warn("Error getting a new connection for endpoint {}. Error was: {} {}", endpoint,
                     e.getClass().getName(), e.getMessage());
         }
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory != null) {
+            connectionFactory.getEndpointMetrics(endpoint).recordBorrow(System.currentTimeMillis() - start);
+        }
         if (connection.isPresent()) {
             ModbusSlaveConnection slaveConnection = connection.get();
             if (!slaveConnection.isConnected()) {
@@ -467,8 +560,35 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Record I/O error of a transaction. Timeouts make the adaptive inter-transaction delay back off.
+     *
+     * jamod reports read timeouts as {@link ModbusIOException} with "timeout" in the message, or with
+     * {@link InterruptedIOException} (e.g. {@link java.net.SocketTimeoutException}) as the cause.
+     */
+    private static void recordIOError(ModbusSlaveConnectionFactoryImpl connectionFactory, EndpointMetrics metrics,
+            ModbusSlaveEndpoint endpoint, Exception error) {
+        boolean timeout = false;
+        @Nullable
+        Throwable cause = error;
+        while (cause != null && !timeout) {
+            String message = cause.getMessage();
+            timeout = cause instanceof InterruptedIOException
+                    || (message != null && message.toLowerCase(Locale.ROOT).contains("timeout"));
+            cause = cause.getCause();
+        }
+        if (timeout) {
+            metrics.recordTimeout();
+            connectionFactory.transactionBackOff(endpoint);
+        } else {
+            metrics.recordIOError();
+        }
+    }
+
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        boolean registered = task instanceof MergedPollTask ? !((MergedPollTask) task).isCanceled()
+                : this.scheduledPollTasks.containsKey(task);
+        if (!registered) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -485,13 +605,13 @@ public class ModbusManagerImpl implements ModbusManager {
      *
      * With some other connection types, the operation is retried without reseting the connection type.
      *
+     * @param timer aggregate stop watch for performance profiling
      * @param task
      * @param oneOffTask
      * @param operation
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperation(
-            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
-        AggregateStopWatch timer = new AggregateStopWatch();
+            AggregateStopWatch timer, @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
         timer.total.resume();
         String operationId = timer.operationId;
 
@@ -511,6 +631,7 @@ public class ModbusManagerImpl implements ModbusManager {
         AtomicReference<@Nullable Exception> lastError = new AtomicReference<>();
         long retryDelay = Optional.ofNullable(connectionFactory.getEndpointPoolConfiguration(endpoint))
                 .map(cfg -> cfg.getInterTransactionDelayMillis()).orElse(0L);
+        EndpointMetrics metrics = connectionFactory.getEndpointMetrics(endpoint);
 
         if (maxTries <= 0) {
             throw new IllegalArgumentException("maxTries should be positive");
@@ -569,14 +690,18 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Sleep ended, slept {} [operation ID {}]", slept, operationId);
 
                 boolean willRetry = false;
+                long transactionMillisBefore = timer.transaction.getTotalTimeMillis();
                 try {
                     tryIndex++;
                     willRetry = tryIndex < maxTries;
                     operation.accept(timer, task, connection.get());
                     lastError.set(null);
+                    metrics.recordTransaction(timer.transaction.getTotalTimeMillis() - transactionMillisBefore);
+                    connectionFactory.transactionSucceeded(endpoint);
                     break;
                 } catch (IOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordIOError(connectionFactory, metrics, endpoint, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -594,6 +719,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusIOException e) {
                     lastError.set(new ModbusSlaveIOExceptionImpl(e));
+                    recordIOError(connectionFactory, metrics, endpoint, e);
                     // IO exception occurred, we re-establish new connection hoping it would fix the issue (e.g.
                     // broken pipe on write)
                     if (willRetry) {
@@ -611,6 +737,11 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusSlaveException e) {
                     lastError.set(new ModbusSlaveErrorResponseExceptionImpl(e));
+                    metrics.recordTransaction(timer.transaction.getTotalTimeMillis() - transactionMillisBefore);
+                    metrics.recordSlaveException(e.getType());
+                    if (e.getType() == SLAVE_DEVICE_BUSY_EXCEPTION_CODE) {
+                        connectionFactory.transactionBackOff(endpoint);
+                    }
                     // Slave returned explicit error response, no reason to re-establish new connection
                     if (willRetry) {
                         logger.warn(
@@ -624,6 +755,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusUnexpectedTransactionIdException e) {
                     lastError.set(e);
+                    metrics.resetCleanTransactions();
                     // transaction error details already logged
                     if (willRetry) {
                         logger.warn(
@@ -640,6 +772,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     continue;
                 } catch (ModbusException e) {
                     lastError.set(e);
+                    metrics.resetCleanTransactions();
                     // Some other (unexpected) exception occurred
                     if (willRetry) {
                         logger.warn(
@@ -691,18 +824,63 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     @Override
-    public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
+    public Future<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
         Objects.requireNonNull(executor, "Not activated!");
-        long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off poll task {}", task);
-        ScheduledFuture<?> future = executor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, pollOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        QueuedOperation operation = new QueuedOperation(Priority.ONE_TIME_POLL, task, timer -> {
+            logger.debug("Will now execute one-off poll task {}, waited in queue for {}", task,
+                    timer.queue.getTotalTimeMillis());
+            executeOperation(timer, task, true, pollOperation);
+        });
+        submitOperation(executor, task.getEndpoint(), operation);
+        return operation;
+    }
+
+    @Override
+    public @Nullable EndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        return connectionFactory == null ? null : connectionFactory.getEndpointMetrics(endpoint);
+    }
+
+    /**
+     * Get the operation queue of the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return queue of the endpoint, or null if no operations have been submitted to the endpoint
+     */
+    public @Nullable EndpointOperationQueue getOperationQueue(ModbusSlaveEndpoint endpoint) {
+        return operationQueues.get(endpoint);
+    }
+
+    /**
+     * Queue the operation, creating the queue of the endpoint if necessary
+     */
+    private void submitOperation(ScheduledExecutorService executor, ModbusSlaveEndpoint endpoint,
+            QueuedOperation operation) {
+        // submit within compute, so that the queue cannot be removed in between
+        operationQueues.compute(endpoint, (key, queue) -> {
+            EndpointOperationQueue endpointQueue = queue != null ? queue
+                    : new EndpointOperationQueue(key, executor, MAX_QUEUED_OPERATIONS_PER_ENDPOINT,
+                            this::removeOperationQueueIfUnused);
+            endpointQueue.submit(operation);
+            return endpointQueue;
+        });
+    }
+
+    /**
+     * Remove the queue of the endpoint if it is idle and no regular polls are registered for the endpoint. Called
+     * when a queue runs empty and when a regular poll is unregistered.
+     */
+    private void removeOperationQueueIfUnused(EndpointOperationQueue queue) {
+        ModbusSlaveEndpoint endpoint = queue.getEndpoint();
+        operationQueues.computeIfPresent(endpoint, (key, current) -> {
+            if (current != queue || !queue.isIdle() || registeredPollCounts.containsKey(key)) {
+                return current;
+            }
+            logger.trace("Removing operation queue of endpoint {} which is not used anymore", key);
+            return null;
+        });
     }
 
     @Override
@@ -716,20 +894,107 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Unregistering previous poll task (possibly with different period)");
                 unregisterRegularPoll(task);
             }
-            ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+            PollGroupKey key = new PollGroupKey(task.getEndpoint(), pollPeriodMillis);
+            PollGroup group = pollGroups.computeIfAbsent(key, k -> new PollGroup());
+            group.tasks.add(task);
+            pollGroupKeys.put(task, key);
+            registeredPollCounts.merge(task.getEndpoint(), 1, Integer::sum);
+            schedulePollGroup(executor, key, group, initialDelayMillis);
+            logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
+                    initialDelayMillis);
+        }
+    }
+
+    /**
+     * (Re)schedule the polls of a poll group, merging the requests where possible
+     *
+     * Previously scheduled polls of the group are canceled. New polls are started after the given delay at the
+     * latest, but sooner if the previous polls were due sooner.
+     */
+    private void schedulePollGroup(ScheduledExecutorService executor, PollGroupKey key, PollGroup group,
+            long initialDelayMillis) {
+        long delay = initialDelayMillis;
+        for (Entry<PollTask, ScheduledFuture<?>> entry : group.scheduled.entrySet()) {
+            delay = Math.min(delay, Math.max(0, entry.getValue().getDelay(TimeUnit.MILLISECONDS)));
+            // Let possible ongoing poll finish, it would be repeated right away otherwise
+            entry.getValue().cancel(false);
+            if (entry.getKey() instanceof MergedPollTask) {
+                ((MergedPollTask) entry.getKey()).cancel();
+            }
+        }
+        group.scheduled.clear();
+
+        boolean mergePolls = isMergePolls(key.endpoint);
+        List<List<PollTask>> plan = new ArrayList<>();
+        List<PollTask> mergeable = new ArrayList<>();
+        for (PollTask task : group.tasks) {
+            if (!mergePolls || group.unmergeable.contains(task)) {
+                plan.add(Collections.singletonList(task));
+            } else {
+                mergeable.add(task);
+            }
+        }
+        if (!mergeable.isEmpty()) {
+            plan.addAll(MergedPollTask.plan(mergeable));
+        }
+
+        for (List<PollTask> tasks : plan) {
+            PollTask executed;
+            if (tasks.size() == 1) {
+                executed = tasks.get(0);
+            } else {
+                executed = new MergedPollTask(MergedPollTask.mergeRequests(tasks), tasks,
+                        scheduledPollTasks::containsKey, merged -> splitMergedPoll(key, merged));
+                logger.debug("Merged poll tasks {} into single request {}", tasks, executed.getRequest());
+            }
+            ScheduledFuture<?> future = schedulePoll(executor, executed, key.pollPeriodMillis, delay);
+            group.scheduled.put(executed, future);
+            for (PollTask task : tasks) {
+                scheduledPollTasks.put(task, future);
+            }
+        }
+    }
+
+    private boolean isMergePolls(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        EndpointPoolConfiguration configuration = connectionFactory == null ? null
+                : connectionFactory.getEndpointPoolConfiguration(endpoint);
+        return configuration != null && configuration.isMergePolls();
+    }
+
+    private ScheduledFuture<?> schedulePoll(ScheduledExecutorService executor, PollTask task, long pollPeriodMillis,
+            long initialDelayMillis) {
+        return executor.scheduleWithFixedDelay(() -> {
+            submitOperation(executor, task.getEndpoint(), new QueuedOperation(Priority.REGULAR_POLL, task, timer -> {
                 long started = System.currentTimeMillis();
                 logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                         started);
-                executeOperation(task, false, pollOperation);
+                executeOperation(timer, task, false, pollOperation);
                 long finished = System.currentTimeMillis();
                 logger.debug(
                         "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
                         pollPeriodMillis, task, finished, started, finished - started);
-            }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+            }));
+        }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
+    }
 
-            scheduledPollTasks.put(task, future);
-            logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
-                    initialDelayMillis);
+    /**
+     * Poll the tasks of a merged poll separately from now on
+     *
+     * Called when the slave responds with exception response to a merged request. The merged request might cover
+     * registers that none of the tasks would read alone, and which the slave does not support.
+     */
+    private void splitMergedPoll(PollGroupKey key, MergedPollTask merged) {
+        synchronized (this) {
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            PollGroup group = pollGroups.get(key);
+            if (executor == null || group == null || merged.isCanceled()) {
+                return;
+            }
+            logger.info("Slave {} responded with exception response to merged request {}. Polling tasks {} separately.",
+                    key.endpoint, merged.getRequest(), merged.getTasks());
+            group.unmergeable.addAll(merged.getTasks());
+            schedulePollGroup(executor, key, group, 0);
         }
     }
 
@@ -750,13 +1015,38 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.warn("Caller tried to unregister nonexisting poll task {}", task);
                 return false;
             }
-            logger.info("Unregistering regular poll task {} (interrupting if necessary)", task);
+            // A poll in progress is not interrupted, but stops before its next try since the task is not registered
+            logger.info("Unregistering regular poll task {} (a poll in progress stops before its next try)", task);
 
             // Make sure connections to this endpoint are closed when they are returned to pool (which
             // is usually pretty soon as transactions should be relatively short-lived)
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
-            future.cancel(true);
+            boolean merged = false;
+            registeredPollCounts.computeIfPresent(task.getEndpoint(),
+                    (endpoint, count) -> count > 1 ? count - 1 : null);
+            PollGroupKey key = pollGroupKeys.remove(task);
+            PollGroup group = key == null ? null : pollGroups.get(key);
+            if (key != null && group != null) {
+                ScheduledFuture<?> ownFuture = group.scheduled.remove(task);
+                merged = ownFuture == null;
+                group.tasks.remove(task);
+                group.unmergeable.remove(task);
+                if (group.tasks.isEmpty()) {
+                    pollGroups.remove(key);
+                } else if (merged) {
+                    // Task was merged with other tasks, poll the remaining ones without it. This cancels the merged
+                    // poll.
+                    schedulePollGroup(executor, key, group, Long.MAX_VALUE);
+                }
+            }
+            if (!merged) {
+                future.cancel(false);
+            }
+            EndpointOperationQueue queue = operationQueues.get(task.getEndpoint());
+            if (queue != null) {
+                removeOperationQueueIfUnused(queue);
+            }
 
             logger.info("Poll task {} canceled", task);
 
@@ -776,30 +1066,50 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     @Override
-    public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
+    public Future<?> submitOneTimeWrite(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
         Objects.requireNonNull(scheduledThreadPoolExecutor, "Not activated!");
-        long scheduleTime = System.currentTimeMillis();
         logger.debug("Scheduling one-off write task {}", task);
-        ScheduledFuture<?> future = scheduledThreadPoolExecutor.schedule(() -> {
-            long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
-            logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
-                    millisInThreadPoolWaiting);
-            executeOperation(task, true, writeOperation);
-        }, 0L, TimeUnit.MILLISECONDS);
-        return future;
+        QueuedOperation operation = new QueuedOperation(Priority.WRITE, task, timer -> {
+            logger.debug("Will now execute one-off write task {}, waited in queue for {}", task,
+                    timer.queue.getTotalTimeMillis());
+            executeOperation(timer, task, true, writeOperation);
+        });
+        submitOperation(scheduledThreadPoolExecutor, task.getEndpoint(), operation);
+        return operation;
     }
 
     @Override
     public void setEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
+        boolean mergePolls = isMergePolls(endpoint);
         connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+        if (mergePolls != isMergePolls(endpoint)) {
+            reschedulePollGroups(endpoint);
+        }
         for (ModbusManagerListener listener : listeners) {
             listener.onEndpointPoolConfigurationSet(endpoint, configuration);
         }
     }
 
+    /**
+     * Reschedule the regular polls of the endpoint after poll merging has been enabled or disabled
+     */
+    private void reschedulePollGroups(ModbusSlaveEndpoint endpoint) {
+        synchronized (this) {
+            ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+            if (executor == null) {
+                return;
+            }
+            pollGroups.forEach((key, group) -> {
+                if (key.endpoint.equals(endpoint)) {
+                    schedulePollGroup(executor, key, group, Long.MAX_VALUE);
+                }
+            });
+        }
+    }
+
     @Override
     public @Nullable EndpointPoolConfiguration getEndpointPoolConfiguration(ModbusSlaveEndpoint endpoint) {
         Objects.requireNonNull(connectionFactory, "Not activated!");
@@ -847,10 +1157,20 @@ public class ModbusManagerImpl implements ModbusManager {
         synchronized (this) {
             KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool = this.connectionPool;
             if (connectionPool != null) {
-                Set<@NonNull PollTask> polls = getRegisteredRegularPolls();
-                for (PollTask task : polls) {
-                    unregisterRegularPoll(task);
+                for (PollGroup group : pollGroups.values()) {
+                    for (PollTask task : group.scheduled.keySet()) {
+                        if (task instanceof MergedPollTask) {
+                            ((MergedPollTask) task).cancel();
+                        }
+                    }
                 }
+                scheduledPollTasks.values().forEach(future -> future.cancel(false));
+                scheduledPollTasks.clear();
+                pollGroups.clear();
+                pollGroupKeys.clear();
+                registeredPollCounts.clear();
+                operationQueues.values().forEach(EndpointOperationQueue::clear);
+                operationQueues.clear();
 
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
@@ -899,6 +1219,14 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            this.operationQueues.forEach((endpoint, queue) -> {
+                pollMonitorLogger.trace("POLL MONITOR: endpoint queue {}", queue);
+                EndpointMetrics metrics = getEndpointMetrics(endpoint);
+                if (metrics != null) {
+                    pollMonitorLogger.trace("POLL MONITOR: endpoint metrics {}", metrics);
+                }
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
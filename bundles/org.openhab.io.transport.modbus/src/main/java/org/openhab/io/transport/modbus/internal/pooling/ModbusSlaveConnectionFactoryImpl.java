@@ -23,6 +23,7 @@ import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.EndpointMetrics;
 import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
 import org.openhab.io.transport.modbus.endpoint.ModbusIPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusSerialSlaveEndpoint;
@@ -52,6 +53,8 @@ import net.wimpi.modbus.net.UDPMasterConnection;
  * IP-based connections every now and then (reconnectAfterMillis). Serial connections we keep open.
  * - wrap: wrap created connection to pooled object wrapper class. It tracks usage statistics and last connection time.
  *
+ * Connection statistics and the adaptive inter-transaction delay are kept in {@link EndpointMetrics} of each endpoint.
+ *
  * Note that the implementation must be thread safe.
  *
  * @author Sami Salonen - Initial contribution
@@ -78,11 +81,21 @@ public class ModbusSlaveConnectionFactoryImpl
 
     }
 
+    /**
+     * With adaptive inter-transaction delay, the delay is lowered after this many successful transactions in row
+     */
+    static final int ADAPTIVE_DELAY_CLEAN_TRANSACTIONS = 20;
+    /**
+     * With adaptive inter-transaction delay, the delay is raised at least this much on timeouts
+     */
+    static final long ADAPTIVE_DELAY_BACKOFF_MILLIS = 10;
+
     private final Logger logger = LoggerFactory.getLogger(ModbusSlaveConnectionFactoryImpl.class);
     private volatile Map<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> endpointPoolConfigs = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> lastPassivateMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> lastConnectMillis = new ConcurrentHashMap<>();
     private volatile Map<ModbusSlaveEndpoint, Long> disconnectIfConnectedBefore = new ConcurrentHashMap<>();
+    private final Map<ModbusSlaveEndpoint, EndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
     private volatile Function<ModbusSlaveEndpoint, @Nullable EndpointPoolConfiguration> defaultPoolConfigurationFactory = endpoint -> null;
 
     private @Nullable InetAddress getInetAddress(ModbusIPSlaveEndpoint key) {
@@ -170,10 +183,11 @@ public class ModbusSlaveConnectionFactoryImpl
             }
 
             if (config != null) {
-                long waited = waitAtleast(lastPassivateMillis.get(endpoint), config.getInterTransactionDelayMillis());
+                long interTransactionDelayMillis = getInterTransactionDelayMillis(endpoint, config);
+                long waited = waitAtleast(lastPassivateMillis.get(endpoint), interTransactionDelayMillis);
                 logger.trace(
                         "Waited {}ms (interTransactionDelayMillis {}ms) before giving returning connection {} for endpoint {}, to ensure delay between transactions.",
-                        waited, config.getInterTransactionDelayMillis(), obj.getObject(), endpoint);
+                        waited, interTransactionDelayMillis, obj.getObject(), endpoint);
             }
         } catch (InterruptedException e) {
             // Someone wants to cancel us, reset the connection and abort
@@ -268,6 +282,90 @@ public class ModbusSlaveConnectionFactoryImpl
         this.defaultPoolConfigurationFactory = defaultPoolConfigurationFactory;
     }
 
+    /**
+     * Get connection and transaction statistics of the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return statistics of the endpoint
+     */
+    public EndpointMetrics getEndpointMetrics(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    /**
+     * Get the current delay between transactions of the endpoint
+     *
+     * Without adaptive inter-transaction delay, this is the configured delay. With adaptive delay, this is between
+     * the configured minimum and the configured delay.
+     *
+     * @param endpoint endpoint to query
+     * @param config configuration of the endpoint
+     * @return delay between transactions in milliseconds
+     */
+    public long getInterTransactionDelayMillis(ModbusSlaveEndpoint endpoint, EndpointPoolConfiguration config) {
+        long configured = config.getInterTransactionDelayMillis();
+        if (!config.isAdaptiveInterTransactionDelay()) {
+            return configured;
+        }
+        long adapted = getEndpointMetrics(endpoint).getInterTransactionDelayMillis();
+        if (adapted < 0) {
+            return configured;
+        }
+        return Math.min(configured, Math.max(config.getMinInterTransactionDelayMillis(), adapted));
+    }
+
+    /**
+     * Notify that transaction with the endpoint received a valid response
+     *
+     * With adaptive inter-transaction delay, the delay is lowered by a quarter after
+     * {@value #ADAPTIVE_DELAY_CLEAN_TRANSACTIONS} successful transactions in row.
+     *
+     * @param endpoint endpoint of the transaction
+     */
+    public void transactionSucceeded(ModbusSlaveEndpoint endpoint) {
+        EndpointMetrics metrics = getEndpointMetrics(endpoint);
+        int cleanTransactions = metrics.recordCleanTransaction();
+        @Nullable
+        EndpointPoolConfiguration config = endpointPoolConfigs.get(endpoint);
+        if (config == null || !config.isAdaptiveInterTransactionDelay()
+                || cleanTransactions < ADAPTIVE_DELAY_CLEAN_TRANSACTIONS) {
+            return;
+        }
+        metrics.resetCleanTransactions();
+        long current = getInterTransactionDelayMillis(endpoint, config);
+        long lowered = Math.max(config.getMinInterTransactionDelayMillis(), current - Math.max(1, current / 4));
+        if (lowered < current) {
+            logger.debug("Endpoint {} answered {} transactions in row, lowering inter-transaction delay to {}ms",
+                    endpoint, cleanTransactions, lowered);
+        }
+        metrics.setInterTransactionDelayMillis(lowered);
+    }
+
+    /**
+     * Notify that the endpoint did not keep up with the transactions, that is, a transaction timed out or the slave
+     * reported to be busy
+     *
+     * With adaptive inter-transaction delay, the delay is doubled, up to the configured delay.
+     *
+     * @param endpoint endpoint of the transaction
+     */
+    public void transactionBackOff(ModbusSlaveEndpoint endpoint) {
+        EndpointMetrics metrics = getEndpointMetrics(endpoint);
+        metrics.resetCleanTransactions();
+        @Nullable
+        EndpointPoolConfiguration config = endpointPoolConfigs.get(endpoint);
+        if (config == null || !config.isAdaptiveInterTransactionDelay()) {
+            return;
+        }
+        long current = getInterTransactionDelayMillis(endpoint, config);
+        long raised = Math.min(config.getInterTransactionDelayMillis(),
+                Math.max(2 * current, current + ADAPTIVE_DELAY_BACKOFF_MILLIS));
+        if (raised > current) {
+            logger.debug("Endpoint {} did not keep up, raising inter-transaction delay to {}ms", endpoint, raised);
+        }
+        metrics.setInterTransactionDelayMillis(raised);
+    }
+
     private void tryConnect(ModbusSlaveEndpoint endpoint, PooledObject<ModbusSlaveConnection> obj,
             ModbusSlaveConnection connection, @Nullable EndpointPoolConfiguration config) throws Exception {
         if (connection.isConnected()) {
@@ -279,14 +377,15 @@ public class ModbusSlaveConnectionFactoryImpl
         do {
             try {
                 if (config != null) {
+                    long interTransactionDelayMillis = getInterTransactionDelayMillis(endpoint, config);
                     long waited = waitAtleast(lastConnect,
-                            Math.max(config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis()));
+                            Math.max(config.getInterConnectDelayMillis(), interTransactionDelayMillis));
                     if (waited > 0) {
                         logger.trace(
                                 "Waited {}ms (interConnectDelayMillis {}ms, interTransactionDelayMillis {}ms) before "
                                         + "connecting disconnected connection {} for endpoint {}, to allow delay "
                                         + "between connections re-connects",
-                                waited, config.getInterConnectDelayMillis(), config.getInterTransactionDelayMillis(),
+                                waited, config.getInterConnectDelayMillis(), interTransactionDelayMillis,
                                 obj.getObject(), endpoint);
                     }
                 }
@@ -294,6 +393,7 @@ public class ModbusSlaveConnectionFactoryImpl
                 long curTime = System.currentTimeMillis();
                 ((PooledConnection) obj).setLastConnected(curTime);
                 lastConnectMillis.put(endpoint, curTime);
+                getEndpointMetrics(endpoint).recordConnect();
                 break;
             } catch (InterruptedException e) {
                 logger.error("connect try {}/{} error: {}. Aborting since interrupted. Connection {}. Endpoint {}.",
@@ -301,6 +401,7 @@ public class ModbusSlaveConnectionFactoryImpl
                 throw e;
             } catch (Exception e) {
                 tryIndex++;
+                getEndpointMetrics(endpoint).recordConnectFailure();
                 logger.error("connect try {}/{} error: {}. Connection {}. Endpoint {}", tryIndex, maxTries,
                         e.getMessage(), connection, endpoint);
                 if (tryIndex >= maxTries) {
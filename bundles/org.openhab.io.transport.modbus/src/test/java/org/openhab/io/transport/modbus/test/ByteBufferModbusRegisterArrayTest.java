@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.ByteBufferModbusRegisterArray;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+public class ByteBufferModbusRegisterArrayTest {
+
+    private static ByteBufferModbusRegisterArray registers(int... bytes) {
+        byte[] arr = new byte[bytes.length + 1];
+        // leading byte, like the byte count of the response
+        arr[0] = 99;
+        for (int i = 0; i < bytes.length; i++) {
+            arr[i + 1] = (byte) bytes[i];
+        }
+        return new ByteBufferModbusRegisterArray(arr, 1, bytes.length);
+    }
+
+    @Test
+    public void testRegisters() {
+        ModbusRegisterArray registers = registers(0xff, 0xfd, 0x00, 0x04);
+        assertThat(registers.size(), is(equalTo(2)));
+        assertThat(registers.getRegister(0).getValue(), is(equalTo(-3)));
+        assertThat(registers.getRegister(0).toUnsignedShort(), is(equalTo(0xfffd)));
+        assertThat(registers.getRegister(1).getBytes(), is(equalTo(new byte[] { 0, 4 })));
+        assertThat(registers.toHexString(), is(equalTo("ff fd 00 04")));
+    }
+
+    @Test
+    public void testInt16() {
+        ModbusRegisterArray registers = registers(0xff, 0xfd, 0x00, 0x04);
+        assertThat(registers.getInt16(0), is(equalTo((short) -3)));
+        assertThat(registers.getUint16(0), is(equalTo(0xfffd)));
+        assertThat(registers.getInt16(1), is(equalTo((short) 4)));
+    }
+
+    @Test
+    public void testInt32() {
+        ModbusRegisterArray registers = registers(0xff, 0xff, 0xff, 0xfe, 0x00, 0x01);
+        assertThat(registers.getInt32(0), is(equalTo(-2)));
+        assertThat(registers.getUint32(0), is(equalTo(0xfffffffeL)));
+        assertThat(registers.getInt32Swap(1), is(equalTo(0x0001fffe)));
+        assertThat(registers.getUint32Swap(0), is(equalTo(0xfffeffffL)));
+    }
+
+    @Test
+    public void testFloat32() {
+        // 1.5f is 0x3fc00000
+        ModbusRegisterArray registers = registers(0x3f, 0xc0, 0x00, 0x00, 0x3f, 0xc0);
+        assertThat(registers.getFloat32(0), is(equalTo(1.5f)));
+        assertThat(registers.getFloat32Swap(1), is(equalTo(1.5f)));
+        assertThat(Float.isNaN(registers(0x7f, 0xc0, 0x00, 0x00).getFloat32(0)), is(equalTo(true)));
+    }
+
+    @Test
+    public void testInt64() {
+        ModbusRegisterArray registers = registers(0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01);
+        assertThat(registers.getInt64(0), is(equalTo(0x8000000000000001L)));
+        assertThat(Long.toUnsignedString(registers.getUint64(0)), is(equalTo("9223372036854775809")));
+        assertThat(registers.getInt64Swap(0), is(equalTo(0x0001000000008000L)));
+    }
+
+    @Test
+    public void testSlice() {
+        ByteBufferModbusRegisterArray registers = registers(0x00, 0x01, 0xff, 0xfd,
+                0x00, 0x04, 0x00, 0x05);
+        ModbusRegisterArray slice = registers.slice(1, 2);
+        assertThat(slice.size(), is(equalTo(2)));
+        assertThat(slice.getInt16(0), is(equalTo((short) -3)));
+        assertThat(slice.getUint16(1), is(equalTo(4)));
+        assertThat(slice.getInt32(0), is(equalTo(0xfffd0004)));
+        assertThat(registers.slice(4, 0).size(), is(equalTo(0)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSliceOutOfBounds() {
+        registers(0x00, 0x01, 0xff, 0xfd).slice(1, 2);
+    }
+
+    @Test
+    public void testSameAsDefaultMethods() {
+        int[] values = new int[] { 0x1234, 0xfedc, 0x8000, 0x0001, 0x7fff, 0xabcd };
+        ByteBuffer bytes = ByteBuffer.allocate(values.length * 2);
+        for (int value : values) {
+            bytes.putShort((short) value);
+        }
+        bytes.flip();
+        ModbusRegisterArray buffer = new ByteBufferModbusRegisterArray(bytes);
+        ModbusRegisterArray basic = new BasicModbusRegisterArray(values);
+        for (int i = 0; i + 4 <= values.length; i++) {
+            assertThat(buffer.getInt32(i), is(equalTo(basic.getInt32(i))));
+            assertThat(buffer.getInt32Swap(i), is(equalTo(basic.getInt32Swap(i))));
+            assertThat(buffer.getFloat32(i), is(equalTo(basic.getFloat32(i))));
+            assertThat(buffer.getInt64(i), is(equalTo(basic.getInt64(i))));
+            assertThat(buffer.getInt64Swap(i), is(equalTo(basic.getInt64Swap(i))));
+            assertThat(buffer.getString(i, 5, StandardCharsets.ISO_8859_1),
+                    is(equalTo(basic.getString(i, 5, StandardCharsets.ISO_8859_1))));
+        }
+    }
+
+    @Test
+    public void testString() {
+        ModbusRegisterArray registers = registers('a', 'b', 'c', 0, 'e', 'f');
+        assertThat(registers.getString(0, 6, StandardCharsets.US_ASCII), is(equalTo("abc")));
+        assertThat(registers.getString(0, 2, StandardCharsets.US_ASCII), is(equalTo("ab")));
+        assertThat(registers.getString(2, 2, StandardCharsets.US_ASCII), is(equalTo("ef")));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        registers(0x00, 0x01, 0x00, 0x02).getInt32(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBoundsRegister() {
+        registers(0x00, 0x01).getRegister(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOddNumberOfBytes() {
+        registers(0x00, 0x01, 0x02);
+    }
+}
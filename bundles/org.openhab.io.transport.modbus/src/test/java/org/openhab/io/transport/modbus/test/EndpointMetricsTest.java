@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.EndpointMetrics;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
+
+/**
+ * @author agent
+ */
+public class EndpointMetricsTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    @Test
+    public void testCounters() {
+        EndpointMetrics metrics = new EndpointMetrics(ENDPOINT);
+        metrics.recordBorrow(5);
+        metrics.recordBorrow(15);
+        metrics.recordConnect();
+        metrics.recordConnectFailure();
+        metrics.recordTimeout();
+        metrics.recordIOError();
+        metrics.recordSlaveException(2);
+        metrics.recordSlaveException(2);
+        metrics.recordSlaveException(6);
+
+        assertThat(metrics.getBorrowCount(), is(equalTo(2L)));
+        assertThat(metrics.getBorrowWaitMillis(), is(equalTo(20L)));
+        assertThat(metrics.getMaxBorrowWaitMillis(), is(equalTo(15L)));
+        assertThat(metrics.getConnectCount(), is(equalTo(1L)));
+        assertThat(metrics.getConnectFailureCount(), is(equalTo(1L)));
+        assertThat(metrics.getTimeoutCount(), is(equalTo(1L)));
+        assertThat(metrics.getIOErrorCount(), is(equalTo(1L)));
+        assertThat(metrics.getSlaveExceptionCounts().get(2), is(equalTo(2L)));
+        assertThat(metrics.getSlaveExceptionCounts().get(6), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        EndpointMetrics metrics = new EndpointMetrics(ENDPOINT);
+        long[] bounds = EndpointMetrics.getLatencyBucketUpperBoundsMillis();
+        metrics.recordTransaction(0);
+        metrics.recordTransaction(bounds[0]);
+        metrics.recordTransaction(bounds[0] + 1);
+        metrics.recordTransaction(bounds[bounds.length - 1] + 1);
+
+        long[] histogram = metrics.getLatencyHistogram();
+        assertThat(histogram.length, is(equalTo(bounds.length + 1)));
+        assertThat(histogram[0], is(equalTo(2L)));
+        assertThat(histogram[1], is(equalTo(1L)));
+        assertThat(histogram[bounds.length], is(equalTo(1L)));
+        assertThat(metrics.getTransactionCount(), is(equalTo(4L)));
+    }
+
+    private ModbusSlaveConnectionFactoryImpl createFactory(boolean adaptive) {
+        ModbusSlaveConnectionFactoryImpl factory = new ModbusSlaveConnectionFactoryImpl();
+        EndpointPoolConfiguration config = new EndpointPoolConfiguration();
+        config.setInterTransactionDelayMillis(60);
+        config.setAdaptiveInterTransactionDelay(adaptive);
+        config.setMinInterTransactionDelayMillis(5);
+        factory.setEndpointPoolConfiguration(ENDPOINT, config);
+        return factory;
+    }
+
+    private long delay(ModbusSlaveConnectionFactoryImpl factory) {
+        return factory.getInterTransactionDelayMillis(ENDPOINT, factory.getEndpointPoolConfiguration(ENDPOINT));
+    }
+
+    @Test
+    public void testFixedDelay() {
+        ModbusSlaveConnectionFactoryImpl factory = createFactory(false);
+        Collections.nCopies(1000, ENDPOINT).forEach(factory::transactionSucceeded);
+        assertThat(delay(factory), is(equalTo(60L)));
+    }
+
+    @Test
+    public void testAdaptiveDelayIsLoweredToMinimum() {
+        ModbusSlaveConnectionFactoryImpl factory = createFactory(true);
+        assertThat(delay(factory), is(equalTo(60L)));
+
+        long previous = delay(factory);
+        for (int i = 0; i < 1000; i++) {
+            factory.transactionSucceeded(ENDPOINT);
+            long current = delay(factory);
+            assertTrue(current <= previous);
+            previous = current;
+        }
+        assertThat(delay(factory), is(equalTo(5L)));
+    }
+
+    @Test
+    public void testAdaptiveDelayBacksOffToConfigured() {
+        ModbusSlaveConnectionFactoryImpl factory = createFactory(true);
+        Collections.nCopies(1000, ENDPOINT).forEach(factory::transactionSucceeded);
+
+        factory.transactionBackOff(ENDPOINT);
+        long afterFirstBackOff = delay(factory);
+        assertTrue(afterFirstBackOff > 5L);
+        for (int i = 0; i < 10; i++) {
+            factory.transactionBackOff(ENDPOINT);
+        }
+        assertThat(delay(factory), is(equalTo(60L)));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BasicWriteTask;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusResponse;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.Priority;
+import org.openhab.io.transport.modbus.internal.EndpointOperationQueue.QueuedOperation;
+
+/**
+ * @author agent
+ */
+public class EndpointOperationQueueTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    /**
+     * Executor which runs the submitted commands only when asked to
+     */
+    private static class ManualExecutor implements Executor {
+        private final Queue<Runnable> commands = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+        }
+    }
+
+    private final ManualExecutor executor = new ManualExecutor();
+    private final List<String> executed = new ArrayList<>();
+
+    private static PollTask pollTask(int start) {
+        return new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, 1, 1));
+    }
+
+    private static WriteTask writeTask() {
+        return new BasicWriteTask(ENDPOINT, new BasicModbusWriteCoilRequestBlueprint(1, 0, true, false, 1),
+                new ModbusWriteCallback() {
+
+                    @Override
+                    public void onWriteResponse(ModbusWriteRequestBlueprint request, ModbusResponse response) {
+                    }
+
+                    @Override
+                    public void onError(ModbusWriteRequestBlueprint request, Exception error) {
+                    }
+                });
+    }
+
+    private QueuedOperation operation(Priority priority, TaskWithEndpoint<?, ?> task, String name) {
+        return new QueuedOperation(priority, task, timer -> executed.add(name));
+    }
+
+    @Test
+    public void testWritesAndOneTimePollsPreemptRegularPolls() {
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 10);
+
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, pollTask(0), "regular1")));
+        assertTrue(queue.submit(operation(Priority.ONE_TIME_POLL, pollTask(1), "oneTime")));
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, pollTask(2), "regular2")));
+        assertTrue(queue.submit(operation(Priority.WRITE, writeTask(), "write")));
+        assertThat(queue.size(), is(equalTo(4)));
+
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write", "oneTime", "regular1", "regular2"))));
+        assertThat(queue.size(), is(equalTo(0)));
+        assertThat(queue.getExecutedCount(), is(equalTo(4L)));
+    }
+
+    @Test
+    public void testRegularPollSkippedWhilePending() {
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 10);
+        PollTask task = pollTask(0);
+
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, task, "first")));
+        assertFalse(queue.submit(operation(Priority.REGULAR_POLL, task, "second")));
+        // one-off polls of the same task are not skipped
+        assertTrue(queue.submit(operation(Priority.ONE_TIME_POLL, task, "oneTime")));
+        executor.runAll();
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, task, "third")));
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("oneTime", "first", "third"))));
+        assertThat(queue.getSkippedPollCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testRegularPollSkippedWhenQueueFull() {
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 2);
+
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, pollTask(0), "regular1")));
+        assertTrue(queue.submit(operation(Priority.REGULAR_POLL, pollTask(1), "regular2")));
+        assertFalse(queue.submit(operation(Priority.REGULAR_POLL, pollTask(2), "regular3")));
+        // writes are never dropped
+        assertTrue(queue.submit(operation(Priority.WRITE, writeTask(), "write")));
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write", "regular1", "regular2"))));
+        assertThat(queue.getSkippedPollCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testCanceledOperationIsNotExecuted() {
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 10);
+        QueuedOperation canceled = operation(Priority.WRITE, writeTask(), "canceled");
+
+        queue.submit(canceled);
+        queue.submit(operation(Priority.WRITE, writeTask(), "executed"));
+        assertTrue(canceled.cancel(false));
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("executed"))));
+        assertTrue(canceled.isDone());
+    }
+
+    @Test
+    public void testClearCancelsQueued() {
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 10);
+        QueuedOperation operation = operation(Priority.ONE_TIME_POLL, pollTask(0), "poll");
+
+        queue.submit(operation);
+        queue.clear();
+        executor.runAll();
+
+        assertTrue(executed.isEmpty());
+        assertTrue(operation.isCancelled());
+    }
+
+    @Test
+    public void testIdleCallbackCalledWhenQueueRunsEmpty() {
+        List<EndpointOperationQueue> idle = new ArrayList<>();
+        EndpointOperationQueue queue = new EndpointOperationQueue(ENDPOINT, executor, 10, idle::add);
+        assertTrue(queue.isIdle());
+
+        queue.submit(operation(Priority.WRITE, writeTask(), "write"));
+        queue.submit(operation(Priority.ONE_TIME_POLL, pollTask(0), "poll"));
+        assertFalse(queue.isIdle());
+        assertTrue(idle.isEmpty());
+
+        executor.runAll();
+
+        assertThat(executed, is(equalTo(Arrays.asList("write", "poll"))));
+        assertThat(idle, is(equalTo(Arrays.asList(queue))));
+        assertTrue(queue.isIdle());
+    }
+}
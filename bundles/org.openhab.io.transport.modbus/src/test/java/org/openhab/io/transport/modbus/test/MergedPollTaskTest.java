@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicBitArray;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.MergedPollTask;
+import org.openhab.io.transport.modbus.internal.ModbusSlaveErrorResponseExceptionImpl;
+
+import net.wimpi.modbus.ModbusSlaveException;
+
+/**
+ * @author agent
+ */
+public class MergedPollTaskTest {
+
+    private static final ModbusSlaveEndpoint ENDPOINT = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            received.add(request);
+            received.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            received.add(request);
+            received.add(bits);
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            received.add(request);
+            received.add(error);
+        }
+    }
+
+    private static BasicPollTaskImpl task(ModbusReadFunctionCode functionCode, int start, int length) {
+        return task(1, functionCode, start, length, new RecordingCallback());
+    }
+
+    private static BasicPollTaskImpl task(int unitId, ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 1), callback);
+    }
+
+    private static MergedPollTask merge(PollTask... tasks) {
+        List<PollTask> list = Arrays.asList(tasks);
+        return new MergedPollTask(MergedPollTask.mergeRequests(list), list, task -> true, merged -> {
+        });
+    }
+
+    @Test
+    public void testPlanMergesOverlappingAndAdjacent() {
+        PollTask first = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10);
+        PollTask overlapping = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 5, 10);
+        PollTask adjacent = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 15, 2);
+        PollTask separate = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 18, 2);
+
+        List<List<PollTask>> plan = MergedPollTask.plan(Arrays.asList(separate, adjacent, first, overlapping));
+
+        assertThat(plan, is(equalTo(Arrays.asList(Arrays.asList(first, overlapping, adjacent),
+                Arrays.asList(separate)))));
+        ModbusReadRequestBlueprint merged = MergedPollTask.mergeRequests(plan.get(0));
+        assertThat(merged.getReference(), is(equalTo(0)));
+        assertThat(merged.getDataLength(), is(equalTo(17)));
+    }
+
+    @Test
+    public void testPlanDoesNotMergeDifferentFunctionCodesOrUnits() {
+        PollTask holding = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 10);
+        PollTask input = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 10, 10);
+        PollTask otherUnit = task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 10, new RecordingCallback());
+
+        List<List<PollTask>> plan = MergedPollTask.plan(Arrays.asList(holding, input, otherUnit));
+
+        assertThat(plan.size(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testPlanRespectsProtocolMaximum() {
+        PollTask registers = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 100);
+        PollTask registersTooMany = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 100, 26);
+        PollTask coils = task(ModbusReadFunctionCode.READ_COILS, 0, 1000);
+        PollTask coilsFit = task(ModbusReadFunctionCode.READ_COILS, 1000, 1000);
+
+        List<List<PollTask>> plan = MergedPollTask
+                .plan(Arrays.asList(registers, registersTooMany, coils, coilsFit));
+
+        assertThat(plan, is(equalTo(Arrays.asList(Arrays.asList(registers), Arrays.asList(registersTooMany),
+                Arrays.asList(coils, coilsFit)))));
+    }
+
+    @Test
+    public void testMergedMaxTries() {
+        PollTask once = new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, 1));
+        PollTask thrice = new BasicPollTaskImpl(ENDPOINT,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, 3));
+
+        assertThat(MergedPollTask.mergeRequests(Arrays.asList(once, thrice)).getMaxTries(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testRegistersAreSliced() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 3, secondCallback);
+        MergedPollTask merged = merge(first, second);
+
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2, 3, 4));
+
+        assertThat(firstCallback.received.get(0), is(sameInstance(first.getRequest())));
+        assertThat(((ModbusRegisterArray) firstCallback.received.get(1)).toHexString(), is(equalTo("00 01 00 02")));
+        assertThat(secondCallback.received.get(0), is(sameInstance(second.getRequest())));
+        assertThat(((ModbusRegisterArray) secondCallback.received.get(1)).toHexString(),
+                is(equalTo("00 02 00 03 00 04")));
+    }
+
+    @Test
+    public void testBitsAreSliced() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_COILS, 0, 3, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_COILS, 3, 2, secondCallback);
+        MergedPollTask merged = merge(first, second);
+
+        merged.getCallback().onBits(merged.getRequest(), new BasicBitArray(true, false, true, false, true));
+
+        assertThat(firstCallback.received.get(1), is(equalTo(new BasicBitArray(true, false, true))));
+        assertThat(secondCallback.received.get(1), is(equalTo(new BasicBitArray(false, true))));
+    }
+
+    @Test
+    public void testUnregisteredTasksAreSkipped() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 1, secondCallback);
+        List<PollTask> tasks = Arrays.asList(first, second);
+        MergedPollTask merged = new MergedPollTask(MergedPollTask.mergeRequests(tasks), tasks,
+                task -> task == second, m -> {
+                });
+
+        merged.getCallback().onRegisters(merged.getRequest(), new BasicModbusRegisterArray(1, 2));
+
+        assertTrue(firstCallback.received.isEmpty());
+        assertThat(secondCallback.received.size(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testErrorsArePassedToAllTasks() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        RecordingCallback secondCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, firstCallback);
+        PollTask second = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 1, secondCallback);
+        MergedPollTask merged = merge(first, second);
+        Exception error = new IllegalStateException();
+
+        merged.getCallback().onError(merged.getRequest(), error);
+
+        assertThat(firstCallback.received, is(equalTo(Arrays.asList(first.getRequest(), error))));
+        assertThat(secondCallback.received, is(equalTo(Arrays.asList(second.getRequest(), error))));
+    }
+
+    @Test
+    public void testSlaveErrorResponseSplits() {
+        RecordingCallback firstCallback = new RecordingCallback();
+        PollTask first = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1, firstCallback);
+        PollTask second = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 1);
+        List<PollTask> tasks = Arrays.asList(first, second);
+        AtomicInteger splits = new AtomicInteger();
+        MergedPollTask merged = new MergedPollTask(MergedPollTask.mergeRequests(tasks), tasks, task -> true,
+                m -> splits.incrementAndGet());
+
+        merged.getCallback().onError(merged.getRequest(),
+                new ModbusSlaveErrorResponseExceptionImpl(new ModbusSlaveException(2)));
+
+        assertThat(splits.get(), is(equalTo(1)));
+        assertTrue(firstCallback.received.isEmpty());
+    }
+}
@@ -49,6 +49,7 @@ import org.openhab.io.transport.modbus.internal.BitArrayWrappingBitVector;
 import org.slf4j.LoggerFactory;
 
 import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ReadMultipleRegistersRequest;
 import net.wimpi.modbus.msg.WriteCoilRequest;
 import net.wimpi.modbus.msg.WriteMultipleCoilsRequest;
 import net.wimpi.modbus.procimg.SimpleDigitalIn;
@@ -890,6 +891,117 @@ public class SmokeTest extends IntegrationTestSupport {
 
     }
 
+    /**
+     * Testing that regular polls of adjacent holding registers are merged into a single request, and that each
+     * callback receives its own registers
+     *
+     * @throws InterruptedException
+     */
+    @SuppressWarnings("null")
+    @Test
+    public void testRegularReadAdjacentHoldingMerged() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        EndpointPoolConfiguration configuration = modbusManager.getEndpointPoolConfiguration(endpoint);
+        configuration.setMergePolls(true);
+        modbusManager.setEndpointPoolConfiguration(endpoint, configuration);
+
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(6);
+
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 10, 1),
+                new HoldingRegistersCallback(unexpectedCount, callbackCalled, 1, 10));
+        BasicPollTaskImpl task2 = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 5, 1),
+                new HoldingRegistersCallback(unexpectedCount, callbackCalled, 11, 5));
+        // initial delay ensures that both tasks are registered before the first poll
+        modbusManager.registerRegularPoll(task, 150, 200);
+        modbusManager.registerRegularPoll(task2, 150, 200);
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(task);
+        modbusManager.unregisterRegularPoll(task2);
+
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        for (ModbusRequest request : modbustRequestCaptor.getAllReturnValues()) {
+            assertThat(request, is(instanceOf(ReadMultipleRegistersRequest.class)));
+            assertThat(((ReadMultipleRegistersRequest) request).getReference(), is(equalTo(1)));
+            assertThat(((ReadMultipleRegistersRequest) request).getWordCount(), is(equalTo(15)));
+        }
+    }
+
+    /**
+     * Testing that regular polls of adjacent holding registers are not merged unless enabled for the endpoint
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testRegularReadAdjacentHoldingNotMergedByDefault() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+
+        AtomicInteger unexpectedCount = new AtomicInteger();
+        CountDownLatch callbackCalled = new CountDownLatch(6);
+
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 10, 1),
+                new HoldingRegistersCallback(unexpectedCount, callbackCalled, 1, 10));
+        BasicPollTaskImpl task2 = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 11, 5, 1),
+                new HoldingRegistersCallback(unexpectedCount, callbackCalled, 11, 5));
+        modbusManager.registerRegularPoll(task, 150, 200);
+        modbusManager.registerRegularPoll(task2, 150, 200);
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+        modbusManager.unregisterRegularPoll(task);
+        modbusManager.unregisterRegularPoll(task2);
+
+        assertThat(unexpectedCount.get(), is(equalTo(0)));
+        for (ModbusRequest request : modbustRequestCaptor.getAllReturnValues()) {
+            assertThat(request, is(instanceOf(ReadMultipleRegistersRequest.class)));
+            assertThat(((ReadMultipleRegistersRequest) request).getWordCount(), is(not(equalTo(15))));
+        }
+    }
+
+    private class HoldingRegistersCallback implements ModbusReadCallback {
+
+        private final AtomicInteger unexpectedCount;
+        private final CountDownLatch callbackCalled;
+        private final int start;
+        private final int length;
+
+        public HoldingRegistersCallback(AtomicInteger unexpectedCount, CountDownLatch callbackCalled, int start,
+                int length) {
+            this.unexpectedCount = unexpectedCount;
+            this.callbackCalled = callbackCalled;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            try {
+                assertThat(request.getReference(), is(equalTo(start)));
+                assertThat(registers.size(), is(equalTo(length)));
+                testHoldingValues(registers, start);
+            } catch (AssertionError e) {
+                unexpectedCount.incrementAndGet();
+            }
+            callbackCalled.countDown();
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+            unexpectedCount.incrementAndGet();
+            callbackCalled.countDown();
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+            unexpectedCount.incrementAndGet();
+            callbackCalled.countDown();
+        }
+    }
+
     @Test
     public void testGetRegisteredRegularPolls() {
         ModbusSlaveEndpoint endpoint = getEndpoint();
@@ -907,4 +1019,38 @@ public class SmokeTest extends IntegrationTestSupport {
                 is(equalTo(Stream.of(task2).collect(Collectors.toSet()))));
 
     }
+
+    @Test
+    public void testOperationQueueRemovedWhenEndpointNotUsed() throws InterruptedException {
+        generateData();
+        ModbusSlaveEndpoint endpoint = getEndpoint();
+        BasicPollTaskImpl task = new BasicPollTaskImpl(endpoint, new BasicModbusReadRequestBlueprint(SLAVE_UNIT_ID,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 15, 1), null);
+
+        modbusManager.registerRegularPoll(task, 50, 0);
+        waitForAssert(() -> assertThat(modbusManager.getOperationQueue(endpoint), is(notNullValue())));
+        Thread.sleep(200);
+        // the queue of a polled endpoint is kept between the polls
+        assertThat(modbusManager.getOperationQueue(endpoint), is(notNullValue()));
+
+        modbusManager.unregisterRegularPoll(task);
+        waitForAssert(() -> assertThat(modbusManager.getOperationQueue(endpoint), is(nullValue())));
+
+        CountDownLatch callbackCalled = new CountDownLatch(1);
+        modbusManager.submitOneTimeWrite(new BasicWriteTask(endpoint,
+                new BasicModbusWriteCoilRequestBlueprint(SLAVE_UNIT_ID, 0, true, false, 1), new ModbusWriteCallback() {
+
+                    @Override
+                    public void onWriteResponse(ModbusWriteRequestBlueprint request, ModbusResponse response) {
+                        callbackCalled.countDown();
+                    }
+
+                    @Override
+                    public void onError(ModbusWriteRequestBlueprint request, Exception error) {
+                        callbackCalled.countDown();
+                    }
+                }));
+        assertTrue(callbackCalled.await(5, TimeUnit.SECONDS));
+        waitForAssert(() -> assertThat(modbusManager.getOperationQueue(endpoint), is(nullValue())));
+    }
 }
@@ -0,0 +1,338 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers stored items and hands them over to a writer in batches, so that a single MapDB commit covers many stores.
+ * <p>
+ * A batch is closed when either the configured number of distinct aliases is buffered or the commit window has
+ * elapsed since the first item of the batch was added. Within a batch only the last item per alias is kept. When the
+ * buffer reaches its capacity, the storing thread writes the batch itself, which throttles producers to the speed of
+ * the database.
+ * <p>
+ * When the writer fails, the items of the batch are put back into the buffer and written with the next batch, unless
+ * a newer item of the same alias was added in the meantime. After {@value #MAX_FAILED_ATTEMPTS} failed writes in a
+ * row, the items of the failed batch are dropped and counted.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class MapDbCommitBuffer {
+
+    /** number of failed writes in a row after which the items of a batch are dropped */
+    static final int MAX_FAILED_ATTEMPTS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitBuffer.class);
+
+    private final int batchSize;
+    private final int capacity;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<Collection<MapDbItem>> writer;
+
+    /** guards the buffered items, the scheduled flush and the statistics */
+    private final Object lock = new Object();
+    /** serializes the writes, so that batches reach the database in the order they were closed */
+    private final Object flushLock = new Object();
+
+    private Map<String, MapDbItem> pending = new LinkedHashMap<>();
+    private Map<String, MapDbItem> inFlight = Collections.emptyMap();
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+    private boolean flushRequested;
+    private int failedAttempts;
+
+    private long storeCount;
+    private long coalescedCount;
+    private long commitCount;
+    private long committedItemCount;
+    private long lastCommitLatencyMillis;
+    private long maxCommitLatencyMillis;
+    private long totalCommitLatencyMillis;
+    private long failedCommitCount;
+    private long droppedItemCount;
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param batchSize number of distinct aliases that close a batch
+     * @param windowMillis maximum time an item waits in the buffer
+     * @param capacity maximum number of distinct aliases held in the buffer
+     * @param scheduler executor used to run timed and size triggered commits
+     * @param writer writes a batch of items to the database and commits it
+     */
+    public MapDbCommitBuffer(int batchSize, long windowMillis, int capacity, ScheduledExecutorService scheduler,
+            Consumer<Collection<MapDbItem>> writer) {
+        this.batchSize = Math.max(1, batchSize);
+        this.windowMillis = Math.max(0, windowMillis);
+        this.capacity = Math.max(this.batchSize, capacity);
+        this.scheduler = scheduler;
+        this.writer = writer;
+    }
+
+    /**
+     * Adds an item to the current batch. A previously buffered item with the same name is replaced.
+     *
+     * @param item the item to store
+     */
+    public void add(MapDbItem item) {
+        boolean flushInline = false;
+        synchronized (lock) {
+            storeCount++;
+            if (pending.put(item.getName(), item) != null) {
+                coalescedCount++;
+            }
+            int size = pending.size();
+            if (size >= capacity) {
+                flushInline = true;
+            } else if (size >= batchSize) {
+                if (!flushRequested) {
+                    flushRequested = true;
+                    scheduler.execute(this::flush);
+                }
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushInline) {
+            logger.debug("MapDB commit buffer reached its capacity of {} items, committing in the storing thread",
+                    capacity);
+            flush();
+        }
+    }
+
+    /**
+     * Returns the most recent item for the given name that has not been committed yet.
+     *
+     * @param name the item name or alias
+     * @return the buffered item or null if there is none
+     */
+    public @Nullable MapDbItem get(String name) {
+        synchronized (lock) {
+            MapDbItem item = pending.get(name);
+            return item != null ? item : inFlight.get(name);
+        }
+    }
+
+    /**
+     * Returns the names of all items that have not been committed yet.
+     *
+     * @return a copy of the names
+     */
+    public Set<String> getNames() {
+        synchronized (lock) {
+            Set<String> names = new HashSet<>(pending.keySet());
+            names.addAll(inFlight.keySet());
+            return names;
+        }
+    }
+
+    /**
+     * Writes and commits the current batch, if it is not empty.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, MapDbItem> batch;
+            synchronized (lock) {
+                ScheduledFuture<?> future = scheduledFlush;
+                if (future != null) {
+                    future.cancel(false);
+                    scheduledFlush = null;
+                }
+                flushRequested = false;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                inFlight = batch;
+                pending = new LinkedHashMap<>();
+            }
+
+            long start = System.nanoTime();
+            try {
+                writer.accept(batch.values());
+            } catch (RuntimeException e) {
+                requeue(batch, e);
+                return;
+            }
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            synchronized (lock) {
+                inFlight = Collections.emptyMap();
+                failedAttempts = 0;
+                commitCount++;
+                committedItemCount += batch.size();
+                lastCommitLatencyMillis = latency;
+                maxCommitLatencyMillis = Math.max(maxCommitLatencyMillis, latency);
+                totalCommitLatencyMillis += latency;
+                logger.debug("Committed {} items to MapDB in {} ms, {} items queued", batch.size(), latency,
+                        pending.size());
+            }
+        }
+    }
+
+    /**
+     * Puts the items of a failed batch back in front of the buffered items, or drops them if the write failed too
+     * often. Items which have been replaced by a newer item of the same alias meanwhile are not requeued.
+     */
+    private void requeue(Map<String, MapDbItem> batch, RuntimeException e) {
+        synchronized (lock) {
+            inFlight = Collections.emptyMap();
+            failedCommitCount++;
+            failedAttempts++;
+            if (failedAttempts >= MAX_FAILED_ATTEMPTS) {
+                droppedItemCount += batch.size();
+                failedAttempts = 0;
+                logger.warn("Failed to commit {} items to MapDB {} times in a row, dropping them: {}", batch.size(),
+                        MAX_FAILED_ATTEMPTS, e.getMessage());
+                return;
+            }
+            logger.warn("Failed to commit {} items to MapDB, retrying with the next batch: {}", batch.size(),
+                    e.getMessage());
+            Map<String, MapDbItem> requeued = new LinkedHashMap<>(batch);
+            requeued.putAll(pending);
+            pending = requeued;
+            if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, Math.max(windowMillis, 1), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Cancels the pending timer and commits all buffered items. Failed writes are retried right away until the items
+     * are written or dropped.
+     */
+    public void close() {
+        for (int attempt = 0; attempt < MAX_FAILED_ATTEMPTS; attempt++) {
+            flush();
+            if (getQueueDepth() == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct aliases waiting to be committed
+     */
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return the total number of items passed to {@link #add(MapDbItem)}
+     */
+    public long getStoreCount() {
+        synchronized (lock) {
+            return storeCount;
+        }
+    }
+
+    /**
+     * @return the number of items that replaced a buffered item of the same alias
+     */
+    public long getCoalescedCount() {
+        synchronized (lock) {
+            return coalescedCount;
+        }
+    }
+
+    /**
+     * @return the number of commits performed
+     */
+    public long getCommitCount() {
+        synchronized (lock) {
+            return commitCount;
+        }
+    }
+
+    /**
+     * @return the number of items written by all commits
+     */
+    public long getCommittedItemCount() {
+        synchronized (lock) {
+            return committedItemCount;
+        }
+    }
+
+    /**
+     * @return the duration of the last commit in milliseconds
+     */
+    public long getLastCommitLatencyMillis() {
+        synchronized (lock) {
+            return lastCommitLatencyMillis;
+        }
+    }
+
+    /**
+     * @return the longest commit duration in milliseconds
+     */
+    public long getMaxCommitLatencyMillis() {
+        synchronized (lock) {
+            return maxCommitLatencyMillis;
+        }
+    }
+
+    /**
+     * @return the average commit duration in milliseconds
+     */
+    public double getAverageCommitLatencyMillis() {
+        synchronized (lock) {
+            return commitCount == 0 ? 0 : (double) totalCommitLatencyMillis / commitCount;
+        }
+    }
+
+    /**
+     * @return the number of writes that failed
+     */
+    public long getFailedCommitCount() {
+        synchronized (lock) {
+            return failedCommitCount;
+        }
+    }
+
+    /**
+     * @return the number of items dropped after the write failed {@value #MAX_FAILED_ATTEMPTS} times in a row
+     */
+    public long getDroppedItemCount() {
+        synchronized (lock) {
+            return droppedItemCount;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return String.format(
+                    "{queueDepth: %d, stores: %d, coalesced: %d, commits: %d, committedItems: %d, lastCommit: %d ms, maxCommit: %d ms, failedCommits: %d, droppedItems: %d}",
+                    pending.size(), storeCount, coalescedCount, commitCount, committedItemCount,
+                    lastCommitLatencyMillis, maxCommitLatencyMillis, failedCommitCount, droppedItemCount);
+        }
+    }
+}
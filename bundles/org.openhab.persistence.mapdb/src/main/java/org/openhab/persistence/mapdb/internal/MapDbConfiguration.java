@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Configuration of the {@link MapDbPersistenceService}.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class MapDbConfiguration {
+    /**
+     * If true, stores are buffered and committed in batches instead of one commit per store.
+     */
+    public boolean groupCommit = false;
+
+    /**
+     * Number of distinct aliases in the buffer that close a batch early.
+     */
+    public int commitBatchSize = 500;
+
+    /**
+     * Maximum time in milliseconds a stored state waits in the buffer before it is committed.
+     */
+    public long commitWindowMillis = 1000;
+
+    /**
+     * Maximum number of distinct aliases held in the buffer. When reached, the storing thread commits the batch
+     * itself.
+     */
+    public int commitBufferCapacity = 10000;
+
+    /**
+     * Maximum number of decoded items kept in memory to answer queries.
+     */
+    public int cacheSize = 10000;
+}
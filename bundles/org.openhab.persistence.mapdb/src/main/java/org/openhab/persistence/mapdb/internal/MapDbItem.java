@@ -85,6 +85,6 @@ public class MapDbItem implements HistoricItem, PersistenceItemInfo {
     }
 
     public boolean isValid() {
-        return name != null && state != null && timestamp != null;
+        return name != null && state != null && timestamp != null && !(state instanceof UnDefType);
     }
 }
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.mapdb.Serializer;
+
+/**
+ * A MapDB value {@link Serializer} for {@link MapDbItem}s.
+ * <p>
+ * Each entry consists of a type tag, the item name, the timestamp in epoch milliseconds and the state. The states
+ * {@link DecimalType}, {@link OnOffType}, {@link PercentType} and {@link HSBType} are written in a primitive encoding.
+ * All other states are written as class name and full string, the same way the {@link StateTypeAdapter} does. A
+ * state that cannot be parsed anymore is read as {@link UnDefType#NULL}.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class MapDbItemSerializer implements Serializer<MapDbItem>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte TAG_GENERIC = 0;
+    private static final byte TAG_DECIMAL = 1;
+    private static final byte TAG_ON_OFF = 2;
+    private static final byte TAG_PERCENT = 3;
+    private static final byte TAG_HSB = 4;
+
+    private static final byte DECIMAL_LONG = 0;
+    private static final byte DECIMAL_BIG = 1;
+
+    @Override
+    public void serialize(DataOutput out, MapDbItem item) throws IOException {
+        State state = item.getState();
+        if (state instanceof HSBType) {
+            HSBType hsb = (HSBType) state;
+            writeHeader(out, TAG_HSB, item);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state.getClass() == PercentType.class) {
+            writeHeader(out, TAG_PERCENT, item);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (state.getClass() == DecimalType.class) {
+            writeHeader(out, TAG_DECIMAL, item);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (state instanceof OnOffType) {
+            writeHeader(out, TAG_ON_OFF, item);
+            out.writeBoolean(state == OnOffType.ON);
+        } else {
+            writeHeader(out, TAG_GENERIC, item);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    @Override
+    public MapDbItem deserialize(DataInput in, int available) throws IOException {
+        byte tag = in.readByte();
+        MapDbItem item = new MapDbItem();
+        item.setName(in.readUTF());
+        item.setTimestamp(new Date(in.readLong()));
+        switch (tag) {
+            case TAG_DECIMAL:
+                item.setState(new DecimalType(readDecimal(in)));
+                break;
+            case TAG_ON_OFF:
+                item.setState(in.readBoolean() ? OnOffType.ON : OnOffType.OFF);
+                break;
+            case TAG_PERCENT:
+                item.setState(new PercentType(readDecimal(in)));
+                break;
+            case TAG_HSB:
+                DecimalType hue = new DecimalType(readDecimal(in));
+                PercentType saturation = new PercentType(readDecimal(in));
+                PercentType brightness = new PercentType(readDecimal(in));
+                item.setState(new HSBType(hue, saturation, brightness));
+                break;
+            case TAG_GENERIC:
+                item.setState(parseState(readString(in), readString(in)));
+                break;
+            default:
+                throw new IOException("Unknown state type tag " + tag);
+        }
+        return item;
+    }
+
+    @Override
+    public int fixedSize() {
+        return -1;
+    }
+
+    private void writeHeader(DataOutput out, byte tag, MapDbItem item) throws IOException {
+        out.writeByte(tag);
+        out.writeUTF(item.getName());
+        out.writeLong(item.getTimestamp().getTime());
+    }
+
+    private void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            out.writeByte(DECIMAL_LONG);
+            out.writeInt(value.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(DECIMAL_BIG);
+            out.writeInt(value.scale());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private BigDecimal readDecimal(DataInput in) throws IOException {
+        byte encoding = in.readByte();
+        int scale = in.readInt();
+        if (encoding == DECIMAL_LONG) {
+            return BigDecimal.valueOf(in.readLong(), scale);
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private void writeString(DataOutput out, String value) throws IOException {
+        // writeUTF() is limited to 64k, which is not enough for StringType states
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private State parseState(String valueTypeName, String valueAsString) {
+        try {
+            @SuppressWarnings("unchecked")
+            Class<? extends State> valueType = (Class<? extends State>) Class.forName(valueTypeName);
+            List<Class<? extends State>> types = Collections.singletonList(valueType);
+            State state = TypeParser.parseState(types, valueAsString);
+            if (state != null) {
+                return state;
+            }
+        } catch (ClassNotFoundException e) {
+            // fall through, the item is reported as invalid by the persistence service
+        }
+        return UnDefType.NULL;
+    }
+}
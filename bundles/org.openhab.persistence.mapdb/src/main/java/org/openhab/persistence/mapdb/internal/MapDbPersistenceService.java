@@ -13,19 +13,28 @@
 package org.openhab.persistence.mapdb.internal;
 
 import java.io.File;
+import java.io.IOError;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.persistence.FilterCriteria;
@@ -35,14 +44,19 @@ import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.mapdb.Atomic;
+import org.mapdb.BTreeKeySerializer;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * This is the implementation of the MapDB {@link PersistenceService}. To learn
@@ -53,7 +67,10 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to Eclipse SmartHome
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class },
+        configurationPid = "org.openhab.mapdb", property = { "service.pid=org.openhab.mapdb",
+                "service.config.description.uri=persistence:mapdb", "service.config.label=MapDB Persistence Service",
+                "service.config.category=persistence" })
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String SERVICE_NAME = "mapdb";
@@ -62,25 +79,64 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** name of the tree map holding the binary encoded items */
+    private static final String ITEM_STORE_NAME = "items";
+
+    /** name of the tree map holding the JSON encoded items of previous versions */
+    private static final String JSON_ITEM_STORE_NAME = "itemStore";
+
+    /** name of the flag which is set once the JSON encoded items have been migrated */
+    private static final String JSON_ITEM_STORE_MIGRATED_NAME = "itemStoreMigrated";
+
+    /** minimum number of items decoded by one thread during a restore */
+    private static final int MIN_RESTORE_CHUNK_SIZE = 256;
+
+    /** interval in minutes of the group commit statistics in the debug log */
+    private static final int STATISTICS_INTERVAL = 1;
+
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
     @NonNullByDefault({})
-    private ExecutorService threadPool;
+    private ScheduledExecutorService threadPool;
 
     /** holds the local instance of the MapDB database */
     @NonNullByDefault({})
     private DB db;
     @NonNullByDefault({})
-    private Map<String, String> map;
+    private ConcurrentNavigableMap<String, MapDbItem> map;
+
+    /** maximum number of decoded items held in {@link #cache} */
+    private volatile int cacheSize = new MapDbConfiguration().cacheSize;
+
+    /**
+     * holds the recently used decoded items, filled by {@link #loadCache()} and replaced by
+     * {@link #store(Item, String)}; the items must not be handed out, as they are mutable
+     */
+    private final Map<String, MapDbItem> cache = Collections
+            .synchronizedMap(new LinkedHashMap<String, MapDbItem>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
 
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, MapDbItem> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+    private volatile boolean cacheLoaded;
+
+    /** buffers stores between commits if group commit is enabled */
+    private @Nullable MapDbCommitBuffer commitBuffer;
+    private @Nullable ScheduledFuture<?> statisticsJob;
+
+    /** reads the JSON encoded store of previous versions */
     private transient Gson mapper = new GsonBuilder()
             .registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
             .create();
 
-    public void activate() {
+    @Activate
+    public void activate(final @Nullable Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
 
-        threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+        threadPool = ThreadPoolManager.getScheduledPool(getClass().getSimpleName());
 
         File folder = new File(DB_FOLDER_NAME);
         if (!folder.exists()) {
@@ -93,15 +149,51 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
         File dbFile = new File(DB_FOLDER_NAME, DB_FILE_NAME);
         db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-        map = db.createTreeMap("itemStore").makeOrGet();
+
+        // MapDB restores the value serializer from its catalog by the context class loader
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+            // values are kept outside of the nodes, so that walking the keys does not decode them
+            map = db.createTreeMap(ITEM_STORE_NAME).keySerializer(BTreeKeySerializer.STRING)
+                    .valueSerializer(new MapDbItemSerializer()).valuesOutsideNodesEnable().makeOrGet();
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+        migrateJsonStore();
+
+        MapDbConfiguration configuration = new Configuration(config).as(MapDbConfiguration.class);
+        cacheSize = Math.max(1, configuration.cacheSize);
+        if (configuration.groupCommit) {
+            commitBuffer = new MapDbCommitBuffer(configuration.commitBatchSize, configuration.commitWindowMillis,
+                    configuration.commitBufferCapacity, threadPool, this::writeBatch);
+            logger.debug("MapDB group commit enabled with batch size {} and window {} ms",
+                    configuration.commitBatchSize, configuration.commitWindowMillis);
+            statisticsJob = threadPool.scheduleWithFixedDelay(this::logStatistics, STATISTICS_INTERVAL,
+                    STATISTICS_INTERVAL, TimeUnit.MINUTES);
+        }
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
+        ScheduledFuture<?> statisticsJob = this.statisticsJob;
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            this.statisticsJob = null;
+        }
+        MapDbCommitBuffer commitBuffer = this.commitBuffer;
+        if (commitBuffer != null) {
+            commitBuffer.close();
+            logger.debug("MapDB group commit statistics: {}", commitBuffer);
+            this.commitBuffer = null;
+        }
         if (db != null) {
             db.close();
         }
+        cache.clear();
+        cacheLoaded = false;
         threadPool.shutdown();
     }
 
@@ -117,10 +209,20 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Set<PersistenceItemInfo> getItemInfo() {
-        return map.values().stream()
-                .map(this::deserialize)
-                .flatMap(MapDbPersistenceService::streamOptional)
-                .collect(Collectors.<PersistenceItemInfo>toSet());
+        loadCache();
+        Set<String> aliases = new HashSet<>(map.keySet());
+        MapDbCommitBuffer commitBuffer = this.commitBuffer;
+        if (commitBuffer != null) {
+            aliases.addAll(commitBuffer.getNames());
+        }
+        Set<PersistenceItemInfo> itemInfo = new HashSet<>();
+        for (String alias : aliases) {
+            MapDbItem item = find(alias);
+            if (item != null) {
+                itemInfo.add(item);
+            }
+        }
+        return itemInfo;
     }
 
     @Override
@@ -145,31 +247,158 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(alias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(alias, json);
-        commit();
+        MapDbCommitBuffer commitBuffer = this.commitBuffer;
+        if (commitBuffer != null) {
+            commitBuffer.add(mItem);
+        } else {
+            map.put(alias, mItem);
+            commit();
+        }
+        // replace the cached item only after the database, so that a concurrent query cannot cache the old one
+        cache.put(alias, mItem);
         logger.debug("Stored '{}' with state '{}' in MapDB database", alias, state.toString());
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        loadCache();
+        MapDbItem item = find(filter.getItemName());
+        if (item == null) {
             return Collections.emptyList();
         }
-        Optional<MapDbItem> item = deserialize(json);
-        if (!item.isPresent()) {
-            return Collections.emptyList();
+        return Collections.singletonList(item);
+    }
+
+    /**
+     * Returns a copy of the latest item of the given alias from the cache, the commit buffer or the database.
+     *
+     * @param alias the item name or alias
+     * @return the item or null if there is no valid item for the alias
+     */
+    private @Nullable MapDbItem find(String alias) {
+        MapDbItem item = cache.get(alias);
+        if (item == null) {
+            MapDbCommitBuffer commitBuffer = this.commitBuffer;
+            item = commitBuffer != null ? commitBuffer.get(alias) : null;
+        }
+        if (item == null) {
+            item = map.get(alias);
+            if (item == null || !isValid(item)) {
+                return null;
+            }
+            // an item stored in the meantime is newer than the one read from the database
+            cache.putIfAbsent(alias, item);
         }
-        return Collections.singletonList(item.get());
+        return copy(item);
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    /**
+     * Decodes the items of the database into the cache on the first query, which usually is the restore of all item
+     * states on startup. The keys are split into ranges, which are decoded in parallel. At most as many items as the
+     * cache holds are decoded, the others are read on demand.
+     */
+    private void loadCache() {
+        if (cacheLoaded) {
+            return;
+        }
+        synchronized (cache) {
+            if (cacheLoaded) {
+                return;
+            }
+            cacheLoaded = true;
+        }
+        long start = System.nanoTime();
+        List<String> keys = new ArrayList<>();
+        for (String key : map.keySet()) {
+            if (keys.size() >= cacheSize) {
+                break;
+            }
+            keys.add(key);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(MIN_RESTORE_CHUNK_SIZE, (keys.size() + threads - 1) / threads);
+        int chunks = (keys.size() + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            String fromKey = keys.get(chunk * chunkSize);
+            String toKey = keys.get(Math.min((chunk + 1) * chunkSize, keys.size()) - 1);
+            for (Map.Entry<String, MapDbItem> entry : map.subMap(fromKey, true, toKey, true).entrySet()) {
+                MapDbItem item = entry.getValue();
+                // items stored in the meantime are newer than the ones in the database
+                if (isValid(item)) {
+                    cache.putIfAbsent(entry.getKey(), item);
+                }
+            }
+        });
+        logger.debug("Restored {} items from MapDB in {} ms using {} chunks", keys.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), chunks);
+    }
+
+    private static MapDbItem copy(MapDbItem item) {
+        MapDbItem copy = new MapDbItem();
+        copy.setName(item.getName());
+        copy.setState(item.getState());
+        copy.setTimestamp(new Date(item.getTimestamp().getTime()));
+        return copy;
     }
 
-    private Optional<MapDbItem> deserialize(String json) {
-        MapDbItem item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+    /**
+     * Copies all items of the JSON encoded store of previous versions into the binary encoded store. Entries which
+     * cannot be read are skipped. The copied items and the migrated flag are committed together, so a failed migration
+     * is rolled back completely and tried again on the next start.
+     * <p>
+     * The JSON store itself is left untouched, so that a previous version still finds the states of the time of the
+     * upgrade after a downgrade. It is to be removed by a later version.
+     */
+    private void migrateJsonStore() {
+        try {
+            if (!db.exists(JSON_ITEM_STORE_NAME)) {
+                return;
+            }
+            Atomic.Boolean migratedFlag = db.getAtomicBoolean(JSON_ITEM_STORE_MIGRATED_NAME);
+            if (migratedFlag.get()) {
+                return;
+            }
+            Map<String, String> jsonMap = db.getTreeMap(JSON_ITEM_STORE_NAME);
+            logger.info("Migrating {} items of the MapDB persistence to the binary format", jsonMap.size());
+            int migrated = 0;
+            int skipped = 0;
+            for (Map.Entry<String, String> entry : jsonMap.entrySet()) {
+                Optional<MapDbItem> item = deserialize(entry.getKey(), entry.getValue());
+                if (!item.isPresent()) {
+                    skipped++;
+                } else if (!map.containsKey(entry.getKey())) {
+                    map.put(entry.getKey(), item.get());
+                    migrated++;
+                }
+            }
+            migratedFlag.set(true);
+            db.commit();
+            logger.debug("Migrated {} items of the MapDB persistence, skipped {} unreadable items", migrated, skipped);
+        } catch (RuntimeException | IOError e) {
+            logger.warn("Failed to migrate the MapDB persistence to the binary format: {}", e.getMessage());
+            db.rollback();
+        }
+    }
+
+    private boolean isValid(MapDbItem item) {
+        if (!item.isValid()) {
+            logger.warn("Deserialized invalid item: {}", item);
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<MapDbItem> deserialize(String alias, String json) {
+        MapDbItem item;
+        try {
+            item = mapper.<MapDbItem>fromJson(json, MapDbItem.class);
+        } catch (JsonParseException | IllegalArgumentException e) {
+            logger.warn("Skipping unreadable item '{}' of the MapDB persistence: {}", alias, e.getMessage());
+            return Optional.empty();
+        }
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
             return Optional.empty();
@@ -181,10 +410,26 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         threadPool.submit(() -> db.commit());
     }
 
-    private static <T> Stream<T> streamOptional(Optional<T> opt) {
-        if (!opt.isPresent()) {
-            return Stream.empty();
+    private void writeBatch(Collection<MapDbItem> items) {
+        for (MapDbItem item : items) {
+            map.put(item.getName(), item);
+        }
+        db.commit();
+    }
+
+    private void logStatistics() {
+        MapDbCommitBuffer commitBuffer = this.commitBuffer;
+        if (commitBuffer != null && logger.isDebugEnabled()) {
+            logger.debug("MapDB group commit statistics: {}", commitBuffer);
         }
-        return Stream.of(opt.get());
+    }
+
+    /**
+     * Returns the group commit buffer, which provides the queue depth and commit latency statistics.
+     *
+     * @return the commit buffer or null if group commit is disabled
+     */
+    public @Nullable MapDbCommitBuffer getCommitBuffer() {
+        return commitBuffer;
     }
 }
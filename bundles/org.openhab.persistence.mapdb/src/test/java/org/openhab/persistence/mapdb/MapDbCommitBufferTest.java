@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbCommitBuffer;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+
+/**
+ *
+ * @author agent
+ */
+public class MapDbCommitBufferTest {
+    ScheduledExecutorService scheduler;
+    List<List<MapDbItem>> batches = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void lastValuePerAliasIsCoalescedWithinTheWindow() {
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(100, 60000, 1000, scheduler, this::write);
+        buffer.add(item("a", 1));
+        buffer.add(item("b", 2));
+        buffer.add(item("a", 3));
+
+        assertThat(buffer.getQueueDepth(), is(2));
+        assertThat(buffer.get("a").getState(), is(new DecimalType(3)));
+
+        buffer.flush();
+
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0).size(), is(2));
+        assertThat(buffer.getQueueDepth(), is(0));
+        assertThat(buffer.getCoalescedCount(), is(1L));
+        assertThat(buffer.getCommitCount(), is(1L));
+        assertNull(buffer.get("a"));
+    }
+
+    @Test
+    public void batchIsCommittedWhenWindowElapses() throws InterruptedException {
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(100, 50, 1000, scheduler, this::write);
+        buffer.add(item("a", 1));
+
+        waitForBatches(1);
+        assertThat(batches.get(0).get(0).getName(), is("a"));
+    }
+
+    @Test
+    public void batchIsCommittedWhenBatchSizeIsReached() throws InterruptedException {
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(2, 60000, 1000, scheduler, this::write);
+        buffer.add(item("a", 1));
+        buffer.add(item("b", 2));
+
+        waitForBatches(1);
+        assertThat(batches.get(0).size(), is(2));
+    }
+
+    @Test
+    public void storingThreadCommitsWhenCapacityIsReached() {
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(1, 60000, 1, scheduler, this::write);
+        buffer.add(item("a", 1));
+
+        assertThat(batches.size(), is(1));
+        assertThat(buffer.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void failedBatchIsRetriedWithoutOverwritingNewerItems() {
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(100, 60000, 1000, scheduler, items -> {
+            throw new IllegalStateException("disk full");
+        });
+        buffer.add(item("a", 1));
+        buffer.add(item("b", 2));
+        buffer.flush();
+
+        assertThat(buffer.getFailedCommitCount(), is(1L));
+        assertThat(buffer.getQueueDepth(), is(2));
+        buffer.add(item("a", 3));
+        assertThat(buffer.get("a").getState(), is(new DecimalType(3)));
+        assertThat(buffer.get("b").getState(), is(new DecimalType(2)));
+        assertThat(buffer.getDroppedItemCount(), is(0L));
+    }
+
+    @Test
+    public void failedBatchIsDroppedAfterRepeatedFailures() {
+        List<Collection<MapDbItem>> attempts = new ArrayList<>();
+        MapDbCommitBuffer buffer = new MapDbCommitBuffer(100, 60000, 1000, scheduler, items -> {
+            attempts.add(new ArrayList<>(items));
+            if (attempts.size() <= 3) {
+                throw new IllegalStateException("disk full");
+            }
+            write(items);
+        });
+        buffer.add(item("a", 1));
+        buffer.close();
+
+        assertThat(attempts.size(), is(3));
+        assertThat(buffer.getFailedCommitCount(), is(3L));
+        assertThat(buffer.getDroppedItemCount(), is(1L));
+        assertThat(buffer.getQueueDepth(), is(0));
+        assertNull(buffer.get("a"));
+
+        buffer.add(item("b", 2));
+        buffer.flush();
+        assertThat(batches.size(), is(1));
+        assertThat(buffer.getCommitCount(), is(1L));
+    }
+
+    private void waitForBatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (batches.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(batches.size(), is(count));
+    }
+
+    private void write(Collection<MapDbItem> items) {
+        batches.add(new ArrayList<>(items));
+    }
+
+    private static MapDbItem item(String name, int value) {
+        MapDbItem item = new MapDbItem();
+        item.setName(name);
+        item.setState(new DecimalType(value));
+        return item;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.openhab.persistence.mapdb.internal.MapDbItemSerializer;
+
+/**
+ *
+ * @author agent
+ */
+public class MapDbItemSerializerTest {
+    MapDbItemSerializer serializer = new MapDbItemSerializer();
+
+    @Test
+    public void readWriteRoundtripShouldRecreateTheWrittenState() throws IOException {
+        assertThat(roundtrip(OnOffType.ON), is(equalTo(OnOffType.ON)));
+        assertThat(roundtrip(OnOffType.OFF), is(equalTo(OnOffType.OFF)));
+        assertThat(roundtrip(PercentType.HUNDRED), is(equalTo(PercentType.HUNDRED)));
+        assertThat(roundtrip(HSBType.GREEN), is(equalTo(HSBType.GREEN)));
+        assertThat(roundtrip(new DecimalType("-12.345")), is(equalTo(new DecimalType("-12.345"))));
+        assertThat(roundtrip(StringType.valueOf("test")), is(equalTo(StringType.valueOf("test"))));
+        assertThat(roundtrip(OpenClosedType.CLOSED), is(equalTo(OpenClosedType.CLOSED)));
+    }
+
+    @Test
+    public void decimalsBeyondLongRangeAreKept() throws IOException {
+        DecimalType big = new DecimalType(new BigDecimal("123456789012345678901234567890.123456789"));
+        assertThat(roundtrip(big), is(equalTo(big)));
+    }
+
+    @Test
+    public void primitiveStatesAreSmallerThanGenericOnes() throws IOException {
+        assertTrue(write(item(OnOffType.ON)).length < write(item(OpenClosedType.CLOSED)).length);
+    }
+
+    @Test
+    public void nameAndTimestampAreKept() throws IOException {
+        MapDbItem item = item(new DecimalType(1));
+        MapDbItem read = read(write(item));
+        assertThat(read.getName(), is(item.getName()));
+        assertThat(read.getTimestamp(), is(item.getTimestamp()));
+    }
+
+    private State roundtrip(State state) throws IOException {
+        return read(write(item(state))).getState();
+    }
+
+    private MapDbItem item(State state) {
+        MapDbItem item = new MapDbItem();
+        item.setName("item");
+        item.setState(state);
+        item.setTimestamp(new Date(1546300800123L));
+        return item;
+    }
+
+    private byte[] write(MapDbItem item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.serialize(new DataOutputStream(bytes), item);
+        return bytes.toByteArray();
+    }
+
+    private MapDbItem read(byte[] bytes) throws IOException {
+        return serializer.deserialize(new DataInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+    }
+}
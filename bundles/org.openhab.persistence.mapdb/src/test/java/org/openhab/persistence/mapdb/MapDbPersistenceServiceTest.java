@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.library.items.StringItem;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openhab.persistence.mapdb.internal.MapDbItem;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.openhab.persistence.mapdb.internal.MapDbPersistenceService;
+import org.openhab.persistence.mapdb.internal.StateTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ *
+ * @author agent
+ */
+public class MapDbPersistenceServiceTest {
+    private static final int ITEMS = 1000;
+
+    private static Path userData;
+
+    private MapDbPersistenceService service;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        // the database folder is taken from the user data folder when the service class is initialized
+        userData = Files.createTempDirectory("mapdb");
+        System.setProperty(ConfigConstants.USERDATA_DIR_PROG_ARGUMENT, userData.toString());
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        System.clearProperty(ConfigConstants.USERDATA_DIR_PROG_ARGUMENT);
+        removeDirRecursive(userData);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        service.deactivate();
+        removeDirRecursive(userData.resolve("persistence"));
+    }
+
+    private static void removeDirRecursive(Path path) throws IOException {
+        if (Files.exists(path)) {
+            Files.walk(path).map(Path::toFile).sorted((a, b) -> b.compareTo(a)).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void allItemsAreRestoredAfterRestart() {
+        Map<String, Object> config = groupCommit();
+        service = activate(config);
+        for (int i = 0; i < ITEMS; i++) {
+            store("item" + i, "value" + i);
+        }
+        service.deactivate();
+
+        service = activate(config);
+        assertThat(service.getItemInfo().size(), is(ITEMS));
+        for (int i = 0; i < ITEMS; i++) {
+            assertThat(query("item" + i).getState(), is(new StringType("value" + i)));
+        }
+    }
+
+    @Test
+    public void itemsBeyondTheCacheSizeAreRestoredOnDemand() {
+        Map<String, Object> config = groupCommit();
+        config.put("cacheSize", 10);
+        service = activate(config);
+        for (int i = 0; i < ITEMS; i++) {
+            store("item" + i, "value" + i);
+        }
+        service.deactivate();
+
+        service = activate(config);
+        for (int i = ITEMS - 1; i >= 0; i--) {
+            assertThat(query("item" + i).getState(), is(new StringType("value" + i)));
+        }
+        assertThat(service.getItemInfo().size(), is(ITEMS));
+    }
+
+    @Test
+    public void storeReplacesTheCachedItem() {
+        service = activate(null);
+        store("item", "first");
+        assertThat(query("item").getState(), is(new StringType("first")));
+
+        store("item", "second");
+        assertThat(query("item").getState(), is(new StringType("second")));
+    }
+
+    @Test
+    public void storeReplacesTheCachedItemWithGroupCommit() {
+        service = activate(groupCommit());
+        store("item", "first");
+        assertThat(query("item").getState(), is(new StringType("first")));
+
+        store("item", "second");
+        assertThat(query("item").getState(), is(new StringType("second")));
+        assertThat(service.getItemInfo().size(), is(1));
+    }
+
+    @Test
+    public void queriedItemsAreCopies() {
+        service = activate(null);
+        store("item", "first");
+
+        MapDbItem item = (MapDbItem) query("item");
+        item.setState(new StringType("changed"));
+
+        assertThat(query("item").getState(), is(new StringType("first")));
+        assertThat(query("item"), is(not(sameInstance(query("item")))));
+    }
+
+    @Test
+    public void jsonStoreOfPreviousVersionsIsMigratedAndKept() throws IOException {
+        Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+        MapDbItem oldItem = new MapDbItem();
+        oldItem.setName("item");
+        oldItem.setState(new StringType("old"));
+        oldItem.setTimestamp(new Date());
+        DB db = openDatabase();
+        Map<String, String> jsonStore = db.getTreeMap("itemStore");
+        jsonStore.put("item", mapper.toJson(oldItem));
+        db.commit();
+        db.close();
+
+        Map<String, Object> config = groupCommit();
+        service = activate(config);
+        assertThat(query("item").getState(), is(new StringType("old")));
+        store("item", "new");
+        service.deactivate();
+
+        // the JSON store is kept for downgrades, but not migrated again
+        db = openDatabase();
+        assertTrue(db.exists("itemStore"));
+        db.close();
+        service = activate(config);
+        assertThat(query("item").getState(), is(new StringType("new")));
+    }
+
+    @Test
+    public void unknownItemIsNotFound() {
+        service = activate(null);
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName("unknown");
+
+        assertFalse(service.query(filter).iterator().hasNext());
+    }
+
+    private static DB openDatabase() throws IOException {
+        Path folder = Files.createDirectories(userData.resolve("persistence").resolve("mapdb"));
+        return DBMaker.newFileDB(folder.resolve("storage.mapdb").toFile()).make();
+    }
+
+    private static Map<String, Object> groupCommit() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("groupCommit", true);
+        config.put("commitWindowMillis", 60000);
+        return config;
+    }
+
+    private static MapDbPersistenceService activate(Map<String, Object> config) {
+        MapDbPersistenceService service = new MapDbPersistenceService();
+        service.activate(config);
+        return service;
+    }
+
+    private void store(String name, String value) {
+        StringItem item = new StringItem(name);
+        item.setState(new StringType(value));
+        service.store(item);
+    }
+
+    private HistoricItem query(String name) {
+        FilterCriteria filter = new FilterCriteria();
+        filter.setItemName(name);
+        return service.query(filter).iterator().next();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.util.HexUtils;
+import org.openhab.transform.bin2json.internal.Bin2JsonTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link Bin2JsonTransformationService} with a three byte message and with a message of a header,
+ * 64 readings and a checksum. <code>hexString</code> passes the message as a hex string, like the
+ * transformation service does, <code>bytes</code> passes the raw bytes.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Bin2JsonBenchmark {
+
+    private static final String SMALL_SYNTAX = "byte a; byte b; ubyte c;";
+    private static final String LARGE_SYNTAX = "header { ubyte id; ushort length; } int [64] readings; ubyte crc;";
+
+    @Param({ "small", "large" })
+    public String message;
+
+    private final Bin2JsonTransformationService service = new Bin2JsonTransformationService();
+    private String syntax;
+    private byte[] bytes;
+    private String hex;
+
+    @Setup
+    public void setUp() {
+        if ("small".equals(message)) {
+            syntax = SMALL_SYNTAX;
+            bytes = new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF };
+        } else {
+            syntax = LARGE_SYNTAX;
+            bytes = new byte[1 + 2 + 64 * 4 + 1];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (i * 31);
+            }
+        }
+        hex = HexUtils.bytesToHex(bytes);
+    }
+
+    @Benchmark
+    public String hexString() throws TransformationException {
+        return service.transform(syntax, hex);
+    }
+
+    @Benchmark
+    public String bytes() throws TransformationException {
+        return service.transform(syntax, bytes);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.map.internal.MapTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link MapTransformationService} with map files of different sizes. The files map device codes
+ * to a small set of labels and have a default entry.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int mapSize;
+
+    private MapTransformationService service;
+    private String filename;
+    private String mappedKey;
+
+    @Setup
+    public void setUp() throws IOException {
+        filename = "map/codes_" + mapSize + ".map";
+        StringBuilder map = new StringBuilder(mapSize * 24);
+        for (int i = 0; i < mapSize; i++) {
+            map.append("CODE_").append(i).append("=State ").append(i % 16).append('\n');
+        }
+        map.append("=Unknown\n");
+        TransformFolder.write(filename, map.toString());
+
+        service = new MapTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                return Locale.US;
+            }
+        };
+        mappedKey = "CODE_" + mapSize / 2;
+    }
+
+    @Benchmark
+    public String mappedKey() throws TransformationException {
+        return service.transform(filename, mappedKey);
+    }
+
+    @Benchmark
+    public String defaultValue() throws TransformationException {
+        return service.transform(filename, "CODE_UNMAPPED");
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+/**
+ * Generates the documents of a gateway that reports a number of devices, as received from a typical HTTP or MQTT
+ * API. A small document describes a handful of devices and is a few hundred bytes, a large one describes
+ * hundreds of devices and is tens of kilobytes.
+ * <p>
+ * Documents with a different <code>variant</code> have the same structure but different values, so that caches
+ * of parsed documents can be bypassed.
+ *
+ * @author agent
+ */
+final class Payloads {
+
+    /** the device all benchmarks extract a value of, present in every document */
+    static final String DEVICE = "device3";
+
+    private Payloads() {
+    }
+
+    static String json(int devices, int variant) {
+        StringBuilder json = new StringBuilder(devices * 100);
+        json.append("{\"gateway\":\"gw1\",\"timestamp\":").append(1546300800L + variant).append(",\"devices\":[");
+        for (int i = 0; i < devices; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"device").append(i).append("\",\"name\":\"Device ").append(i)
+                    .append("\",\"online\":true,\"temperature\":").append(temperature(i, variant))
+                    .append(",\"humidity\":").append(humidity(i, variant)).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    static String xml(int devices, int variant) {
+        StringBuilder xml = new StringBuilder(devices * 140);
+        xml.append("<?xml version=\"1.0\"?><gateway id=\"gw1\" timestamp=\"").append(1546300800L + variant)
+                .append("\">");
+        for (int i = 0; i < devices; i++) {
+            xml.append("<device id=\"device").append(i).append("\" online=\"true\"><name>Device ").append(i)
+                    .append("</name><temperature>").append(temperature(i, variant))
+                    .append("</temperature><humidity>").append(humidity(i, variant))
+                    .append("</humidity></device>");
+        }
+        return xml.append("</gateway>").toString();
+    }
+
+    private static String temperature(int device, int variant) {
+        return (15 + (device * 7 + variant) % 15) + "." + (device + variant) % 10;
+    }
+
+    private static int humidity(int device, int variant) {
+        return 30 + (device * 3 + variant) % 50;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.regex.internal.RegExTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link RegExTransformationService} with its extracting and its substituting form.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegExBenchmark {
+
+    private static final String EXTRACT = ".*\"id\":\"" + Payloads.DEVICE + "\".*?\"temperature\":([0-9.]+).*";
+    private static final String SUBSTITUTE = "s/,\"online\":true//g";
+
+    @Param({ "5", "1000" })
+    public int devices;
+
+    private final RegExTransformationService service = new RegExTransformationService();
+    private String document;
+
+    @Setup
+    public void setUp() {
+        document = Payloads.json(devices, 0);
+    }
+
+    @Benchmark
+    public String extract() throws TransformationException {
+        return service.transform(EXTRACT, document);
+    }
+
+    @Benchmark
+    public String substitute() throws TransformationException {
+        return service.transform(SUBSTITUTE, document);
+    }
+}
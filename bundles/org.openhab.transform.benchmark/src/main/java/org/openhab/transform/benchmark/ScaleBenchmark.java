@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.scale.internal.ScaleTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link ScaleTransformationService} with scale files of different sizes, for a plain number and
+ * for a quantity.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScaleBenchmark {
+
+    @Param({ "6", "60", "600" })
+    public int ranges;
+
+    private ScaleTransformationService service;
+    private String filename;
+    private String number;
+    private String quantity;
+
+    @Setup
+    public void setUp() throws IOException {
+        filename = "scale/ranges_" + ranges + ".scale";
+        StringBuilder scale = new StringBuilder(ranges * 24);
+        for (int i = 0; i < ranges; i++) {
+            scale.append('[').append(i * 10).append("..").append((i + 1) * 10).append("[=Level ").append(i)
+                    .append('\n');
+        }
+        TransformFolder.write(filename, scale.toString());
+
+        service = new ScaleTransformationService() {
+            @Override
+            protected Locale getLocale() {
+                return Locale.US;
+            }
+        };
+        // a value in the last range
+        number = String.valueOf(ranges * 10 - 5);
+        quantity = number + " °C";
+    }
+
+    @Benchmark
+    public String number() throws TransformationException {
+        return service.transform(filename, number);
+    }
+
+    @Benchmark
+    public String quantity() throws TransformationException {
+        return service.transform(filename, quantity);
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.TransformationService;
+
+/**
+ * A temporary configuration folder for the file based transformation services. It is made the configuration folder
+ * of the benchmark JVM before any service is created and is removed when the JVM exits.
+ *
+ * @author agent
+ */
+final class TransformFolder {
+
+    private static Path folder;
+
+    private TransformFolder() {
+    }
+
+    /**
+     * Writes a transformation file unless it already exists.
+     *
+     * @param filename the name of the file relative to the transform folder, as passed to the service
+     * @param content the content of the file
+     */
+    static synchronized void write(String filename, String content) throws IOException {
+        Path file = get().resolve(filename);
+        if (Files.exists(file)) {
+            return;
+        }
+        Path parent = file.getParent();
+        if (!Files.isDirectory(parent)) {
+            Files.createDirectories(parent).toFile().deleteOnExit();
+        }
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        file.toFile().deleteOnExit();
+    }
+
+    private static Path get() throws IOException {
+        if (folder == null) {
+            Path config = Files.createTempDirectory("openhab-transform-benchmark");
+            config.toFile().deleteOnExit();
+            System.setProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT, config.toString());
+            folder = Files.createDirectories(config.resolve(TransformationService.TRANSFORM_FOLDER_NAME));
+            folder.toFile().deleteOnExit();
+        }
+        return folder;
+    }
+}
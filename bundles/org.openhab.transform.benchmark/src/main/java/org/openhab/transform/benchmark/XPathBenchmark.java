@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.xpath.internal.XPathTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link XPathTransformationService}.
+ * <p>
+ * <code>sameDocument</code> extracts a value from a document that was seen before, like several channels do with
+ * the same message. <code>newDocument</code> extracts a value from a document that has to be parsed first.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XPathBenchmark {
+
+    /** more documents than the service caches, a power of two */
+    private static final int DOCUMENTS = 64;
+
+    private static final String EXPRESSION = "/gateway/device[@id='" + Payloads.DEVICE + "']/temperature/text()";
+
+    @Param({ "5", "1000" })
+    public int devices;
+
+    private final XPathTransformationService service = new XPathTransformationService();
+    private final String[] documents = new String[DOCUMENTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents[i] = Payloads.xml(devices, i);
+        }
+    }
+
+    @Benchmark
+    public String sameDocument() throws TransformationException {
+        return service.transform(EXPRESSION, documents[0]);
+    }
+
+    @Benchmark
+    public String newDocument() throws TransformationException {
+        return service.transform(EXPRESSION, documents[next++ & (DOCUMENTS - 1)]);
+    }
+}
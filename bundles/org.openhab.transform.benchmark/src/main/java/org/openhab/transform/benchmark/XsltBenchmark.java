@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.openhab.transform.xslt.internal.XsltTransformationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link XsltTransformationService} with a stylesheet that extracts the value of one device.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XsltBenchmark {
+
+    private static final String STYLESHEET = "xslt/temperature.xsl";
+
+    @Param({ "5", "1000" })
+    public int devices;
+
+    private XsltTransformationService service;
+    private String document;
+
+    @Setup
+    public void setUp() throws IOException {
+        TransformFolder.write(STYLESHEET,
+                "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+                        + "<xsl:output method=\"text\"/><xsl:template match=\"/\">"
+                        + "<xsl:value-of select=\"/gateway/device[@id='" + Payloads.DEVICE + "']/temperature\"/>"
+                        + "</xsl:template></xsl:stylesheet>");
+        // the service resolves the transform folder when it is loaded
+        service = new XsltTransformationService();
+        document = Payloads.xml(devices, 0);
+    }
+
+    @Benchmark
+    public String transform() throws TransformationException {
+        return service.transform(STYLESHEET, document);
+    }
+}
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.igormaznitsa.jbbp.JBBPParser;
@@ -66,6 +67,8 @@ import com.igormaznitsa.jbbp.model.JBBPFieldUShort;
  * json.toString() = {"a":3,"b":-6,"c":255}
  * </pre>
  *
+ * The parser rule is compiled once by the constructor, instances can be reused and shared between threads.
+ *
  * @author Pauli Anttila - Initial contribution
  *
  */
@@ -84,7 +87,7 @@ public class Bin2Json {
         try {
             parser = JBBPParser.prepare(parserRule);
         } catch (JBBPException e) {
-            throw new ConversionException(String.format("Illegal parser rule, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Illegal parser rule, reason: " + e.getMessage(), e);
         }
     }
 
@@ -99,7 +102,7 @@ public class Bin2Json {
         try {
             return convert(HexUtils.hexToBytes(hexString));
         } catch (IllegalArgumentException e) {
-            throw new ConversionException(String.format("Illegal hexstring , reason: %s", e.getMessage(), e));
+            throw new ConversionException("Illegal hexstring , reason: " + e.getMessage(), e);
         }
     }
 
@@ -114,9 +117,9 @@ public class Bin2Json {
         try {
             return convert(parser.parse(data));
         } catch (IOException e) {
-            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
         } catch (JBBPException e) {
-            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
         }
     }
 
@@ -131,10 +134,40 @@ public class Bin2Json {
         try {
             return convert(parser.parse(inputStream));
         } catch (IOException e) {
-            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
+        } catch (JBBPException e) {
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convert a single field of the byte array to JSON, without converting the other fields.
+     *
+     * @param data Data in byte array format.
+     * @param fieldPath Path of the field, field names of nested structures separated by dots. Example: struct.a
+     * @return Gson {@link JsonElement} of the field: a primitive, an array or an object for structures
+     * @throws ConversionException if the data cannot be parsed or the field does not exist
+     */
+    public JsonElement extract(byte[] data, String fieldPath) throws ConversionException {
+        final JBBPAbstractField field;
+        try {
+            field = parser.parse(data).findFieldForPath(fieldPath);
+        } catch (IOException e) {
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
+        } catch (JBBPException e) {
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
+        }
+        if (field == null) {
+            throw new ConversionException(String.format("Field '%s' not found", fieldPath));
+        }
+        // convert into a holder object, which keeps the conversion of all field types in one place
+        final JsonObject holder = new JsonObject();
+        try {
+            convertToJSon(holder, field);
         } catch (JBBPException e) {
-            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
         }
+        return holder.entrySet().iterator().next().getValue();
     }
 
     private JsonObject convert(JBBPFieldStruct data) throws ConversionException {
@@ -147,7 +180,7 @@ public class Bin2Json {
             }
             return json;
         } catch (JBBPException e) {
-            throw new ConversionException(String.format("Unexpected error, reason: %s", e.getMessage(), e));
+            throw new ConversionException("Unexpected error, reason: " + e.getMessage(), e);
         }
     }
 
@@ -12,10 +12,14 @@
  */
 package org.openhab.transform.bin2json.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.core.util.HexUtils;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,14 +28,30 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * hexa string formatted binary data by Binary Block Parser syntax to JSON format.
  *
+ * Compiled parsers are cached by syntax, the least recently used one is dropped when the cache is full. Besides the {@link TransformationService} interface, binary data can be
+ * transformed directly from byte arrays, and single fields can be extracted without converting the whole data.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=BIN2JSON" })
+@Component(immediate = true, service = { TransformationService.class,
+        Bin2JsonTransformationService.class }, property = { "smarthome.transform=BIN2JSON" })
 public class Bin2JsonTransformationService implements TransformationService {
 
+    private static final int MAX_CACHED_PARSERS = 256;
+
     private Logger logger = LoggerFactory.getLogger(Bin2JsonTransformationService.class);
 
+    /** compiled parsers by syntax in access order, guarded by itself */
+    private final Map<String, Bin2Json> parsers = new LinkedHashMap<String, Bin2Json>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bin2Json> eldest) {
+            return size() > MAX_CACHED_PARSERS;
+        }
+    };
+
     /**
      * Transforms the input <code>source</code> by Java Binary Block Parser syntax.
      *
@@ -40,13 +60,33 @@ public class Bin2JsonTransformationService implements TransformationService {
      */
     @Override
     public @Nullable String transform(String syntax, String source) throws TransformationException {
+        final byte[] data;
+        try {
+            data = HexUtils.hexToBytes(source);
+        } catch (IllegalArgumentException e) {
+            throw new TransformationException("An error occurred while executing the converter. "
+                    + String.format("Illegal hexstring , reason: %s", e.getMessage()), e);
+        }
+        return transform(syntax, data);
+    }
+
+    /**
+     * Transforms the binary input <code>source</code> by Java Binary Block Parser syntax.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param source the input to transform
+     * @return the data in JSON format
+     */
+    public String transform(String syntax, byte[] source) throws TransformationException {
         final long startTime = System.currentTimeMillis();
-        logger.debug("About to transform '{}' by the Bin2Json syntax '{}'", source, syntax);
+        if (logger.isDebugEnabled()) {
+            logger.debug("About to transform '{}' by the Bin2Json syntax '{}'", HexUtils.bytesToHex(source), syntax);
+        }
 
         String result = "";
 
         try {
-            result = String.valueOf(new Bin2Json(syntax).convert(source));
+            result = String.valueOf(getParser(syntax).convert(source));
             logger.debug("transformation resulted '{}'", result);
             return result;
         } catch (ConversionException e) {
@@ -56,4 +96,39 @@ public class Bin2JsonTransformationService implements TransformationService {
                     result);
         }
     }
+
+    /**
+     * Extracts a single field of the binary input <code>source</code> parsed by Java Binary Block Parser syntax.
+     *
+     * @param syntax Java Binary Block Parser syntax.
+     * @param fieldPath path of the field, field names of nested structures separated by dots
+     * @param source the input to transform
+     * @return the field value, arrays and structures in JSON format
+     */
+    public String extractField(String syntax, String fieldPath, byte[] source) throws TransformationException {
+        try {
+            String result = getParser(syntax).extract(source, fieldPath).toString();
+            logger.debug("extraction of field '{}' resulted '{}'", fieldPath, result);
+            return result;
+        } catch (ConversionException e) {
+            throw new TransformationException("An error occurred while executing the converter. " + e.getMessage(), e);
+        }
+    }
+
+    Bin2Json getParser(String syntax) throws ConversionException {
+        synchronized (parsers) {
+            Bin2Json parser = parsers.get(syntax);
+            if (parser == null) {
+                parser = new Bin2Json(syntax);
+                parsers.put(syntax, parser);
+            }
+            return parser;
+        }
+    }
+
+    int getCachedParserCount() {
+        synchronized (parsers) {
+            return parsers.size();
+        }
+    }
 }
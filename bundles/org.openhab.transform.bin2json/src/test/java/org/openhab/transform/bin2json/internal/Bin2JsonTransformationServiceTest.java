@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.bin2json.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class Bin2JsonTransformationServiceTest {
+
+    private static final String SYNTAX = "byte a; byte b; ubyte c;";
+    private static final String NESTED_SYNTAX = "ubyte a; s { ubyte b; ushort c; } ubyte [2] arr;";
+
+    private Bin2JsonTransformationService service;
+
+    @Before
+    public void setUp() {
+        service = new Bin2JsonTransformationService();
+    }
+
+    @Test
+    public void testTransformHexString() throws TransformationException {
+        assertThat(service.transform(SYNTAX, "03FAFF"), is("{\"a\":3,\"b\":-6,\"c\":255}"));
+    }
+
+    @Test
+    public void testTransformBytes() throws TransformationException {
+        assertThat(service.transform(SYNTAX, new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF }),
+                is("{\"a\":3,\"b\":-6,\"c\":255}"));
+    }
+
+    @Test
+    public void testTransformBytesSameAsHexString() throws TransformationException {
+        byte[] data = new byte[] { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06 };
+        assertThat(service.transform(NESTED_SYNTAX, data), is(service.transform(NESTED_SYNTAX, "010203040506")));
+    }
+
+    @Test
+    public void testParserIsCached() throws ConversionException, TransformationException {
+        Bin2Json parser = service.getParser(SYNTAX);
+
+        service.transform(SYNTAX, "03FAFF");
+        service.transform(SYNTAX, new byte[] { 0x01, 0x02, 0x03 });
+
+        assertThat(service.getParser(SYNTAX), is(sameInstance(parser)));
+        assertThat(service.getCachedParserCount(), is(1));
+    }
+
+    @Test
+    public void testParsersAreCachedPerSyntax() throws ConversionException {
+        Bin2Json parser = service.getParser(SYNTAX);
+        Bin2Json nestedParser = service.getParser(NESTED_SYNTAX);
+
+        assertThat(nestedParser, is(not(sameInstance(parser))));
+        assertThat(service.getParser(SYNTAX), is(sameInstance(parser)));
+        assertThat(service.getParser(NESTED_SYNTAX), is(sameInstance(nestedParser)));
+    }
+
+    @Test
+    public void testParserCacheIsBounded() throws ConversionException {
+        for (int i = 0; i < 300; i++) {
+            service.getParser("byte [" + (i + 1) + "] a;");
+        }
+
+        assertThat(service.getCachedParserCount(), is(256));
+    }
+
+    @Test
+    public void testTransformAfterParsersWereEvicted() throws ConversionException, TransformationException {
+        service.getParser(SYNTAX);
+        for (int i = 0; i < 300; i++) {
+            service.getParser("byte [" + (i + 1) + "] a;");
+        }
+
+        assertThat(service.transform(SYNTAX, "03FAFF"), is("{\"a\":3,\"b\":-6,\"c\":255}"));
+        assertThat(service.getCachedParserCount(), is(256));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedParserIsEvicted() throws ConversionException {
+        Bin2Json parser = service.getParser(SYNTAX);
+        Bin2Json nestedParser = service.getParser(NESTED_SYNTAX);
+        for (int i = 0; i < 254; i++) {
+            service.getParser("byte [" + (i + 1) + "] a;");
+        }
+
+        // using the first parser again makes the nested one the least recently used
+        assertThat(service.getParser(SYNTAX), is(sameInstance(parser)));
+        service.getParser("byte [1000] a;");
+
+        assertThat(service.getParser(SYNTAX), is(sameInstance(parser)));
+        assertThat(service.getParser(NESTED_SYNTAX), is(not(sameInstance(nestedParser))));
+    }
+
+    @Test
+    public void testExtractField() throws TransformationException {
+        byte[] data = new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF };
+
+        assertThat(service.extractField(SYNTAX, "a", data), is("3"));
+        assertThat(service.extractField(SYNTAX, "b", data), is("-6"));
+        assertThat(service.extractField(SYNTAX, "c", data), is("255"));
+    }
+
+    @Test
+    public void testExtractNestedField() throws TransformationException {
+        byte[] data = new byte[] { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06 };
+
+        assertThat(service.extractField(NESTED_SYNTAX, "s.b", data), is("2"));
+        assertThat(service.extractField(NESTED_SYNTAX, "s.c", data), is("772"));
+        assertThat(service.extractField(NESTED_SYNTAX, "s", data), is("{\"b\":2,\"c\":772}"));
+        assertThat(service.extractField(NESTED_SYNTAX, "arr", data), is("[5,6]"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testExtractUnknownField() throws TransformationException {
+        service.extractField(SYNTAX, "d", new byte[] { 0x03, (byte) 0xFA, (byte) 0xFF });
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testExtractFieldFromTooShortData() throws TransformationException {
+        service.extractField(SYNTAX, "c", new byte[] { 0x03 });
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformIllegalHexString() throws TransformationException {
+        service.transform(SYNTAX, "03FAXX");
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformTooShortData() throws TransformationException {
+        service.transform(SYNTAX, new byte[] { 0x03, (byte) 0xFA });
+    }
+
+    @Test
+    public void testIllegalSyntaxIsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.transform("byte a; unknown b;", "03FA");
+                fail("the illegal syntax was accepted");
+            } catch (TransformationException e) {
+                assertThat(e.getCause(), is(instanceOf(ConversionException.class)));
+                // the parser error is kept as cause
+                assertThat(e.getCause().getCause(), is(notNullValue()));
+            }
+        }
+        assertThat(service.getCachedParserCount(), is(0));
+    }
+}
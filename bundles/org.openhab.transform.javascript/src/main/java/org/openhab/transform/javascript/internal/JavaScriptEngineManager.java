@@ -13,12 +13,14 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.script.Compilable;
 import javax.script.CompiledScript;
@@ -27,6 +29,7 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
@@ -35,6 +38,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Simple cache for compiled JavaScript files.
  *
+ * Script engines are not thread-safe, so each thread evaluates with its own engine and its own compiled copy of the
+ * script. Lookups of cached scripts do not lock.
+ *
  * @author Thomas Kordelle - pre compiled scripts
  *
  */
@@ -42,39 +48,183 @@ import org.slf4j.LoggerFactory;
 @Component(service = JavaScriptEngineManager.class)
 public class JavaScriptEngineManager {
 
+    /**
+     * Source of a script and its compiled copies, one for each thread.
+     */
+    private class ScriptEntry {
+        private final String filename;
+        private final String source;
+        private final ThreadLocal<@Nullable CompiledScript> compiledScripts = new ThreadLocal<>();
+
+        ScriptEntry(String filename, String source) {
+            this.filename = filename;
+            this.source = source;
+        }
+
+        CompiledScript getCompiledScript() throws TransformationException {
+            CompiledScript compiledScript = compiledScripts.get();
+            if (compiledScript == null) {
+                logger.debug("Compiling JavaScript {} for thread {}.", filename, Thread.currentThread().getName());
+                try {
+                    compiledScript = ((Compilable) getEngine()).compile(source);
+                } catch (ScriptException e) {
+                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
+                            e);
+                }
+                compiledScripts.set(compiledScript);
+            }
+            return compiledScript;
+        }
+    }
+
+    /**
+     * Execution statistics of a script.
+     */
+    public static class ScriptMetrics {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+
+        void record(long nanos) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void recordFailure() {
+            failures.increment();
+        }
+
+        void recordTimeout() {
+            timeouts.increment();
+        }
+
+        void recordRejection() {
+            rejections.increment();
+        }
+
+        /**
+         * @return number of completed executions
+         */
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        /**
+         * @return total execution time of completed executions in milliseconds
+         */
+        public long getTotalMillis() {
+            return totalNanos.sum() / 1_000_000;
+        }
+
+        /**
+         * @return longest execution time in milliseconds
+         */
+        public long getMaxMillis() {
+            return maxNanos.get() / 1_000_000;
+        }
+
+        /**
+         * @return number of failed executions, including the ones aborted by the timeout
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * @return number of executions aborted by the timeout
+         */
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        /**
+         * @return number of executions refused since all threads were busy
+         */
+        public long getRejections() {
+            return rejections.sum();
+        }
+
+        @Override
+        public String toString() {
+            long executions = getExecutions();
+            return String.format(
+                    "{executions: %d, average: %.3f ms, max: %d ms, failures: %d, timeouts: %d, rejections: %d}",
+                    executions, executions == 0 ? 0.0 : totalNanos.sum() / 1e6 / executions, getMaxMillis(),
+                    getFailures(), getTimeouts(), getRejections());
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final ThreadLocal<@Nullable ScriptEngine> engines = new ThreadLocal<>();
+    private final Map<String, ScriptEntry> scriptMap = new ConcurrentHashMap<>();
+    private final Map<String, ScriptMetrics> metricsMap = new ConcurrentHashMap<>();
+
+    private ScriptEngine getEngine() {
+        ScriptEngine engine = engines.get();
+        if (engine == null) {
+            engine = manager.getEngineByName("javascript");
+            engines.set(engine);
+        }
+        return engine;
+    }
 
     /**
      * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
      * storage and put a pre compiled version into the cache.
      *
+     * The returned script is compiled by the engine of the calling thread and must only be evaluated by that thread.
+     *
      * @param filename name of the JavaScript file to load
      * @return a pre compiled script {@link CompiledScript}
      * @throws TransformationException if compile of JavaScript failed
      */
     protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
+        ScriptEntry entry = scriptMap.get(filename);
+        if (entry == null) {
+            final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading script {} from storage ", path);
+            try {
+                entry = new ScriptEntry(filename, new String(Files.readAllBytes(Paths.get(path))));
+            } catch (IOException e) {
+                throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+            }
+            // Compile before caching, so that scripts with syntax errors are not cached
+            CompiledScript compiledScript = entry.getCompiledScript();
+            logger.debug("Putting compiled JavaScript {} to cache.", compiledScript);
+            ScriptEntry previous = scriptMap.putIfAbsent(filename, entry);
+            if (previous != null) {
+                entry = previous;
             } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
+                return compiledScript;
             }
+        } else {
+            logger.debug("Loading JavaScript {} from cache.", filename);
         }
+        return entry.getCompiledScript();
+    }
+
+    /**
+     * Get the execution statistics of a script.
+     *
+     * @param filename name of the JavaScript file
+     * @return statistics of the script, kept also when the script is reloaded
+     */
+    public ScriptMetrics getMetrics(final String filename) {
+        return metricsMap.computeIfAbsent(filename, name -> new ScriptMetrics());
+    }
+
+    /**
+     * Get the execution statistics of all scripts executed so far.
+     *
+     * @return statistics by script file name
+     */
+    public Map<String, ScriptMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metricsMap);
     }
 
     /**
@@ -84,6 +234,6 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        scriptMap.remove(fileName);
     }
 }
@@ -12,6 +12,17 @@
  */
 package org.openhab.transform.javascript.internal;
 
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
@@ -20,7 +31,11 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
+import org.openhab.transform.javascript.internal.JavaScriptEngineManager.ScriptMetrics;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,15 +44,29 @@ import org.slf4j.LoggerFactory;
  * The implementation of {@link TransformationService} which transforms the
  * input by Java Script.
  *
+ * By default scripts are evaluated by the calling thread. If a timeout is configured, scripts are evaluated by a
+ * dedicated pool of daemon threads, so that a script running longer than the timeout does not block the caller. When
+ * all threads of the pool are busy, the transformation fails right away.
+ *
  * @author Pauli Anttila - Initial contribution
  * @author Thomas Kordelle - pre compiled scripts
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=JS" })
+@Component(immediate = true, service = { TransformationService.class,
+        JavaScriptTransformationService.class }, property = {
+                "smarthome.transform=JS" }, configurationPid = "org.openhab.transform.javascript")
 public class JavaScriptTransformationService implements TransformationService {
 
+    private static final String THREAD_NAME_PREFIX = "OH-javascriptTransformation-";
+    private static final String CONFIG_TIMEOUT = "timeout";
+    private static final String CONFIG_THREADS = "threads";
+    private static final long DEFAULT_TIMEOUT_MILLIS = 0;
+    private static final int DEFAULT_THREADS = 5;
+
     private Logger logger = LoggerFactory.getLogger(JavaScriptTransformationService.class);
     private @NonNullByDefault({}) JavaScriptEngineManager manager;
+    private @Nullable ThreadPoolExecutor executor;
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
 
     @Reference
     public void setJavaScriptEngineManager(JavaScriptEngineManager manager) {
@@ -48,6 +77,71 @@ public class JavaScriptTransformationService implements TransformationService {
         this.manager = null;
     }
 
+    @Activate
+    @Modified
+    protected synchronized void activate(@Nullable Map<String, Object> config) {
+        long timeout = getConfigValue(config, CONFIG_TIMEOUT, DEFAULT_TIMEOUT_MILLIS);
+        int threads = (int) Math.max(1, getConfigValue(config, CONFIG_THREADS, DEFAULT_THREADS));
+
+        ThreadPoolExecutor executor = this.executor;
+        if (executor != null && (timeout <= 0 || executor.getMaximumPoolSize() != threads)) {
+            // running scripts finish on the old pool
+            executor.shutdown();
+            this.executor = null;
+        }
+        if (timeout > 0 && this.executor == null) {
+            this.executor = createExecutor(threads);
+        }
+        timeoutMillis = timeout;
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor != null) {
+            executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    private long getConfigValue(@Nullable Map<String, Object> config, String key, long defaultValue) {
+        Object value = config == null ? null : config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid JavaScript {} '{}', using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Creates the pool evaluating scripts with a timeout. The pool does not queue scripts, so that a caller fails right
+     * away instead of waiting behind scripts which do not finish.
+     */
+    private static ThreadPoolExecutor createExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Get the execution statistics of a script. The service is registered by its class as well, so that the statistics
+     * can be queried, e.g. from the console.
+     *
+     * @param filename name of the JavaScript file
+     * @return statistics of the script
+     */
+    public ScriptMetrics getMetrics(String filename) {
+        return manager.getMetrics(filename);
+    }
+
     /**
      * Transforms the input <code>source</code> by Java Script. It expects the
      * transformation rule to be read from a file which is stored under the
@@ -65,22 +159,76 @@ public class JavaScriptTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        final long startTime = System.currentTimeMillis();
+        final long startTime = System.nanoTime();
         logger.debug("about to transform '{}' by the JavaScript '{}'", source, filename);
 
         String result = "";
+        ScriptMetrics metrics = manager.getMetrics(filename);
 
         try {
-            final CompiledScript cScript = manager.getScript(filename);
-            final Bindings bindings = cScript.getEngine().createBindings();
-            bindings.put("input", source);
-            result = String.valueOf(cScript.eval(bindings));
+            long timeoutMillis = this.timeoutMillis;
+            ExecutorService executor = this.executor;
+            if (timeoutMillis <= 0 || executor == null) {
+                result = evaluate(filename, source);
+            } else {
+                result = evaluateWithTimeout(executor, filename, source, timeoutMillis, metrics);
+            }
+            metrics.record(System.nanoTime() - startTime);
             return result;
         } catch (ScriptException e) {
+            metrics.recordFailure();
             throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
+        } catch (TransformationException e) {
+            metrics.recordFailure();
+            throw e;
         } finally {
-            logger.trace("JavaScript execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
-                    result);
+            logger.trace("JavaScript execution elapsed {} ms. Result: {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), result);
+        }
+    }
+
+    private String evaluate(String filename, String source) throws TransformationException, ScriptException {
+        // the script is compiled by the engine of this thread, so the bindings do not need to be synchronized
+        final CompiledScript cScript = manager.getScript(filename);
+        final Bindings bindings = cScript.getEngine().createBindings();
+        bindings.put("input", source);
+        return String.valueOf(cScript.eval(bindings));
+    }
+
+    private String evaluateWithTimeout(ExecutorService executor, String filename, String source, long timeoutMillis,
+            ScriptMetrics metrics) throws TransformationException, ScriptException {
+        Future<String> future;
+        try {
+            future = executor.submit(() -> evaluate(filename, source));
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejection();
+            logger.warn("All threads evaluating JavaScript are busy, not executing '{}', statistics: {}", filename,
+                    metrics);
+            throw new TransformationException("All threads evaluating JavaScript are busy, not executing '"
+                    + filename + "'", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Script engines do not react to interrupts in script code, the script keeps its thread until it ends
+            future.cancel(true);
+            metrics.recordTimeout();
+            logger.warn("JavaScript '{}' did not finish within {} ms, statistics: {}", filename, timeoutMillis,
+                    metrics);
+            throw new TransformationException(
+                    "JavaScript '" + filename + "' did not finish within " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while executing JavaScript '" + filename + "'", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransformationException) {
+                throw (TransformationException) cause;
+            } else if (cause instanceof ScriptException) {
+                throw (ScriptException) cause;
+            }
+            throw new TransformationException("An error occurred while executing script. " + cause, cause);
         }
     }
 }
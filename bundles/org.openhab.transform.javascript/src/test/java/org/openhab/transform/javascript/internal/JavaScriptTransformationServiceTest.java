@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class JavaScriptTransformationServiceTest {
+
+    private static final String THREAD_NAME = "threadName.js";
+    private static final String SLOW = "slow.js";
+    private static final String FAILING = "failing.js";
+
+    private static Path config;
+
+    private JavaScriptTransformationService service;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        // the transform folder is taken from the config folder when the script watcher class is initialized
+        config = Files.createTempDirectory("javascript");
+        System.setProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT, config.toString());
+        Path transform = Files.createDirectories(Paths.get(TransformationScriptWatcher.TRANSFORM_FOLDER));
+        write(transform.resolve(THREAD_NAME),
+                "(function(i) { return i + ' ' + Java.type('java.lang.Thread').currentThread().getName(); })(input)");
+        write(transform.resolve(SLOW),
+                "(function(i) { var end = Date.now() + 1000; while (Date.now() < end) {} return i; })(input)");
+        write(transform.resolve(FAILING), "(function(i) { throw 'failed'; })(input)");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        System.clearProperty(ConfigConstants.CONFIG_DIR_PROG_ARGUMENT);
+        Files.walk(config).map(Path::toFile).sorted((a, b) -> b.compareTo(a)).forEach(File::delete);
+    }
+
+    private static void write(Path path, String script) throws IOException {
+        Files.write(path, script.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Before
+    public void setUp() {
+        service = new JavaScriptTransformationService();
+        service.setJavaScriptEngineManager(new JavaScriptEngineManager());
+    }
+
+    @After
+    public void tearDown() {
+        service.deactivate();
+    }
+
+    private void activate(long timeout, int threads) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("timeout", timeout);
+        config.put("threads", threads);
+        service.activate(config);
+    }
+
+    @Test
+    public void scriptRunsOnCallerThreadByDefault() throws TransformationException {
+        service.activate(null);
+
+        assertThat(service.transform(THREAD_NAME, "a"), is("a " + Thread.currentThread().getName()));
+        assertThat(service.transform(THREAD_NAME, "b"), is("b " + Thread.currentThread().getName()));
+        assertThat(service.getMetrics(THREAD_NAME).getExecutions(), is(2L));
+    }
+
+    @Test
+    public void scriptRunsOnCallerThreadWithoutTimeout() throws TransformationException {
+        activate(0, 1);
+
+        assertThat(service.transform(THREAD_NAME, "a"), is("a " + Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void scriptRunsOnWatchdogThreadWithTimeout() throws TransformationException {
+        activate(5000, 1);
+
+        assertThat(service.transform(THREAD_NAME, "a"), startsWith("a OH-javascriptTransformation-"));
+        assertThat(service.getMetrics(THREAD_NAME).getExecutions(), is(1L));
+    }
+
+    @Test
+    public void slowScriptIsAbortedAfterTimeout() {
+        activate(100, 1);
+
+        try {
+            service.transform(SLOW, "a");
+            fail("the slow script was not aborted");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("did not finish within 100 ms"));
+        }
+        assertThat(service.getMetrics(SLOW).getTimeouts(), is(1L));
+        assertThat(service.getMetrics(SLOW).getRejections(), is(0L));
+        assertThat(service.getMetrics(SLOW).getFailures(), is(1L));
+        assertThat(service.getMetrics(SLOW).getExecutions(), is(0L));
+    }
+
+    @Test
+    public void scriptFailsRightAwayWhenAllThreadsAreBusy() {
+        activate(100, 1);
+        try {
+            service.transform(SLOW, "a");
+            fail("the slow script was not aborted");
+        } catch (TransformationException e) {
+            // the slow script keeps the only thread busy
+        }
+
+        try {
+            service.transform(THREAD_NAME, "a");
+            fail("the script was executed although all threads are busy");
+        } catch (TransformationException e) {
+            assertThat(e.getMessage(), containsString("busy"));
+            assertThat(e.getCause(), is(instanceOf(RejectedExecutionException.class)));
+        }
+        assertThat(service.getMetrics(THREAD_NAME).getRejections(), is(1L));
+        assertThat(service.getMetrics(THREAD_NAME).getFailures(), is(1L));
+        assertThat(service.getMetrics(THREAD_NAME).getTimeouts(), is(0L));
+        assertThat(service.getMetrics(THREAD_NAME).getExecutions(), is(0L));
+    }
+
+    @Test
+    public void failedScriptIsCounted() {
+        service.activate(null);
+        try {
+            service.transform(FAILING, "a");
+            fail("the failing script did not fail");
+        } catch (TransformationException e) {
+            // expected
+        }
+        assertThat(service.getMetrics(FAILING).getFailures(), is(1L));
+        assertThat(service.getMetrics(FAILING).getTimeouts(), is(0L));
+    }
+}
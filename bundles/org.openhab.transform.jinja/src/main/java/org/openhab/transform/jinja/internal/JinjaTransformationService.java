@@ -13,12 +13,12 @@
 package org.openhab.transform.jinja.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -31,6 +31,11 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.tree.Node;
 
 /**
  * <p>
@@ -43,9 +48,26 @@ import com.hubspot.jinjava.Jinjava;
 @Component(immediate = true, property = { "smarthome.transform=JINJA" })
 public class JinjaTransformationService implements TransformationService {
 
+    /** maximum number of parsed templates kept */
+    private static final int MAX_CACHED_TEMPLATES = 256;
+
+    /** ObjectMapper is thread-safe once configured */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private final Logger logger = LoggerFactory.getLogger(JinjaTransformationService.class);
 
-    private Jinjava jinjava = new Jinjava();
+    private final Jinjava jinjava = new Jinjava();
+
+    private final Map<String, Node> parsedTemplates = Collections
+            .synchronizedMap(new LinkedHashMap<String, Node>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                // HashMap.Node shadows the imported Node inside of this class
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, com.hubspot.jinjava.tree.Node> eldest) {
+                    return size() > MAX_CACHED_TEMPLATES;
+                }
+            });
 
     /**
      * Transforms the input <code>value</code> by Jinja template.
@@ -62,46 +84,51 @@ public class JinjaTransformationService implements TransformationService {
         bindings.put("value", value);
 
         try {
-            JsonNode tree = new ObjectMapper().readTree(value);
-            bindings.put("value_json", toObject(tree));
+            JsonNode tree = MAPPER.readTree(value);
+            bindings.put("value_json", LazyJson.toObject(tree));
         } catch (IOException e) {
             // ok, then value_json is null...
         }
 
-        String transformationResult = jinjava.render(template, bindings);
+        String transformationResult = render(getParsedTemplate(template), template, bindings);
 
         logger.debug("transformation resulted in '{}'", transformationResult);
 
         return transformationResult;
     }
 
-    private static @Nullable Object toObject(JsonNode node) {
-        switch (node.getNodeType()) {
-            case ARRAY: {
-                List<@Nullable Object> result = new ArrayList<>();
-                for (JsonNode el : node) {
-                    result.add(toObject(el));
-                }
-                return result;
-            }
-            case NUMBER:
-                return node.decimalValue();
-            case OBJECT: {
-                Map<String, @Nullable Object> result = new HashMap<>();
-                Iterator<Entry<String, JsonNode>> it = node.fields();
-                while (it.hasNext()) {
-                    Entry<String, JsonNode> field = it.next();
-                    result.put(field.getKey(), toObject(field.getValue()));
-                }
-                return result;
-            }
-            case STRING:
-                return node.asText();
-            case BOOLEAN:
-                return node.asBoolean();
-            case NULL:
-            default:
-                return null;
+    private Node getParsedTemplate(String template) throws TransformationException {
+        Node node = parsedTemplates.get(template);
+        if (node == null) {
+            JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, jinjava.getGlobalContext(),
+                    jinjava.getGlobalConfig());
+            node = interpreter.parse(template);
+            checkFatalErrors(interpreter, template);
+            parsedTemplates.put(template, node);
+        }
+        return node;
+    }
+
+    private String render(Node node, String template, Map<String, @Nullable Object> bindings)
+            throws TransformationException {
+        Context context = new Context(jinjava.getGlobalContext(), bindings);
+        JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, jinjava.getGlobalConfig());
+        JinjavaInterpreter.pushCurrent(interpreter);
+        try {
+            String result = interpreter.render(node);
+            checkFatalErrors(interpreter, template);
+            return result;
+        } finally {
+            JinjavaInterpreter.popCurrent();
+        }
+    }
+
+    private void checkFatalErrors(JinjavaInterpreter interpreter, String template) throws TransformationException {
+        List<TemplateError> fatalErrors = interpreter.getErrors().stream()
+                .filter(error -> error.getSeverity() == ErrorType.FATAL).collect(Collectors.toList());
+        if (!fatalErrors.isEmpty()) {
+            throw new TransformationException("Error in template '" + template + "': " + fatalErrors.stream()
+                    .map(TemplateError::getMessage).collect(Collectors.joining(", ")));
         }
     }
 }
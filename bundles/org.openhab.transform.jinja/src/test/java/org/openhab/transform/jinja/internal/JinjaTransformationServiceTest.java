@@ -62,4 +62,22 @@ public class JinjaTransformationServiceTest {
         Assert.assertEquals("Hello world!", transformedResponse);
     }
 
+    @Test
+    public void testArrayAccess() throws TransformationException {
+
+        String json = "{\"values\":[1,2.5,{\"name\":\"x\"}]}";
+
+        Assert.assertEquals("2.5", processor.transform("{{value_json.values[1]}}", json));
+        Assert.assertEquals("x", processor.transform("{{value_json.values[2].name}}", json));
+        Assert.assertEquals("3", processor.transform("{{value_json.values|length}}", json));
+    }
+
+    @Test
+    public void testRepeatedTransform() throws TransformationException {
+
+        String template = "{{value_json.state}}";
+
+        Assert.assertEquals("ON", processor.transform(template, "{\"state\":\"ON\"}"));
+        Assert.assertEquals("OFF", processor.transform(template, "{\"state\":\"OFF\"}"));
+    }
 }
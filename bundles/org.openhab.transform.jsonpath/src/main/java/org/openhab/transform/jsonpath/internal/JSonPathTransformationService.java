@@ -12,7 +12,11 @@
  */
 package org.openhab.transform.jsonpath.internal;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -24,6 +28,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -38,11 +43,21 @@ import com.jayway.jsonpath.PathNotFoundException;
  *
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
+@Component(immediate = true, service = { TransformationService.class,
+        JSonPathTransformationService.class }, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    /** maximum number of {@link JsonPath}s kept, so that each expression is compiled once */
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    /** maximum number of JSON sources whose parsed object tree is kept */
+    private static final int MAX_CACHED_DOCUMENTS = 8;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final Map<String, JsonPath> compiledExpressions = createLruCache(MAX_CACHED_EXPRESSIONS);
+    private final Map<String, Object> parsedDocuments = createLruCache(MAX_CACHED_DOCUMENTS);
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -59,8 +74,32 @@ public class JSonPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
+        return read(jsonPathExpression, source, getDocument(source));
+    }
+
+    /**
+     * Transforms the input <code>source</code> by several JSonPath expressions. The source is parsed only once.
+     * Bindings which need several values of one JSON payload can get this service by its class.
+     *
+     * @param jsonPathExpressions JsonPath expressions
+     * @param source String which contains JSON
+     * @return the results by expression, in the order of the given expressions
+     * @throws TransformationException If the source is no valid JSON or one of the expressions is invalid.
+     */
+    public Map<String, @Nullable String> transformAll(Collection<String> jsonPathExpressions, String source)
+            throws TransformationException {
+        Object document = getDocument(source);
+        Map<String, @Nullable String> results = new LinkedHashMap<>();
+        for (String jsonPathExpression : jsonPathExpressions) {
+            results.put(jsonPathExpression, read(jsonPathExpression, source, document));
+        }
+        return results;
+    }
+
+    private @Nullable String read(String jsonPathExpression, String source, Object document)
+            throws TransformationException {
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            Object transformationResult = getCompiledExpression(jsonPathExpression).read(document);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +115,33 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Returns the object tree the JSON provider parsed from the source. Items bound to one JSON payload each read
+     * their own path from it, so the trees of the latest sources are kept and the payload is parsed only once.
+     * JsonPath only reads the tree, so it can be shared between threads.
+     */
+    private Object getDocument(String source) throws TransformationException {
+        Object document = parsedDocuments.get(source);
+        if (document == null) {
+            try {
+                document = Configuration.defaultConfiguration().jsonProvider().parse(source);
+            } catch (InvalidJsonException e) {
+                throw new TransformationException("An error occurred while transforming JSON expression.", e);
+            }
+            parsedDocuments.put(source, document);
+        }
+        return document;
+    }
+
+    private JsonPath getCompiledExpression(String jsonPathExpression) {
+        JsonPath compiled = compiledExpressions.get(jsonPathExpression);
+        if (compiled == null) {
+            compiled = JsonPath.compile(jsonPathExpression);
+            compiledExpressions.put(jsonPathExpression, compiled);
+        }
+        return compiled;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -100,4 +166,19 @@ public class JSonPathTransformationService implements TransformationService {
     private String createStringList(List<?> list) {
         return list.stream().map(n -> "\"" + String.valueOf(n) + "\"").collect(Collectors.joining(", ", "[", "]"));
     }
+
+    /**
+     * Creates the synchronized map holding compiled paths or parsed JSON trees. It is access-ordered and drops the
+     * entry read least recently beyond {@code maxSize} entries.
+     */
+    private static <K, V> Map<K, V> createLruCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
 }
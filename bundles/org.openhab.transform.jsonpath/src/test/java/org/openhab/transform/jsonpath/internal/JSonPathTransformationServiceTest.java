@@ -14,6 +14,9 @@ package org.openhab.transform.jsonpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -129,4 +132,26 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testTransformAll() throws TransformationException {
+        Map<String, String> results = processor.transformAll(Arrays.asList("$[0].name", "$[1].id", "$[0].empty"),
+                jsonArray);
+        assertEquals(3, results.size());
+        assertEquals("bob", results.get("$[0].name"));
+        assertEquals("2", results.get("$[1].id"));
+        assertEquals(null, results.get("$[0].empty"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformAllWithInvalidSource() throws TransformationException {
+        processor.transformAll(Arrays.asList("$[0].name", "$[1].id"), "{\"name\": ");
+    }
+
+    @Test
+    public void testRepeatedTransformWithSameSource() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.map.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A map file compiled into an immutable open addressing hash table.
+ * <p>
+ * All keys are stored back to back in one char array. Equal values are stored only once and lookups return the
+ * stored value, so a lookup does not allocate. The table is never modified after construction and can be read by
+ * any number of threads without locking.
+ *
+ * @author agent
+ */
+class MapTable {
+
+    /** rough size of an object header and a reference, for the memory estimation */
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 4;
+
+    /** the characters of all keys */
+    private final char[] keyChars;
+    /** start of key <code>i</code> in {@link #keyChars}, with an extra entry for the end of the last key */
+    private final int[] keyOffsets;
+    private final int[] keyHashes;
+    /** index of the value of key <code>i</code> in {@link #values} */
+    private final int[] valueIndexes;
+    /** the distinct values */
+    private final String[] values;
+    /** entry index + 1 of each slot, 0 for an empty slot */
+    private final int[] slots;
+
+    /** the value of the empty key, used if the source is not found */
+    private final String defaultValue;
+
+    /**
+     * Compiles the key value pairs of a map file.
+     *
+     * @param mappings the key value pairs
+     */
+    MapTable(Map<String, String> mappings) {
+        int size = mappings.size();
+        int totalChars = 0;
+        for (String key : mappings.keySet()) {
+            totalChars += key.length();
+        }
+
+        keyChars = new char[totalChars];
+        keyOffsets = new int[size + 1];
+        keyHashes = new int[size];
+        valueIndexes = new int[size];
+        slots = new int[tableSize(size)];
+
+        Map<String, Integer> distinctValues = new HashMap<>();
+        int entry = 0;
+        int offset = 0;
+        for (Map.Entry<String, String> mapping : mappings.entrySet()) {
+            String key = mapping.getKey();
+            key.getChars(0, key.length(), keyChars, offset);
+            keyOffsets[entry] = offset;
+            keyHashes[entry] = key.hashCode();
+            valueIndexes[entry] = distinctValues.computeIfAbsent(mapping.getValue(), v -> distinctValues.size());
+
+            int slot = mix(keyHashes[entry]) & (slots.length - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = entry + 1;
+
+            offset += key.length();
+            entry++;
+        }
+        keyOffsets[size] = offset;
+
+        values = new String[distinctValues.size()];
+        for (Map.Entry<String, Integer> value : distinctValues.entrySet()) {
+            values[value.getValue()] = value.getKey();
+        }
+        defaultValue = lookup("");
+    }
+
+    /**
+     * Returns a power of two that keeps the load factor of the table at or below 0.5.
+     */
+    private static int tableSize(int size) {
+        int tableSize = 2;
+        while (tableSize < 2 * size) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    /**
+     * Spreads the bits of a {@link String#hashCode()}, which are weak in the lower bits for similar keys.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @return the value or null if the key is not mapped
+     */
+    String lookup(String key) {
+        int hash = key.hashCode();
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            entry--;
+            if (keyHashes[entry] == hash && keyEquals(entry, key)) {
+                return values[valueIndexes[entry]];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private boolean keyEquals(int entry, String key) {
+        int start = keyOffsets[entry];
+        int length = keyOffsets[entry + 1] - start;
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyChars[start + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the value of the empty key or null if there is none
+     */
+    String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * @return the number of keys
+     */
+    int size() {
+        return keyHashes.length;
+    }
+
+    /**
+     * @return the number of distinct values
+     */
+    int distinctValues() {
+        return values.length;
+    }
+
+    /**
+     * Estimates the memory used by this table in bytes, assuming compressed references.
+     */
+    long estimateMemoryUsage() {
+        long bytes = OBJECT_OVERHEAD + 7 * REFERENCE_SIZE;
+        bytes += OBJECT_OVERHEAD + 2L * keyChars.length;
+        bytes += 4 * OBJECT_OVERHEAD
+                + 4L * (keyOffsets.length + keyHashes.length + valueIndexes.length + slots.length);
+        bytes += OBJECT_OVERHEAD + (long) REFERENCE_SIZE * values.length;
+        for (String value : values) {
+            // String object and its char array
+            bytes += 2 * OBJECT_OVERHEAD + 2L * value.length();
+        }
+        return bytes;
+    }
+}
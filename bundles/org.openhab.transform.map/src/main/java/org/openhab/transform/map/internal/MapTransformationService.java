@@ -12,9 +12,19 @@
  */
 package org.openhab.transform.map.internal;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.transform.AbstractFileTransformationService;
 import org.eclipse.smarthome.core.transform.TransformationException;
@@ -30,26 +40,45 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - Initial contribution and API
  * @author Gaël L'hopital - Make it localizable
  */
-@Component(immediate = true, service = TransformationService.class, property = { "smarthome.transform=MAP" })
-public class MapTransformationService extends AbstractFileTransformationService<Properties> {
+@Component(immediate = true, service = { TransformationService.class,
+        MapTransformationService.class }, property = { "smarthome.transform=MAP" })
+public class MapTransformationService extends AbstractFileTransformationService<MapTable> {
 
     private final Logger logger = LoggerFactory.getLogger(MapTransformationService.class);
 
+    /**
+     * The last compiled table of each file together with a digest of the file content it was compiled from.
+     * A file that is reported as changed but has the same content is not compiled again. A file with changed content
+     * is compiled again in full, tables are never updated in place. Tables of files which the
+     * base class has dropped from its cache after a change or removal are dropped the next time a file is loaded.
+     */
+    private final Map<String, CompiledFile> compiledFiles = new ConcurrentHashMap<>();
+
+    private static class CompiledFile {
+        final byte[] digest;
+        final MapTable table;
+
+        CompiledFile(byte[] digest, MapTable table) {
+            this.digest = digest;
+            this.table = table;
+        }
+    }
+
     /**
      * <p>
      * Transforms the input <code>source</code> by mapping it to another string. It expects the mappings to be read from
      * a file which is stored under the 'configurations/transform' folder. This file should be in property syntax, i.e.
      * simple lines with "key=value" pairs. To organize the various transformations one might use subfolders.
      *
-     * @param properties the list of properties which contains the key value pairs for the mapping.
+     * @param table the compiled map file which contains the key value pairs for the mapping.
      * @param source the input to transform
      */
     @Override
-    protected String internalTransform(Properties properties, String source) throws TransformationException {
-        String target = properties.getProperty(source);
+    protected String internalTransform(MapTable table, String source) throws TransformationException {
+        String target = table.lookup(source);
 
         if (target == null) {
-            target = properties.getProperty("");
+            target = table.getDefaultValue();
             if (target == null) {
                 throw new TransformationException("Target value not found in map for '" + source + "'");
             }
@@ -60,14 +89,63 @@ public class MapTransformationService extends AbstractFileTransformationService<
     }
 
     @Override
-    protected Properties internalLoadTransform(String filename) throws TransformationException {
-        Properties result = new Properties();
-        try (FileReader reader = new FileReader(filename)) {
-            result.load(reader);
-            return result;
+    protected MapTable internalLoadTransform(String filename) throws TransformationException {
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(Paths.get(filename));
+        } catch (IOException e) {
+            compiledFiles.remove(filename);
+            throw new TransformationException("An error occurred while opening file.", e);
+        }
+        // keep only the files still cached by the base class, and the file being reloaded after a change
+        compiledFiles.keySet().removeIf(file -> !file.equals(filename) && !cachedFiles.containsKey(file));
+
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new TransformationException("SHA-256 is not available.", e);
+        }
+        CompiledFile compiled = compiledFiles.get(filename);
+        if (compiled != null && Arrays.equals(compiled.digest, digest)) {
+            logger.debug("Map file {} is unchanged, keeping the compiled table", filename);
+            return compiled.table;
+        }
+
+        Properties properties = new Properties();
+        try (StringReader reader = new StringReader(new String(content))) {
+            properties.load(reader);
         } catch (IOException e) {
             throw new TransformationException("An error occurred while opening file.", e);
         }
+        Map<String, String> mappings = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            mappings.put(key, properties.getProperty(key));
+        }
+
+        MapTable table = new MapTable(mappings);
+        compiledFiles.put(filename, new CompiledFile(digest, table));
+        logger.debug("Compiled map file {}: {} keys, {} distinct values, about {} bytes", filename, table.size(),
+                table.distinctValues(), table.estimateMemoryUsage());
+        return table;
+    }
+
+    @Override
+    protected void deactivate() {
+        super.deactivate();
+        compiledFiles.clear();
+    }
+
+    /**
+     * Returns the estimated memory usage in bytes of each compiled map file. The service is registered by its class as
+     * well, so that the report can be queried, e.g. from the console.
+     *
+     * @return the file names and their estimated memory usage in bytes
+     */
+    public Map<String, Long> getMemoryReport() {
+        Map<String, Long> report = new TreeMap<>();
+        compiledFiles.forEach((filename, compiled) -> report.put(filename, compiled.table.estimateMemoryUsage()));
+        return Collections.unmodifiableMap(report);
     }
 
 }
@@ -12,13 +12,15 @@
  */
 package org.openhab.transform.map.internal;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 
@@ -134,6 +136,58 @@ public class MapTransformationServiceTest {
         Assert.assertEquals("Default Value", transformedResponse);
     }
 
+    @Test
+    public void testMapTable() {
+        Map<String, String> mappings = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            mappings.put("key" + i, i % 2 == 0 ? "even" : "odd");
+        }
+        MapTable table = new MapTable(mappings);
+
+        assertEquals(1000, table.size());
+        assertEquals(2, table.distinctValues());
+        assertEquals("even", table.lookup("key10"));
+        assertEquals("odd", table.lookup("key999"));
+        assertNull(table.lookup("key1000"));
+        assertNull(table.lookup(""));
+        assertNull(table.getDefaultValue());
+        // Equal values are stored once
+        assertSame(table.lookup("key1"), table.lookup("key3"));
+
+        mappings.put("", "default");
+        assertEquals("default", new MapTable(mappings).getDefaultValue());
+    }
+
+    @Test
+    public void testUnchangedFileIsNotCompiledAgain() throws Exception {
+        MapTable table = processor.internalLoadTransform(USED_FILENAME);
+        assertSame(table, processor.internalLoadTransform(USED_FILENAME));
+        assertTrue(processor.getMemoryReport().get(USED_FILENAME) > 0);
+
+        try (FileWriter writer = new FileWriter(USED_FILENAME, true)) {
+            writer.write("\nNEW=neu\n");
+        }
+        MapTable changed = processor.internalLoadTransform(USED_FILENAME);
+        assertNotSame(table, changed);
+        assertEquals("neu", changed.lookup("NEW"));
+    }
+
+    @Test
+    public void testRemovedFileIsDropped() throws Exception {
+        processor.transform(EXISTING_FILENAME_DE, SOURCE_CLOSED);
+        processor.transform(DEFAULTED_FILENAME, SOURCE_CLOSED);
+        assertTrue(processor.getMemoryReport().containsKey(USED_FILENAME));
+
+        new File(USED_FILENAME).delete();
+        waitForAssert(() -> {
+            // the file events are processed on transformation, the compiled table is dropped on the next load
+            processor.transform(DEFAULTED_FILENAME, SOURCE_CLOSED);
+            processor.internalLoadTransform(CONFIG_FOLDER + File.separator + "transform/" + DEFAULTED_FILENAME);
+            assertFalse(processor.getMemoryReport().containsKey(USED_FILENAME));
+            return null;
+        }, 10000, 100);
+    }
+
     protected void waitForAssert(Callable<Void> assertion, int timeout, int sleepTime) throws Exception {
         int waitingTime = 0;
         while (waitingTime < timeout) {
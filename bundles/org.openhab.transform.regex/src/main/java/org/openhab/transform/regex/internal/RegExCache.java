@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded, concurrent cache of parsed and compiled regular expressions of the {@link RegExTransformationService}.
+ * <p>
+ * When the cache is full, an arbitrary entry is evicted for each new one. Hits, misses and evictions are counted.
+ *
+ * @author agent
+ */
+@NonNullByDefault
+public class RegExCache {
+
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    /**
+     * A parsed and compiled regular expression of the transformation.
+     */
+    public static class CompiledRegEx {
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        private CompiledRegEx(Pattern pattern, @Nullable String substitution, boolean global) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+
+        /**
+         * @return the pattern to match or, for substitutions, the pattern to replace
+         */
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return the replacement of a substitution, null if this is no substitution
+         */
+        public @Nullable String getSubstitution() {
+            return substitution;
+        }
+
+        /**
+         * @return true if a substitution replaces all matches and not only the first one
+         */
+        public boolean isGlobal() {
+            return global;
+        }
+    }
+
+    private final int maxSize;
+    private final Map<String, CompiledRegEx> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RegExCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the compiled form of the given regular expression, compiling it if it is not cached.
+     *
+     * @param regExpression either a regular expression with a group or a substitution of the form
+     *            <code>s/regex/substitution/options</code>
+     * @return the compiled regular expression
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid
+     */
+    public CompiledRegEx get(String regExpression) {
+        CompiledRegEx compiled = cache.get(regExpression);
+        if (compiled != null) {
+            hits.increment();
+            return compiled;
+        }
+        misses.increment();
+        compiled = compile(regExpression);
+        if (cache.size() >= maxSize) {
+            Iterator<String> iterator = cache.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        cache.put(regExpression, compiled);
+        return compiled;
+    }
+
+    private CompiledRegEx compile(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            return new CompiledRegEx(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    substMatcher.group(3).equals("g"));
+        }
+        return new CompiledRegEx(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+    }
+
+    /**
+     * @return the number of cached regular expressions
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to compile the regular expression
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed to make room for new ones
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{size: %d, hits: %d, misses: %d, evictions: %d}", size(), getHits(), getMisses(),
+                getEvictions());
+    }
+}
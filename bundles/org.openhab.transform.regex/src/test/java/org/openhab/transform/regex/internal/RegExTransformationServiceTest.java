@@ -79,4 +79,25 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cached() throws TransformationException {
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Off(0)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:Off,ARG:0"));
+
+        assertEquals(1, processor.getCache().getMisses());
+        assertEquals(1, processor.getCache().getHits());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        RegExCache cache = new RegExCache(2);
+        cache.get("(a)");
+        cache.get("(b)");
+        cache.get("(c)");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getMisses());
+    }
 }
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2010-2019 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A scale file compiled into sorted, non-overlapping intervals.
+ * <p>
+ * All bounds of the ranges split the number line into elementary intervals: the bounds themselves and the open
+ * intervals between them. Each elementary interval is either fully inside or fully outside of every range, so the
+ * label of the first range containing it can be computed while loading. A lookup is then a binary search over the
+ * bounds.
+ * <p>
+ * If all bounds have at most {@value #MAX_DOUBLE_DIGITS} significant digits, plain decimal inputs of at most that many
+ * digits can be looked up as double values: converting such decimals to double keeps their order and distinctness.
+ *
+ * @author agent
+ */
+class ScaleTable {
+
+    /** decimals with up to this number of significant digits are distinct and ordered as doubles */
+    static final int MAX_DOUBLE_DIGITS = 15;
+
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private final String format;
+    private final String nonNumeric;
+
+    /** the sorted, distinct bounds of all ranges */
+    private final BigDecimal[] bounds;
+    private final double[] doubleBounds;
+    private final boolean doubleLookup;
+
+    /**
+     * The labels of the elementary intervals: index <code>2 * i</code> is the open interval below bound
+     * <code>i</code>, index <code>2 * i + 1</code> is bound <code>i</code> itself and the last index is the open
+     * interval above the highest bound. A null label means that no range contains the interval.
+     */
+    private final String[] labels;
+
+    /**
+     * Compiles the ranges of a scale file.
+     *
+     * @param ranges the ranges in the order of the file
+     * @param values the labels of the ranges
+     * @param format the presentation format
+     * @param nonNumeric the label for non numeric inputs, may be null
+     */
+    ScaleTable(List<Range> ranges, List<String> values, String format, String nonNumeric) {
+        this.format = format;
+        this.nonNumeric = nonNumeric;
+
+        TreeSet<BigDecimal> sortedBounds = new TreeSet<>();
+        for (Range range : ranges) {
+            if (range.min != null) {
+                sortedBounds.add(range.min);
+            }
+            if (range.max != null) {
+                sortedBounds.add(range.max);
+            }
+        }
+        bounds = sortedBounds.toArray(new BigDecimal[sortedBounds.size()]);
+
+        labels = new String[2 * bounds.length + 1];
+        for (int i = 0; i < labels.length; i++) {
+            BigDecimal representative = representative(i);
+            for (int r = 0; r < ranges.size(); r++) {
+                if (ranges.get(r).contains(representative)) {
+                    labels[i] = values.get(r);
+                    break;
+                }
+            }
+        }
+
+        doubleBounds = new double[bounds.length];
+        boolean doubleLookup = true;
+        for (int i = 0; i < bounds.length; i++) {
+            doubleBounds[i] = bounds[i].doubleValue();
+            if (bounds[i].precision() > MAX_DOUBLE_DIGITS || Double.isInfinite(doubleBounds[i])
+                    || (i > 0 && doubleBounds[i - 1] >= doubleBounds[i])) {
+                doubleLookup = false;
+            }
+        }
+        this.doubleLookup = doubleLookup;
+    }
+
+    /**
+     * Returns a value inside of the elementary interval with the given index.
+     */
+    private BigDecimal representative(int interval) {
+        if (bounds.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int bound = interval / 2;
+        if (interval % 2 == 1) {
+            return bounds[bound];
+        }
+        if (bound == 0) {
+            return bounds[0].subtract(BigDecimal.ONE);
+        }
+        if (bound == bounds.length) {
+            return bounds[bounds.length - 1].add(BigDecimal.ONE);
+        }
+        return bounds[bound - 1].add(bounds[bound]).divide(TWO);
+    }
+
+    /**
+     * Returns the label of the first range containing the given value.
+     *
+     * @return the label or null if no range contains the value
+     */
+    String lookup(BigDecimal value) {
+        int low = 0;
+        int high = bounds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = bounds[mid].compareTo(value);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return labels[2 * mid + 1];
+            }
+        }
+        return labels[2 * low];
+    }
+
+    /**
+     * Returns the label of the first range containing the given value. Must only be used if
+     * {@link #isDoubleLookup()} is true and the value was parsed from a {@link #isPlainDecimal(String) plain decimal}.
+     *
+     * @return the label or null if no range contains the value
+     */
+    String lookup(double value) {
+        int low = 0;
+        int high = doubleBounds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double bound = doubleBounds[mid];
+            if (bound < value) {
+                low = mid + 1;
+            } else if (bound > value) {
+                high = mid - 1;
+            } else {
+                return labels[2 * mid + 1];
+            }
+        }
+        return labels[2 * low];
+    }
+
+    /**
+     * @return true if plain decimal inputs can be looked up as double values
+     */
+    boolean isDoubleLookup() {
+        return doubleLookup;
+    }
+
+    /**
+     * @return the presentation format
+     */
+    String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the label for non numeric inputs or null if there is none
+     */
+    String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Checks whether the source is an optionally signed decimal without exponent, which both {@link BigDecimal} and
+     * {@link Double#parseDouble(String)} accept with the same meaning, and which has at most
+     * {@value #MAX_DOUBLE_DIGITS} significant digits.
+     */
+    static boolean isPlainDecimal(String source) {
+        int length = source.length();
+        int i = 0;
+        if (length > 0 && (source.charAt(0) == '-' || source.charAt(0) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        int significantDigits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = source.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significantDigits > 0 || c != '0') {
+                    significantDigits++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+        return digits > 0 && significantDigits <= MAX_DOUBLE_DIGITS;
+    }
+}
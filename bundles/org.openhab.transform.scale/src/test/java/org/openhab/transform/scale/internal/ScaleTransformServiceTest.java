@@ -150,4 +150,30 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("Correcte (992) !", transformedResponse);
     }
 
+    @Test
+    public void testTransformByScaleBounds() throws TransformationException {
+        String existingscale = "scale/limits.scale";
+
+        // inclusive and exclusive bounds through the double and the BigDecimal lookup
+        Assert.assertEquals("middle", processor.transform(existingscale, "10"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "19.999"));
+        Assert.assertEquals("high", processor.transform(existingscale, "20"));
+        Assert.assertEquals("high", processor.transform(existingscale, "20.000000000000000000001"));
+        Assert.assertEquals("middle", processor.transform(existingscale, "19.999999999999999999999"));
+        Assert.assertEquals("high", processor.transform(existingscale, "2E1"));
+        Assert.assertEquals("low", processor.transform(existingscale, "-0"));
+    }
+
+    @Test
+    public void testPlainDecimal() {
+        Assert.assertTrue(ScaleTable.isPlainDecimal("12"));
+        Assert.assertTrue(ScaleTable.isPlainDecimal("-12.5"));
+        Assert.assertTrue(ScaleTable.isPlainDecimal("+.5"));
+        Assert.assertFalse(ScaleTable.isPlainDecimal(""));
+        Assert.assertFalse(ScaleTable.isPlainDecimal("-"));
+        Assert.assertFalse(ScaleTable.isPlainDecimal("1e3"));
+        Assert.assertFalse(ScaleTable.isPlainDecimal("1d"));
+        Assert.assertFalse(ScaleTable.isPlainDecimal("NaN"));
+        Assert.assertFalse(ScaleTable.isPlainDecimal("1234567890.123456"));
+    }
 }
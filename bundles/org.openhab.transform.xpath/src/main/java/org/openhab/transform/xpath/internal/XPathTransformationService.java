@@ -13,12 +13,17 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -34,6 +39,10 @@ import org.xml.sax.InputSource;
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
+ * <p>
+ * Compiled {@link XPathExpression}s are cached by their expression string. The DOM {@link Document} of an XML source
+ * is kept for a few seconds as well, so that the other items bound to the same XML response do not parse it again.
+ * The JAXP implementations of neither are thread-safe, so both are locked while an expression is evaluated.
  *
  * @author Thomas.Eichstaedt-Engelen
  */
@@ -41,8 +50,45 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    /** maximum number of compiled {@link XPathExpression}s kept, evicted by last use */
+    private static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    /** maximum number of DOM documents kept, one per recently transformed XML source */
+    private static final int MAX_CACHED_DOCUMENTS = 8;
+
+    /** time after which a cached document is parsed again, documents are only shared by transformations in a row */
+    private static final long DOCUMENT_EXPIRY_MILLIS = 10000;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot create XML document builder", e);
+        }
+    });
+    private final ThreadLocal<XPath> xpaths = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private final Map<String, XPathExpression> compiledExpressions = createLruCache(MAX_CACHED_EXPRESSIONS);
+    private final Map<String, ParsedDocument> parsedDocuments = createLruCache(MAX_CACHED_DOCUMENTS);
+
+    private static class ParsedDocument {
+        private final Document document;
+        private final long parsedMillis = System.currentTimeMillis();
+
+        ParsedDocument(Document document) {
+            this.document = document;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - parsedMillis > DOCUMENT_EXPIRY_MILLIS;
+        }
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,35 +97,61 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
-
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
-            InputSource inputSource = new InputSource(stringReader);
-            inputSource.setEncoding("UTF-8");
-
-            Document doc = builder.parse(inputSource);
-
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
-
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            XPathExpression expr = getCompiledExpression(xpathExpression);
+            Document doc = getDocument(source);
+
+            String transformationResult;
+            synchronized (expr) {
+                synchronized (doc) {
+                    transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+                }
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
+        }
+    }
+
+    private Document getDocument(String source) throws Exception {
+        ParsedDocument parsed = parsedDocuments.get(source);
+        if (parsed == null || parsed.isExpired()) {
+            DocumentBuilder builder = documentBuilders.get();
+            builder.reset();
+            try (StringReader stringReader = new StringReader(source)) {
+                InputSource inputSource = new InputSource(stringReader);
+                inputSource.setEncoding("UTF-8");
+                parsed = new ParsedDocument(builder.parse(inputSource));
             }
+            parsedDocuments.put(source, parsed);
         }
+        return parsed.document;
     }
 
+    private XPathExpression getCompiledExpression(String xpathExpression) throws XPathExpressionException {
+        XPathExpression compiled = compiledExpressions.get(xpathExpression);
+        if (compiled == null) {
+            compiled = xpaths.get().compile(xpathExpression);
+            compiledExpressions.put(xpathExpression, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Creates the synchronized, access-ordered map holding compiled expressions or DOM documents. Once it holds more
+     * than {@code maxSize} entries, the one evaluated least recently is dropped.
+     */
+    private static <K, V> Map<K, V> createLruCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
 }
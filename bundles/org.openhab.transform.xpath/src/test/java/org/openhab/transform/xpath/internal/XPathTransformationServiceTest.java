@@ -41,4 +41,28 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformSameSourceByDifferentXPaths() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+    }
+
+    @Test
+    public void testTransformDifferentSourcesBySameXPath() throws TransformationException {
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("9", processor.transform("//current_conditions/temp_c/@data",
+                source.replace("<temp_c data=\"8\"/>", "<temp_c data=\"9\"/>")));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidXPath() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@", source);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidSource() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", "<xml_api_reply>");
+    }
+
 }
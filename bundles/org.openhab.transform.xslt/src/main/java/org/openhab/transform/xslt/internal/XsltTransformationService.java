@@ -15,9 +15,13 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -34,15 +38,49 @@ import org.slf4j.LoggerFactory;
 /**
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
+ * <p>
+ * Compiled stylesheets are cached by file until the {@link XsltStylesheetWatcher} reports a change of the file. Each
+ * thread reuses its own {@link Transformer} of a cached stylesheet.
  *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=XSLT" })
+@Component(immediate = true, service = { TransformationService.class,
+        XsltTransformationService.class }, property = { "smarthome.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    private final Map<Path, CompiledStylesheet> compiledStylesheets = new ConcurrentHashMap<>();
+
+    /**
+     * A compiled stylesheet together with the transformers of the threads using it.
+     */
+    private static class CompiledStylesheet {
+        private final Templates templates;
+        private final ThreadLocal<@Nullable Transformer> transformers = new ThreadLocal<>();
+
+        CompiledStylesheet(Templates templates) {
+            this.templates = templates;
+        }
+
+        Transformer getTransformer() throws TransformerConfigurationException {
+            Transformer transformer = transformers.get();
+            if (transformer == null) {
+                transformer = templates.newTransformer();
+                transformers.set(transformer);
+            } else {
+                transformer.reset();
+            }
+            return transformer;
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,37 +98,60 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        Path path = new File(TRANSFORM_FOLDER, filename).toPath().toAbsolutePath().normalize();
+        CompiledStylesheet stylesheet = getStylesheet(path);
 
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
+        logger.debug("about to transform '{}' by the function '{}'", source, path);
 
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
-
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
-
-        StringReader xml = new StringReader(source);
-        StringWriter out = new StringWriter();
-
-        Transformer transformer;
+        // StringReader wraps the source without copying it
+        StringWriter out = new StringWriter(source.length());
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
-            transformer.transform(new StreamSource(xml), new StreamResult(out));
+            stylesheet.getTransformer().transform(new StreamSource(new StringReader(source)), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
             throw new TransformationException("transformation throws exception", e);
         }
 
-        logger.debug("transformation resulted in '{}'", out.toString());
+        String result = out.toString();
+        logger.debug("transformation resulted in '{}'", result);
 
-        return out.toString();
+        return result;
     }
 
+    private CompiledStylesheet getStylesheet(Path path) throws TransformationException {
+        CompiledStylesheet stylesheet = compiledStylesheets.get(path);
+        if (stylesheet != null) {
+            return stylesheet;
+        }
+        // the factory is not thread-safe
+        synchronized (transformerFactory) {
+            stylesheet = compiledStylesheets.get(path);
+            if (stylesheet == null) {
+                logger.debug("Compiling stylesheet {}", path);
+                try {
+                    stylesheet = new CompiledStylesheet(
+                            transformerFactory.newTemplates(new StreamSource(path.toFile())));
+                } catch (Exception e) {
+                    String message = "opening file '" + path + "' throws exception";
+
+                    logger.error("{}", message, e);
+                    throw new TransformationException(message, e);
+                }
+                compiledStylesheets.put(path, stylesheet);
+            }
+            return stylesheet;
+        }
+    }
+
+    /**
+     * Removes a compiled stylesheet from the cache.
+     *
+     * @param path the path of the stylesheet file
+     */
+    protected void removeFromCache(Path path) {
+        if (compiledStylesheets.remove(path.toAbsolutePath().normalize()) != null) {
+            logger.debug("Removed stylesheet {} from cache.", path);
+        }
+    }
 }